@@ -48,8 +48,12 @@ fi
 echo "🚀 Launching LumosPath Console..."
 echo ""
 
-# Run the console application
-mvn exec:java -Dexec.mainClass="com.lumospath.LumosPathApplication"
+# Run the console application, from the AppCDS startup archive when it has been built (mvn -Pappcds package)
+if [ -f "target/lumospath.jsa" ] && [ -f "target/lumos-path-1.0.0.jar" ]; then
+    java -XX:SharedArchiveFile=target/lumospath.jsa -Xlog:cds=off -cp target/lumos-path-1.0.0.jar com.lumospath.LumosPathApplication
+else
+    mvn exec:java -Dexec.mainClass="com.lumospath.LumosPathApplication"
+fi
 
 echo ""
 echo "Thank you for using LumosPath! 💙"
@@ -35,8 +35,13 @@ fi
 echo "🚀 Launching LumosPath GUI..."
 echo ""
 
-# Run the JavaFX application
-mvn javafx:run 2>/dev/null || mvn exec:java
+# Run the JavaFX application, from the AppCDS startup archive when it has been built (mvn -Pappcds package).
+# JavaFX is on the plain classpath there, so start through the non-Application Launcher class.
+if [ -f "target/lumospath.jsa" ] && [ -f "target/lumos-path-1.0.0.jar" ]; then
+    java -XX:SharedArchiveFile=target/lumospath.jsa -Xlog:cds=off -cp target/lumos-path-1.0.0.jar com.lumospath.gui.Launcher
+else
+    mvn javafx:run 2>/dev/null || mvn exec:java
+fi
 
 echo ""
 echo "Thank you for using LumosPath! 💙"
@@ -26,7 +26,12 @@ export JAVA_OPTS="-Dapple.awt.application.appearance=system -Dapple.awt.applicat
 
 echo "🚀 Launching GUI application..."
 
-# Run the simplified launcher
-java $JAVA_OPTS -cp target/classes -Djava.awt.headless=false com.lumospath.gui.SimpleLauncher
+# Run the simplified launcher, from the AppCDS startup archive when it has been built (mvn -Pappcds package).
+# JavaFX is on the plain classpath there, so start through the non-Application Launcher class.
+if [ -f "target/lumospath.jsa" ] && [ -f "target/lumos-path-1.0.0.jar" ]; then
+    java $JAVA_OPTS -XX:SharedArchiveFile=target/lumospath.jsa -Xlog:cds=off -cp target/lumos-path-1.0.0.jar -Djava.awt.headless=false com.lumospath.gui.Launcher --simple
+else
+    java $JAVA_OPTS -cp target/classes -Djava.awt.headless=false com.lumospath.gui.SimpleLauncher
+fi
 
 echo "✨ GUI session completed!"
\ No newline at end of file
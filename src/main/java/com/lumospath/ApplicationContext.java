@@ -0,0 +1,111 @@
+package com.lumospath;
+
+import com.lumospath.chatbot.LumosBot;
+import com.lumospath.dao.ChatLogDAO;
+import com.lumospath.dao.MoodEntryDAO;
+import com.lumospath.dao.UserDAO;
+import com.lumospath.dao.impl.CachedUserDAO;
+import com.lumospath.dao.impl.ChatLogDAOImpl;
+import com.lumospath.dao.impl.MoodEntryDAOImpl;
+import com.lumospath.dao.impl.UserDAOImpl;
+import com.lumospath.service.AuthenticationService;
+import com.lumospath.service.ChatHistoryService;
+import com.lumospath.service.CrisisEscalationService;
+import com.lumospath.service.EmergencyHelplineService;
+import com.lumospath.service.MeditationService;
+import com.lumospath.service.MoodTrackingService;
+import com.lumospath.service.MotivationalQuoteService;
+import com.lumospath.service.SessionService;
+import com.lumospath.util.MetricsRegistry;
+
+import java.util.Scanner;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide container for services and DAOs. Each component is built once, on first use,
+ * and shared by every launcher and view, so quote lists, helpline lists and meditation sessions
+ * exist once per JVM and all console input goes through a single Scanner.
+ * Getters are thread-safe and may be called from background warm-up threads.
+ */
+public final class ApplicationContext {
+    private static final ApplicationContext INSTANCE = new ApplicationContext();
+
+    private final Lazy<Scanner> consoleScanner = new Lazy<>(() -> new Scanner(System.in));
+
+    private final Lazy<UserDAO> userDAO = new Lazy<>(() ->
+        new CachedUserDAO(MetricsRegistry.instrument(UserDAO.class, new UserDAOImpl(), "dao.UserDAO")));
+    private final Lazy<MoodEntryDAO> moodEntryDAO = new Lazy<>(() ->
+        MetricsRegistry.instrument(MoodEntryDAO.class, new MoodEntryDAOImpl(), "dao.MoodEntryDAO"));
+    private final Lazy<ChatLogDAO> chatLogDAO = new Lazy<>(() ->
+        MetricsRegistry.instrument(ChatLogDAO.class, new ChatLogDAOImpl(), "dao.ChatLogDAO"));
+
+    private final Lazy<MotivationalQuoteService> quoteService = new Lazy<>(MotivationalQuoteService::new);
+    private final Lazy<EmergencyHelplineService> helplineService = new Lazy<>(EmergencyHelplineService::new);
+    private final Lazy<MeditationService> meditationService = new Lazy<>(MeditationService::new);
+    private final Lazy<MoodTrackingService> moodService = new Lazy<>(() ->
+        new MoodTrackingService(getMoodEntryDAO(), getConsoleScanner()));
+    private final Lazy<ChatHistoryService> chatHistoryService = new Lazy<>(() ->
+        new ChatHistoryService(getChatLogDAO()));
+    private final Lazy<SessionService> sessionService = new Lazy<>(() ->
+        new SessionService(getUserDAO()));
+    private final Lazy<AuthenticationService> authService = new Lazy<>(() ->
+        new AuthenticationService(getUserDAO(), getSessionService()));
+    private final Lazy<CrisisEscalationService> crisisEscalationService = new Lazy<>(CrisisEscalationService::new);
+    private final Lazy<LumosBot> chatbot = new Lazy<>(() ->
+        new LumosBot(getQuoteService(), getHelplineService(), getCrisisEscalationService(), getConsoleScanner()));
+
+    private ApplicationContext() {
+    }
+
+    /**
+     * Get the shared context
+     */
+    public static ApplicationContext get() {
+        return INSTANCE;
+    }
+
+    /**
+     * The one Scanner over System.in shared by every console interaction
+     */
+    public Scanner getConsoleScanner() { return consoleScanner.get(); }
+
+    public UserDAO getUserDAO() { return userDAO.get(); }
+    public MoodEntryDAO getMoodEntryDAO() { return moodEntryDAO.get(); }
+    public ChatLogDAO getChatLogDAO() { return chatLogDAO.get(); }
+
+    public MotivationalQuoteService getQuoteService() { return quoteService.get(); }
+    public EmergencyHelplineService getHelplineService() { return helplineService.get(); }
+    public MeditationService getMeditationService() { return meditationService.get(); }
+    public MoodTrackingService getMoodService() { return moodService.get(); }
+    public ChatHistoryService getChatHistoryService() { return chatHistoryService.get(); }
+    public SessionService getSessionService() { return sessionService.get(); }
+    public AuthenticationService getAuthService() { return authService.get(); }
+    public CrisisEscalationService getCrisisEscalationService() { return crisisEscalationService.get(); }
+    public LumosBot getChatbot() { return chatbot.get(); }
+
+    /**
+     * Thread-safe lazily initialized value (double-checked locking)
+     */
+    private static final class Lazy<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
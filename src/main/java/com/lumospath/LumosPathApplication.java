@@ -24,11 +24,15 @@ public class LumosPathApplication {
     private LumosBot chatbot;
     
     public LumosPathApplication() {
-        this.scanner = new Scanner(System.in);
-        this.moodService = new MoodTrackingService();
-        this.quoteService = new MotivationalQuoteService();
-        this.helplineService = new EmergencyHelplineService();
-        this.chatbot = new LumosBot();
+        this(ApplicationContext.get());
+    }
+    
+    public LumosPathApplication(ApplicationContext context) {
+        this.scanner = context.getConsoleScanner();
+        this.moodService = context.getMoodService();
+        this.quoteService = context.getQuoteService();
+        this.helplineService = context.getHelplineService();
+        this.chatbot = context.getChatbot();
     }
 
     /**
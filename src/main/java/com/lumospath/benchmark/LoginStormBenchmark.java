@@ -0,0 +1,87 @@
+package com.lumospath.benchmark;
+
+import com.lumospath.service.PasswordHashingService;
+import com.lumospath.util.LegacySha256PasswordHasher;
+import com.lumospath.util.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates a burst of concurrent logins against PasswordHashingService and reports throughput,
+ * latency percentiles and how many attempts the bounded worker pool rejected.
+ *
+ * Usage: java -cp target/classes com.lumospath.benchmark.LoginStormBenchmark [clients] [attempts]
+ * The work factor can be overridden with -Dsecurity.password.pbkdf2.iterations=N and the pool with
+ * -Dsecurity.password.pool.threads=N / -Dsecurity.password.pool.queue_capacity=N.
+ */
+public class LoginStormBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        PasswordHashingService hashing = new PasswordHashingService();
+        String password = "Correct-Horse-1!";
+        String storedHash = hashing.hash(password);
+        String legacyHash = new LegacySha256PasswordHasher().hash(password.toCharArray());
+
+        // Warm up the JIT and the PBKDF2 provider before measuring
+        for (int i = 0; i < 3; i++) {
+            hashing.verify(password, storedHash);
+        }
+        MetricsRegistry.reset();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger upgraded = new AtomicInteger();
+
+        ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < attempts; i++) {
+            final int attempt = i;
+            futures.add(clientPool.submit(() -> {
+                // Mix of correct logins, wrong passwords and legacy accounts that get upgraded
+                String candidate = attempt % 4 == 3 ? "wrong-password" : password;
+                String hash = attempt % 8 == 0 ? legacyHash : storedHash;
+                try {
+                    PasswordHashingService.Verification result = hashing.verify(candidate, hash);
+                    if (result.isMatched()) {
+                        succeeded.incrementAndGet();
+                        if (result.getUpgradedHash() != null) {
+                            upgraded.incrementAndGet();
+                        }
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                } catch (RejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        clientPool.shutdown();
+
+        MetricsRegistry.Histogram latency = MetricsRegistry.histogram("auth.passwordVerify");
+        int processed = succeeded.get() + failed.get();
+        System.out.println("=== Login Storm Benchmark ===");
+        System.out.printf("Clients: %d, attempts: %d, hasher threads: %s%n", clients, attempts,
+                System.getProperty("security.password.pool.threads", "default"));
+        System.out.printf("Processed: %d (ok=%d, wrong=%d, rehashed=%d), rejected: %d%n",
+                processed, succeeded.get(), failed.get(), upgraded.get(), rejected.get());
+        System.out.printf("Elapsed: %.2f s, throughput: %.1f verifications/s%n", seconds, processed / seconds);
+        System.out.printf("Latency (queueing + hashing): p50=%.1f ms, p95=%.1f ms, p99=%.1f ms, max=%.1f ms%n",
+                latency.valueAtPercentile(50) / 1e6, latency.valueAtPercentile(95) / 1e6,
+                latency.valueAtPercentile(99) / 1e6, latency.getMaxMicros() / 1e3);
+    }
+}
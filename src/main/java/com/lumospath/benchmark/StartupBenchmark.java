@@ -0,0 +1,101 @@
+package com.lumospath.benchmark;
+
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares cold-start time of StartupTrainingRun without class data sharing, with the JDK's default
+ * CDS archive, and with the application's AppCDS archive. Each configuration is launched as a fresh
+ * JVM several times and the median wall-clock time is reported. When a display is available the
+ * real GUI launcher is timed the same way, from launch until the first frame is shown and warm-up
+ * has finished.
+ *
+ * Usage: java -cp target/lumos-path-1.0.0.jar com.lumospath.benchmark.StartupBenchmark [archive] [runs]
+ * Build the jar and archive first with: mvn -Pappcds package
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String archive = args.length > 0 ? args[0] : "target/lumospath.jsa";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String classPath = System.getProperty("java.class.path");
+
+        System.out.println("=== Startup Benchmark ===");
+        System.out.printf("Runs per configuration: %d, classpath: %s%n", runs, classPath);
+
+        String trainingRun = StartupTrainingRun.class.getName();
+        long noSharing = measure("no CDS", runs, classPath, trainingRun, "-Xshare:off");
+        long jdkSharing = measure("JDK CDS (default)", runs, classPath, trainingRun);
+        if (!new File(archive).isFile()) {
+            System.out.println("AppCDS archive " + archive + " not found; run mvn -Pappcds package first");
+            return;
+        }
+        long appSharing = measure("AppCDS", runs, classPath, trainingRun, "-XX:SharedArchiveFile=" + archive);
+
+        System.out.printf("AppCDS vs no CDS: %.1f%% faster, vs JDK CDS: %.1f%% faster%n",
+                gain(noSharing, appSharing), gain(jdkSharing, appSharing));
+
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println("No display: GUI launcher not measured");
+            return;
+        }
+        String launcher = "com.lumospath.gui.Launcher";
+        String exitAfterFirstFrame = "-Dlumospath.startup.exitAfterFirstFrame=true";
+        long guiJdkSharing = measure("GUI, JDK CDS", runs, classPath, launcher, exitAfterFirstFrame);
+        long guiAppSharing = measure("GUI, AppCDS", runs, classPath, launcher, exitAfterFirstFrame,
+                "-XX:SharedArchiveFile=" + archive);
+        System.out.printf("GUI launcher with AppCDS vs JDK CDS: %.1f%% faster%n", gain(guiJdkSharing, guiAppSharing));
+    }
+
+    /**
+     * @return Median wall-clock milliseconds from process launch to exit
+     */
+    private static long measure(String label, int runs, String classPath, String mainClass, String... jvmOptions)
+            throws Exception {
+        List<Long> times = new ArrayList<>();
+        String probe = null;
+        for (int i = 0; i < runs; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(Arrays.asList(jvmOptions));
+            command.add("-Xlog:cds=off");
+            command.add("-cp");
+            command.add(classPath);
+            command.add(mainClass);
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (line.startsWith("startup-ms=") || line.contains("Startup milestones")) {
+                        probe = line;
+                    }
+                }
+            }
+            int exitCode = process.waitFor();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            if (exitCode != 0) {
+                throw new IllegalStateException(label + " run exited with code " + exitCode);
+            }
+            times.add(elapsedMs);
+        }
+        Collections.sort(times);
+        long median = times.get(times.size() / 2);
+        System.out.printf("%-18s median %5d ms  (min %d, max %d)  last probe: %s%n",
+                label, median, times.get(0), times.get(times.size() - 1), probe);
+        return median;
+    }
+
+    private static double gain(long baseline, long candidate) {
+        return baseline == 0 ? 0.0 : (baseline - candidate) * 100.0 / baseline;
+    }
+}
@@ -0,0 +1,116 @@
+package com.lumospath.benchmark;
+
+import com.lumospath.ApplicationContext;
+import com.lumospath.LumosPathApplication;
+import com.lumospath.gui.controllers.MainController;
+import com.lumospath.util.DatabaseUtil;
+
+import javafx.application.Platform;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scripted, non-interactive startup of LumosPathApplication and LumosPathGUI. It is used to train the
+ * AppCDS archive (see the "appcds" profile in pom.xml) and is the probe timed by StartupBenchmark.
+ * When a display is available the GUI scene is built and every view opened; otherwise the GUI
+ * classes are only loaded, which still lets the archive cover them.
+ *
+ * Prints "startup-ms=N" (time since JVM start) and exits.
+ */
+public class StartupTrainingRun {
+    private static final String[] GUI_CLASSES = {
+        "com.lumospath.gui.Launcher",
+        "com.lumospath.gui.LumosPathGUI",
+        "com.lumospath.gui.SimpleLauncher",
+        "com.lumospath.gui.controllers.MainController",
+        "com.lumospath.gui.views.WelcomeView",
+        "com.lumospath.gui.views.LoginView",
+        "com.lumospath.gui.views.SignUpView",
+        "com.lumospath.gui.views.DashboardView",
+        "com.lumospath.gui.views.MoodTrackingView",
+        "com.lumospath.gui.views.QuotesView",
+        "com.lumospath.gui.views.ChatView",
+        "com.lumospath.gui.views.HelplineView",
+        "com.lumospath.gui.views.MeditationView",
+        "com.lumospath.gui.views.UserProgressView",
+        "javafx.application.Application",
+        "javafx.scene.Scene",
+        "javafx.scene.layout.BorderPane",
+        "javafx.scene.layout.VBox",
+        "javafx.scene.layout.HBox",
+        "javafx.scene.control.Button",
+        "javafx.scene.control.Label",
+        "javafx.scene.control.TextField",
+        "javafx.scene.control.PasswordField",
+        "javafx.scene.control.ScrollPane",
+        "javafx.scene.control.ListView",
+        "javafx.scene.control.TabPane",
+        "javafx.scene.chart.LineChart",
+        "javafx.animation.Timeline"
+    };
+
+    public static void main(String[] args) throws Exception {
+        // Console launcher path
+        DatabaseUtil.initializeDatabase();
+        ApplicationContext context = ApplicationContext.get();
+        new LumosPathApplication(context);
+        context.getChatbot().getResponse("I have been feeling a bit anxious about exams");
+        context.getMeditationService();
+
+        // GUI launcher path
+        String gui = trainGui() ? "rendered" : "classes-only";
+
+        System.out.println("startup-ms=" + ManagementFactory.getRuntimeMXBean().getUptime() + " gui=" + gui);
+        System.exit(0);
+    }
+
+    /**
+     * Build the main scene and open every view on the FX thread
+     * @return false if the JavaFX toolkit could not start (e.g. no display)
+     */
+    private static boolean trainGui() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            Platform.startup(() -> {
+                try {
+                    ApplicationContext context = ApplicationContext.get();
+                    MainController controller = new MainController(context.getMoodService(),
+                            context.getQuoteService(), context.getHelplineService(), context.getChatbot());
+                    controller.createMainScene();
+                    controller.showLoginView();
+                    controller.showSignUpView();
+                    controller.showDashboardView();
+                    controller.showMoodTrackingView();
+                    controller.showQuotesView();
+                    controller.showChatView();
+                    controller.showHelplineView();
+                    controller.showMeditationView();
+                    controller.showProgressView();
+                } catch (RuntimeException e) {
+                    System.err.println("GUI training run failed: " + e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            loadClasses();
+            return false;
+        }
+        boolean finished = done.await(60, TimeUnit.SECONDS);
+        Platform.exit();
+        return finished;
+    }
+
+    private static void loadClasses() {
+        ClassLoader loader = StartupTrainingRun.class.getClassLoader();
+        for (String name : GUI_CLASSES) {
+            try {
+                Class.forName(name, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Could not load " + name + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.lumospath.chatbot;
+
+/**
+ * A chatbot turn: the reply text together with the analysis it was based on.
+ * Stored with the chat log, so sentiment and emotion never have to be recomputed from history.
+ */
+public final class BotReply {
+    private final String text;
+    private final double sentimentScore;
+    private final String detectedEmotion;
+    private final long analysisNanos;
+    private final long totalNanos;
+    private final CrisisDetector.Match crisis;
+
+    /**
+     * @param sentimentScore Sentiment of the user's message, from -1 (negative) to 1 (positive)
+     * @param detectedEmotion Dominant emotion of the user's message
+     * @param analysisNanos Time spent on sentiment and emotion analysis
+     * @param totalNanos Time spent producing the whole reply
+     */
+    public BotReply(String text, double sentimentScore, String detectedEmotion, long analysisNanos, long totalNanos) {
+        this(text, sentimentScore, detectedEmotion, analysisNanos, totalNanos, null);
+    }
+
+    /**
+     * @param crisis Crisis phrase found in the user's message, or null
+     */
+    public BotReply(String text, double sentimentScore, String detectedEmotion, long analysisNanos, long totalNanos,
+                    CrisisDetector.Match crisis) {
+        this.text = text;
+        this.sentimentScore = sentimentScore;
+        this.detectedEmotion = detectedEmotion;
+        this.analysisNanos = analysisNanos;
+        this.totalNanos = totalNanos;
+        this.crisis = crisis;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public double getSentimentScore() {
+        return sentimentScore;
+    }
+
+    public String getDetectedEmotion() {
+        return detectedEmotion;
+    }
+
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get the crisis phrase found in the user's message, or null
+     */
+    public CrisisDetector.Match getCrisis() {
+        return crisis;
+    }
+
+    public boolean isCrisis() {
+        return crisis != null;
+    }
+
+    /**
+     * Copy with different text and total time, used when the reply is decorated after generation
+     */
+    BotReply withText(String newText, long newTotalNanos) {
+        return new BotReply(newText, sentimentScore, detectedEmotion, analysisNanos, newTotalNanos, crisis);
+    }
+
+    @Override
+    public String toString() {
+        return "BotReply{sentimentScore=" + sentimentScore + ", detectedEmotion='" + detectedEmotion + '\''
+                + ", analysisNanos=" + analysisNanos + ", totalNanos=" + totalNanos + ", crisis=" + crisis + '}';
+    }
+}
@@ -0,0 +1,241 @@
+package com.lumospath.chatbot;
+
+import com.lumospath.util.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Precompiled matcher for crisis language (suicidal intent, self-harm, hopelessness).
+ * All phrases are compiled once into a single Aho-Corasick automaton over whole words, so a message
+ * is checked in one pass with one table lookup per character, whatever the number of phrases, and
+ * without allocating. Case, punctuation and apostrophes are ignored ("Can't go on..." matches
+ * "cant go on"), and phrases only match whole words ("selfish" does not match "self").
+ * Every check is timed into "chatbot.crisis.detect"; checks over the latency budget are counted
+ * under "chatbot.crisis.overBudget".
+ */
+public final class CrisisDetector {
+    /** Latency budget for one check; the automaton needs far less for any realistic message */
+    public static final long BUDGET_NANOS = 1_000_000L;
+
+    /**
+     * How urgent a match is
+     */
+    public enum Level {
+        /** Hopelessness or worthlessness: offer helplines */
+        ELEVATED,
+        /** Suicidal intent or self-harm: urge the user to call a helpline now */
+        HIGH
+    }
+
+    private static final String[] HIGH_PHRASES = {
+        "suicide", "suicidal", "kill myself", "killing myself", "end my life", "ending my life",
+        "take my own life", "taking my own life", "want to die", "wanna die", "wish i was dead",
+        "wish i were dead", "better off dead", "no reason to live", "nothing to live for",
+        "dont want to live", "dont want to be alive", "not worth living", "end it all",
+        "hurt myself", "hurting myself", "harm myself", "harming myself", "self harm", "selfharm",
+        "cut myself", "cutting myself", "overdose"
+    };
+
+    private static final String[] ELEVATED_PHRASES = {
+        "hopeless", "hopelessness", "worthless", "worthlessness", "no way out", "cant go on",
+        "cant take it anymore", "give up on life", "giving up on life", "nobody would miss me",
+        "no one would miss me", "better off without me", "burden to everyone", "no point in living"
+    };
+
+    // Letters a-z, then the word separator
+    private static final int ALPHABET = 27;
+    private static final int SEPARATOR = 26;
+    private static final int SKIP = -1;
+
+    private final int[] transitions;
+    // Best phrase ending in each state (its own or one reached through failure links), or -1
+    private final int[] matches;
+    private final String[] phrases;
+    private final Level[] levels;
+    // Resolved up front, so the first check does not pay for registering them with JMX
+    private final MetricsRegistry.Histogram detectLatency = MetricsRegistry.histogram("chatbot.crisis.detect");
+    private final MetricsRegistry.Counter overBudget = MetricsRegistry.counter("chatbot.crisis.overBudget");
+
+    public CrisisDetector() {
+        List<String> phraseList = new ArrayList<>();
+        List<Level> levelList = new ArrayList<>();
+        for (String phrase : HIGH_PHRASES) {
+            phraseList.add(phrase);
+            levelList.add(Level.HIGH);
+        }
+        for (String phrase : ELEVATED_PHRASES) {
+            phraseList.add(phrase);
+            levelList.add(Level.ELEVATED);
+        }
+        this.phrases = phraseList.toArray(new String[0]);
+        this.levels = levelList.toArray(new Level[0]);
+
+        // Build the trie; phrases are wrapped in separators so they only match whole words
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(-1);
+        for (int p = 0; p < phrases.length; p++) {
+            int state = 0;
+            for (int symbol : normalize(phrases[p])) {
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.get(state)[symbol] = next;
+                    trie.add(newRow());
+                    terminal.add(-1);
+                }
+                state = next;
+            }
+            terminal.set(state, p);
+        }
+
+        // Breadth-first pass turns the trie into a complete automaton: missing edges follow the failure link
+        int stateCount = trie.size();
+        transitions = new int[stateCount * ALPHABET];
+        matches = new int[stateCount];
+        int[] fail = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        matches[0] = -1;
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] = better(terminal.get(state), matches[fail[state]]);
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    transitions[state * ALPHABET + symbol] = transitions[fail[state] * ALPHABET + symbol];
+                } else {
+                    transitions[state * ALPHABET + symbol] = next;
+                    fail[next] = transitions[fail[state] * ALPHABET + symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check a message for crisis language
+     * @return The most urgent phrase found, or null if there is none
+     */
+    public Match detect(String message) {
+        long start = System.nanoTime();
+        int best = -1;
+        if (message != null) {
+            // A leading separator lets a phrase match at the very start of the message
+            int state = transitions[SEPARATOR];
+            boolean lastWasSeparator = true;
+            for (int i = 0, length = message.length(); i <= length; i++) {
+                int symbol = i == length ? SEPARATOR : symbolOf(message.charAt(i));
+                if (symbol == SKIP || (symbol == SEPARATOR && lastWasSeparator)) {
+                    continue;
+                }
+                lastWasSeparator = symbol == SEPARATOR;
+                state = transitions[state * ALPHABET + symbol];
+                int match = matches[state];
+                if (match >= 0) {
+                    best = better(match, best);
+                    if (levels[best] == Level.HIGH) {
+                        break;
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        detectLatency.record(elapsed);
+        if (elapsed > BUDGET_NANOS) {
+            overBudget.increment();
+        }
+        return best < 0 ? null : new Match(phrases[best], levels[best], elapsed);
+    }
+
+    /**
+     * Of two phrase indexes (-1 for none), the more urgent one; the first wins a tie
+     */
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return levels[b].compareTo(levels[a]) > 0 ? b : a;
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int symbolOf(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c == '\'' || c == '’') {
+            return SKIP; // "can't" and "cant" are the same word
+        }
+        return SEPARATOR;
+    }
+
+    /**
+     * Symbols of a phrase between separators, the way detect() sees it in a message
+     */
+    private static int[] normalize(String phrase) {
+        int[] symbols = new int[phrase.length() + 2];
+        int length = 0;
+        symbols[length++] = SEPARATOR;
+        for (int i = 0; i < phrase.length(); i++) {
+            int symbol = symbolOf(phrase.charAt(i));
+            if (symbol == SKIP || (symbol == SEPARATOR && symbols[length - 1] == SEPARATOR)) {
+                continue;
+            }
+            symbols[length++] = symbol;
+        }
+        if (symbols[length - 1] != SEPARATOR) {
+            symbols[length++] = SEPARATOR;
+        }
+        return Arrays.copyOf(symbols, length);
+    }
+
+    /**
+     * A crisis phrase found in a message
+     */
+    public static final class Match {
+        private final String phrase;
+        private final Level level;
+        private final long detectionNanos;
+
+        Match(String phrase, Level level, long detectionNanos) {
+            this.phrase = phrase;
+            this.level = level;
+            this.detectionNanos = detectionNanos;
+        }
+
+        /** The listed phrase that matched, not the user's wording */
+        public String getPhrase() { return phrase; }
+        public Level getLevel() { return level; }
+        public long getDetectionNanos() { return detectionNanos; }
+
+        @Override
+        public String toString() {
+            return "CrisisDetector.Match{phrase='" + phrase + "', level=" + level + '}';
+        }
+    }
+}
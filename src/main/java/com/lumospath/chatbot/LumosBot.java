@@ -1,6 +1,10 @@
 package com.lumospath.chatbot;
 
+import com.lumospath.model.EmergencyContact;
+import com.lumospath.service.CrisisEscalationService;
+import com.lumospath.service.EmergencyHelplineService;
 import com.lumospath.service.MotivationalQuoteService;
+import com.lumospath.util.MetricsRegistry;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -12,6 +16,9 @@ import java.time.format.DateTimeFormatter;
  * Features: Context awareness, conversation memory, sentiment analysis, and varied responses
  */
 public class LumosBot {
+    /** Emotion stored for messages that contain crisis language */
+    public static final String CRISIS_EMOTION = "crisis";
+    
     private MotivationalQuoteService quoteService;
     private Scanner scanner;
     private Map<String, List<String>> responses;
@@ -27,6 +34,11 @@ public class LumosBot {
     private Map<String, List<String>> contextualResponses;
     private Map<String, Map<String, Double>> sentimentWeights;
     
+    // Crisis fast path: checked before anything else; replies are built once from the helpline list
+    private final CrisisDetector crisisDetector;
+    private final CrisisEscalationService escalationService;
+    private final Map<CrisisDetector.Level, String> crisisReplies;
+    
     // Inner class for conversation tracking
     private static class ConversationMessage {
         String userMessage;
@@ -45,8 +57,26 @@ public class LumosBot {
     }
 
     public LumosBot() {
-        this.quoteService = new MotivationalQuoteService();
-        this.scanner = new Scanner(System.in);
+        this(new MotivationalQuoteService(), new Scanner(System.in));
+    }
+
+    public LumosBot(MotivationalQuoteService quoteService, Scanner scanner) {
+        this(quoteService, new EmergencyHelplineService(), new CrisisEscalationService(), scanner);
+    }
+
+    /**
+     * @param quoteService Shared quote service used for scriptural guidance
+     * @param helplineService Source of the crisis contacts offered when crisis language is detected
+     * @param escalationService Records crisis escalations in the background
+     * @param scanner Console input used by the interactive chat loop
+     */
+    public LumosBot(MotivationalQuoteService quoteService, EmergencyHelplineService helplineService,
+                    CrisisEscalationService escalationService, Scanner scanner) {
+        this.quoteService = quoteService;
+        this.crisisDetector = new CrisisDetector();
+        this.escalationService = escalationService;
+        this.crisisReplies = buildCrisisReplies(helplineService.getCrisisContacts());
+        this.scanner = scanner;
         this.responses = new HashMap<>();
         this.greetings = new ArrayList<>();
         this.farewells = new ArrayList<>();
@@ -232,7 +262,7 @@ public class LumosBot {
             }
 
             // Process the input and respond
-            String response = generateResponse(userInput);
+            String response = generateResponse(userInput, null).getText();
             System.out.println("LumosBot: " + response);
 
             // Sometimes offer additional support
@@ -245,8 +275,15 @@ public class LumosBot {
     /**
      * Generate an intelligent response based on user input with context awareness
      */
-    private String generateResponse(String input) {
+    private BotReply generateResponse(String input, Integer userId) {
+        long start = System.nanoTime();
         conversationTurn++;
+        
+        // Crisis language short-circuits the rest of the pipeline
+        CrisisDetector.Match crisis = crisisDetector.detect(input);
+        if (crisis != null) {
+            return crisisReply(input, userId, crisis, start);
+        }
         String lowerInput = input.toLowerCase();
         
         // Extract user name if mentioned
@@ -255,6 +292,7 @@ public class LumosBot {
         // Analyze sentiment and emotion
         double sentimentScore = analyzeSentiment(input);
         String detectedEmotion = detectDominantEmotion(input);
+        long analysisNanos = System.nanoTime() - start;
         
         String response;
         
@@ -276,7 +314,44 @@ public class LumosBot {
         // Update emotional state tracking
         updateEmotionalState(detectedEmotion);
         
-        return response;
+        return new BotReply(response, sentimentScore, detectedEmotion, analysisNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Reply to a message containing crisis language with the crisis helplines, and record the
+     * escalation in the background
+     */
+    private BotReply crisisReply(String input, Integer userId, CrisisDetector.Match crisis, long start) {
+        escalationService.recordAsync(userId, crisis);
+        String response = crisisReplies.get(crisis.getLevel());
+        conversationHistory.add(new ConversationMessage(input, response, CRISIS_EMOTION, -1.0));
+        return new BotReply(response, -1.0, CRISIS_EMOTION, crisis.getDetectionNanos(), System.nanoTime() - start, crisis);
+    }
+
+    /**
+     * Build the crisis replies, listing the crisis contacts
+     */
+    private static Map<CrisisDetector.Level, String> buildCrisisReplies(List<EmergencyContact> contacts) {
+        StringBuilder helplines = new StringBuilder();
+        for (EmergencyContact contact : contacts) {
+            helplines.append("\n📞 ").append(contact.getName()).append(": ").append(contact.getPhoneNumber());
+            if (contact.isAvailable24x7()) {
+                helplines.append(" (24x7)");
+            }
+        }
+        String closing = "\n\nIf you are in immediate danger, please call 112 or go to the nearest emergency room. " +
+                         "You matter, and you don't have to go through this alone. 💙";
+        
+        Map<CrisisDetector.Level, String> replies = new EnumMap<>(CrisisDetector.Level.class);
+        replies.put(CrisisDetector.Level.HIGH,
+            "I'm really glad you told me. What you're describing sounds serious, and you deserve support from " +
+            "a real person right now. Please reach out to one of these helplines - they are trained for exactly this " +
+            "and they want to hear from you:" + helplines + closing);
+        replies.put(CrisisDetector.Level.ELEVATED,
+            "I'm so sorry you're feeling this way. Those feelings are heavy, and you don't have to carry them by " +
+            "yourself. Talking to someone can really help - these helplines are there for you:" + helplines +
+            "\n\nI'm here too, so tell me more about what's been happening whenever you're ready." + closing);
+        return replies;
     }
 
     /**
@@ -814,18 +889,62 @@ public class LumosBot {
      * This method is designed for GUI integration
      */
     public String getResponse(String userInput) {
+        return reply(userInput).getText();
+    }
+    
+    /**
+     * Generate a reply together with the sentiment and emotion detected in the user's message
+     * and how long each step took. Empty input gets a prompt with neutral analysis.
+     */
+    public BotReply reply(String userInput) {
+        return reply(userInput, null);
+    }
+    
+    /**
+     * Generate a reply for a known user. Crisis language is checked before anything else and
+     * answered with crisis helplines; the escalation is recorded for the user in the background.
+     * @param userId The user sending the message (null or 0 for anonymous users)
+     */
+    public BotReply reply(String userInput, Integer userId) {
         if (userInput == null || userInput.trim().isEmpty()) {
-            return "I'm here listening. Please share what's on your mind.";
+            return new BotReply("I'm here listening. Please share what's on your mind.", 0.0, "neutral", 0, 0);
         }
         
-        String response = generateResponse(userInput.trim());
-        
-        // Add contextual information for first-time users
-        if (conversationHistory.size() == 1) {
-            response += "\n\n💡 Tip: You can ask me for 'quote', 'wisdom', or just tell me how you're feeling. I'm here to support you!";
+        long start = System.nanoTime();
+        try {
+            BotReply reply = generateResponse(userInput.trim(), userId);
+            
+            // Add contextual information for first-time users
+            if (conversationHistory.size() == 1 && !reply.isCrisis()) {
+                reply = reply.withText(reply.getText() + "\n\n💡 Tip: You can ask me for 'quote', 'wisdom', or just tell me how you're feeling. I'm here to support you!",
+                                       System.nanoTime() - start);
+            }
+            
+            MetricsRegistry.histogram("chatbot.analysis").record(reply.getAnalysisNanos());
+            return reply;
+        } finally {
+            MetricsRegistry.recordSince("chatbot.getResponse", start);
         }
-        
-        return response;
+    }
+    
+    /**
+     * Run only the crisis check and the sentiment and emotion analyzers on a message, without
+     * generating a reply, touching conversation state or recording escalations. The analyzers read tables that are fixed after construction,
+     * so this is safe to call from several threads at once.
+     * @return Analysis of the message; the reply text is null
+     */
+    public BotReply analyze(String message) {
+        long start = System.nanoTime();
+        String input = message == null ? "" : message.trim();
+        CrisisDetector.Match crisis = crisisDetector.detect(input);
+        if (crisis != null) {
+            long elapsed = System.nanoTime() - start;
+            return new BotReply(null, -1.0, CRISIS_EMOTION, elapsed, elapsed, crisis);
+        }
+        double sentimentScore = analyzeSentiment(input);
+        String detectedEmotion = detectDominantEmotion(input);
+        long elapsed = System.nanoTime() - start;
+        return new BotReply(null, sentimentScore, detectedEmotion, elapsed, elapsed);
     }
     
     /**
@@ -1,6 +1,7 @@
 package com.lumospath.dao;
 
 import com.lumospath.model.ChatLog;
+import com.lumospath.model.ChatSearchResult;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,6 +38,45 @@ public interface ChatLogDAO extends BaseDAO<ChatLog, Integer> {
      */
     List<ChatLog> findRecentByUserId(Integer userId, int limit) throws SQLException;
     
+    /**
+     * Get one page of a user's chat logs older than a position, newest first (keyset paging)
+     * @param userId The user ID
+     * @param beforeCreatedAt Only logs created before this time, or at this time with a lower ID
+     * @param beforeLogId Log ID breaking ties on beforeCreatedAt
+     * @param limit Maximum number of entries to return
+     * @return Chat logs ordered by created_at and log_id, descending
+     * @throws SQLException if database operation fails
+     */
+    List<ChatLog> findPageBefore(Integer userId, LocalDateTime beforeCreatedAt, int beforeLogId, int limit) throws SQLException;
+    
+    /**
+     * Get the next page of chat logs of all users in log ID order (keyset paging for batch jobs)
+     * @param afterLogId Only logs with a higher ID
+     * @param unanalyzedOnly Only logs saved without chatbot analysis (analysis_micros is null)
+     * @param limit Maximum number of entries to return
+     * @return Chat logs ordered by log_id, ascending
+     * @throws SQLException if database operation fails
+     */
+    List<ChatLog> findPageAfter(int afterLogId, boolean unanalyzedOnly, int limit) throws SQLException;
+    
+    /**
+     * Count the chat logs a batch job starting after the given log ID would visit
+     * @param afterLogId Only logs with a higher ID
+     * @param unanalyzedOnly Only logs saved without chatbot analysis
+     * @throws SQLException if database operation fails
+     */
+    long countAfter(int afterLogId, boolean unanalyzedOnly) throws SQLException;
+    
+    /**
+     * Write sentiment score, detected emotion and analysis time of several logs in one batch
+     * and one transaction. Messages and creation times are left untouched.
+     * @param chatLogs Logs carrying the new analysis
+     * @param unanalyzedOnly Skip logs that were analyzed in the meantime, e.g. by a live chat save
+     * @return Number of logs updated
+     * @throws SQLException if database operation fails
+     */
+    int updateAnalysis(List<ChatLog> chatLogs, boolean unanalyzedOnly) throws SQLException;
+    
     /**
      * Count chat logs for a user
      * @param userId The user ID
@@ -69,4 +109,15 @@ public interface ChatLogDAO extends BaseDAO<ChatLog, Integer> {
      * @throws SQLException if database operation fails
      */
     List<ChatLog> findByUserIdAndEmotion(Integer userId, String emotion) throws SQLException;
+    
+    /**
+     * Full-text search over user messages and bot responses using the chat log search index
+     * @param userId The user ID
+     * @param query Free-text query; logs matching more terms rank higher
+     * @param limit Maximum number of results to return
+     * @param after Last result of the previous page, or null for the first page
+     * @return Matching chat logs with highlighted snippets, best match first
+     * @throws SQLException if database operation fails
+     */
+    List<ChatSearchResult> searchByText(Integer userId, String query, int limit, ChatSearchResult after) throws SQLException;
 }
\ No newline at end of file
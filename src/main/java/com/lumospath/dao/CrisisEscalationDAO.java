@@ -0,0 +1,29 @@
+package com.lumospath.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Data Access Object interface for crisis escalations raised by the chatbot
+ */
+public interface CrisisEscalationDAO {
+    
+    /**
+     * Record an escalation
+     * @param userId User ID (null for anonymous users)
+     * @param level Urgency of the match
+     * @param matchedPhrase The listed crisis phrase that matched (never the user's message)
+     * @param detectionMicros Time the crisis check took
+     * @param createdAt When the message was received
+     * @throws SQLException if database operation fails
+     */
+    void save(Integer userId, String level, String matchedPhrase, long detectionMicros, LocalDateTime createdAt) throws SQLException;
+    
+    /**
+     * Count escalations recorded since a given time
+     * @param since Start of the period
+     * @return Number of escalations
+     * @throws SQLException if database operation fails
+     */
+    long countSince(LocalDateTime since) throws SQLException;
+}
@@ -0,0 +1,42 @@
+package com.lumospath.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Data Access Object interface for the progress of resumable batch jobs
+ */
+public interface JobCheckpointDAO {
+    
+    /**
+     * Get the last key a job finished
+     * @param jobName The job name
+     * @return The last processed key, or null if the job has not saved a checkpoint
+     * @throws SQLException if database operation fails
+     */
+    Long findLastKey(String jobName) throws SQLException;
+    
+    /**
+     * Get the number of rows a job has processed in total
+     * @param jobName The job name
+     * @return Processed row count, or 0 if the job has not saved a checkpoint
+     * @throws SQLException if database operation fails
+     */
+    long findProcessed(String jobName) throws SQLException;
+    
+    /**
+     * Record how far a job has got, replacing its previous checkpoint
+     * @param jobName The job name
+     * @param lastKey Last key the job finished; the job resumes after it
+     * @param processed Number of rows processed in total
+     * @throws SQLException if database operation fails
+     */
+    void save(String jobName, long lastKey, long processed) throws SQLException;
+    
+    /**
+     * Forget a job's checkpoint, so it starts from the beginning next time
+     * @param jobName The job name
+     * @return true if a checkpoint was removed
+     * @throws SQLException if database operation fails
+     */
+    boolean delete(String jobName) throws SQLException;
+}
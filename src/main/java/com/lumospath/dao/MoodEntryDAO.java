@@ -47,6 +47,17 @@ public interface MoodEntryDAO extends BaseDAO<MoodEntry, Integer> {
      */
     List<MoodEntry> findRecentByUserId(Integer userId, int limit) throws SQLException;
     
+    /**
+     * Get one page of a user's mood entries, newest first (keyset paging)
+     * @param userId The user ID
+     * @param beforeCreatedAt Only entries created before this time, or at this time with a lower ID; null for the first page
+     * @param beforeEntryId Entry ID breaking ties on beforeCreatedAt
+     * @param limit Maximum number of entries to return
+     * @return Mood entries ordered by created_at and entry_id, descending
+     * @throws SQLException if database operation fails
+     */
+    List<MoodEntry> findPageBefore(Integer userId, LocalDateTime beforeCreatedAt, int beforeEntryId, int limit) throws SQLException;
+    
     /**
      * Get average mood scale for a user within date range
      * @param userId The user ID
@@ -57,6 +68,14 @@ public interface MoodEntryDAO extends BaseDAO<MoodEntry, Integer> {
      */
     double getAverageMoodScale(Integer userId, LocalDateTime startDate, LocalDateTime endDate) throws SQLException;
     
+    /**
+     * Get average mood scale over all of a user's entries
+     * @param userId The user ID
+     * @return Average mood scale, or 0 when the user has no entries
+     * @throws SQLException if database operation fails
+     */
+    double getAverageMoodScale(Integer userId) throws SQLException;
+    
     /**
      * Get mood statistics for a user
      * @param userId The user ID
@@ -75,11 +94,50 @@ public interface MoodEntryDAO extends BaseDAO<MoodEntry, Integer> {
      */
     List<MoodEntry> findByTriggerContaining(Integer userId, String triggerText) throws SQLException;
     
+    /**
+     * Full-text search over description, trigger and tags using the mood entry search index
+     * @param userId The user ID
+     * @param query Free-text query; entries matching more terms rank higher
+     * @param limit Maximum number of entries to return
+     * @param offset Number of ranked results to skip (for pagination)
+     * @return Matching mood entries, best match first
+     * @throws SQLException if database operation fails
+     */
+    List<MoodEntry> searchByText(Integer userId, String query, int limit, int offset) throws SQLException;
+    
+    /**
+     * Find mood entries carrying a tag, using the normalized mood_entry_tags index
+     * @param userId The user ID
+     * @param tag The tag (case-insensitive)
+     * @return Matching mood entries, newest first
+     * @throws SQLException if database operation fails
+     */
+    List<MoodEntry> findByUserIdAndTag(Integer userId, String tag) throws SQLException;
+    
+    /**
+     * Find mood entries carrying any or all of the given tags
+     * @param userId The user ID
+     * @param tags Tags to filter by (case-insensitive)
+     * @param matchAll true to require every tag, false to match any of them
+     * @return Matching mood entries, newest first
+     * @throws SQLException if database operation fails
+     */
+    List<MoodEntry> findByUserIdAndTags(Integer userId, List<String> tags, boolean matchAll) throws SQLException;
+    
+    /**
+     * Count how often each tag was used by a user
+     * @param userId The user ID
+     * @param days Number of days to look back
+     * @return List of tag and count pairs, most frequent first
+     * @throws SQLException if database operation fails
+     */
+    List<Object[]> getTagFrequencies(Integer userId, int days) throws SQLException;
+    
     /**
      * Get mood trend data for chart visualization
      * @param userId The user ID
      * @param days Number of days to look back
-     * @return List of date and average mood scale pairs
+     * @return Rows of date, average, lowest and highest mood scale per day, oldest first
      * @throws SQLException if database operation fails
      */
     List<Object[]> getMoodTrendData(Integer userId, int days) throws SQLException;
@@ -99,4 +157,12 @@ public interface MoodEntryDAO extends BaseDAO<MoodEntry, Integer> {
      * @throws SQLException if database operation fails
      */
     int deleteOldEntries(LocalDateTime olderThan) throws SQLException;
+    
+    /**
+     * Delete all mood entries for a specific user
+     * @param userId The user ID
+     * @return Number of entries deleted
+     * @throws SQLException if database operation fails
+     */
+    int deleteAllByUserId(Integer userId) throws SQLException;
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.lumospath.dao;
 
 import com.lumospath.model.User;
+import com.lumospath.model.UserSession;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -51,6 +53,22 @@ public interface UserDAO extends BaseDAO<User, Integer> {
      */
     boolean existsByEmail(String email) throws SQLException;
     
+    /**
+     * Check if a username is free, answering from an in-memory filter when possible
+     * @param username The username to check
+     * @return true if no user has this username
+     * @throws SQLException if database operation fails
+     */
+    boolean isUsernameAvailable(String username) throws SQLException;
+    
+    /**
+     * Check if an email is free, answering from an in-memory filter when possible
+     * @param email The email to check
+     * @return true if no user has this email
+     * @throws SQLException if database operation fails
+     */
+    boolean isEmailAvailable(String email) throws SQLException;
+    
     /**
      * Get count of anonymous users
      * @return Count of anonymous users
@@ -77,13 +95,41 @@ public interface UserDAO extends BaseDAO<User, Integer> {
      */
     String getUserPreference(Integer userId, String key) throws SQLException;
     
+    /**
+     * Get all preferences of a user in one query
+     * @param userId User ID
+     * @return Preference values keyed by preference key
+     * @throws SQLException if database operation fails
+     */
+    Map<String, String> getUserPreferences(Integer userId) throws SQLException;
+    
+    /**
+     * Set several preferences of a user in one batch
+     * @param userId User ID
+     * @param preferences Preference values keyed by preference key
+     * @return Number of preferences written
+     * @throws SQLException if database operation fails
+     */
+    int setUserPreferences(Integer userId, Map<String, String> preferences) throws SQLException;
+    
+    /**
+     * Find user by username or email
+     * @param usernameOrEmail The username or email
+     * @return Optional containing the user if found
+     * @throws SQLException if database operation fails
+     */
+    Optional<User> findByUsernameOrEmail(String usernameOrEmail) throws SQLException;
+    
     /**
      * Authenticate user with username/email and password
      * @param usernameOrEmail The username or email
      * @param passwordHash The hashed password
      * @return Optional containing the user if authentication succeeds
      * @throws SQLException if database operation fails
+     * @deprecated Salted hashes cannot be compared in SQL; load the user with
+     *             {@link #findByUsernameOrEmail(String)} and verify with PasswordHashingService
      */
+    @Deprecated
     Optional<User> authenticateUser(String usernameOrEmail, String passwordHash) throws SQLException;
     
     /**
@@ -96,6 +142,38 @@ public interface UserDAO extends BaseDAO<User, Integer> {
      */
     Integer recordLogin(Integer userId, String ipAddress, String userAgent) throws SQLException;
     
+    /**
+     * Record a successful login in one transaction on one connection: updates last_active,
+     * optionally replaces the password hash, and inserts the authentication history row
+     * @param userId User ID
+     * @param ipAddress IP address of login
+     * @param userAgent User agent string
+     * @param upgradedPasswordHash New password hash to store, or null to keep the current one
+     * @param sessionTokenHash Hash of the session token issued for this login, or null for no session
+     * @param sessionExpiresAt Absolute session expiry, or null for no session
+     * @return Authentication history ID
+     * @throws SQLException if database operation fails
+     */
+    Integer recordSuccessfulLogin(Integer userId, String ipAddress, String userAgent, String upgradedPasswordHash,
+                                  String sessionTokenHash, LocalDateTime sessionExpiresAt) throws SQLException;
+    
+    /**
+     * Find an open session by token hash
+     * @param sessionTokenHash Hash of the session token
+     * @param idleSince Sessions not seen since this time are treated as expired
+     * @return Optional containing the session and its user if it is still valid
+     * @throws SQLException if database operation fails
+     */
+    Optional<UserSession> findActiveSession(String sessionTokenHash, LocalDateTime idleSince) throws SQLException;
+    
+    /**
+     * Persist last-seen times for sessions in one batch
+     * @param lastSeenByAuthId Last access time keyed by authentication history ID
+     * @return Number of sessions updated
+     * @throws SQLException if database operation fails
+     */
+    int touchSessions(Map<Integer, LocalDateTime> lastSeenByAuthId) throws SQLException;
+    
     /**
      * Record user logout in authentication history
      * @param authId Authentication history ID from login
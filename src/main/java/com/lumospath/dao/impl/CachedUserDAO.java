@@ -0,0 +1,416 @@
+package com.lumospath.dao.impl;
+
+import com.lumospath.dao.UserDAO;
+import com.lumospath.model.User;
+import com.lumospath.model.UserSession;
+import com.lumospath.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Write-through cache in front of another UserDAO.
+ * Each cached profile holds the user row and, once requested, all of the user's preferences (loaded
+ * with a single query). Reads are served from memory; writes go to the database first and then update
+ * the cached copy while holding the profile's lock, so concurrent writes and loads for one user are
+ * applied in database order and the cache never holds data the database does not. Callers always
+ * receive copies, so mutating a returned User cannot corrupt the cache. At most maxProfiles users
+ * are cached, evicting the least recently used. Hits, misses and evictions are counted under "cache.userProfile.*".
+ */
+public class CachedUserDAO implements UserDAO {
+    public static final int DEFAULT_MAX_PROFILES = 1000;
+
+    private final UserDAO delegate;
+    private final Map<Integer, Profile> profiles;
+
+    public CachedUserDAO(UserDAO delegate) {
+        this(delegate, DEFAULT_MAX_PROFILES);
+    }
+
+    public CachedUserDAO(UserDAO delegate, int maxProfiles) {
+        this.delegate = delegate;
+        this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Profile> eldest) {
+                if (size() > maxProfiles) {
+                    MetricsRegistry.counter("cache.userProfile.evictions").increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Cached reads
+
+    @Override
+    public Optional<User> findById(Integer id) throws SQLException {
+        Profile profile = profile(id);
+        synchronized (profile) {
+            if (profile.user != null) {
+                hit();
+                return Optional.of(copyOf(profile.user));
+            }
+            miss();
+            Optional<User> user = delegate.findById(id);
+            if (user.isPresent()) {
+                profile.user = copyOf(user.get());
+            } else {
+                discardIfEmpty(id, profile);
+            }
+            return user;
+        }
+    }
+
+    @Override
+    public String getUserPreference(Integer userId, String key) throws SQLException {
+        return readPreferences(userId, preferences -> preferences.get(key));
+    }
+
+    @Override
+    public Map<String, String> getUserPreferences(Integer userId) throws SQLException {
+        return readPreferences(userId, HashMap::new);
+    }
+
+    // Write-through
+
+    @Override
+    public User save(User user) throws SQLException {
+        User saved = delegate.save(user);
+        cacheUser(saved);
+        return saved;
+    }
+
+    @Override
+    public User update(User user) throws SQLException {
+        if (user.getUserId() == null) {
+            return delegate.update(user);
+        }
+        return writeLocked(user.getUserId(), profile -> {
+            User updated = delegate.update(user);
+            profile.user = copyOf(updated);
+            return updated;
+        });
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) throws SQLException {
+        List<User> saved = delegate.saveAll(users);
+        for (User user : saved) {
+            cacheUser(user);
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(Integer id) throws SQLException {
+        boolean deleted = delegate.deleteById(id);
+        evict(id);
+        return deleted;
+    }
+
+    @Override
+    public boolean delete(User user) throws SQLException {
+        boolean deleted = delegate.delete(user);
+        evict(user.getUserId());
+        return deleted;
+    }
+
+    @Override
+    public boolean updateLastActive(Integer userId, LocalDateTime lastActive) throws SQLException {
+        return writeLocked(userId, profile -> {
+            boolean updated = delegate.updateLastActive(userId, lastActive);
+            updateCachedUser(profile, user -> user.setLastActive(lastActive));
+            return updated;
+        });
+    }
+
+    @Override
+    public boolean updatePassword(Integer userId, String newPasswordHash) throws SQLException {
+        return writeLocked(userId, profile -> {
+            boolean updated = delegate.updatePassword(userId, newPasswordHash);
+            updateCachedUser(profile, user -> user.setPasswordHash(newPasswordHash));
+            return updated;
+        });
+    }
+
+    @Override
+    public Integer recordSuccessfulLogin(Integer userId, String ipAddress, String userAgent, String upgradedPasswordHash,
+                                         String sessionTokenHash, LocalDateTime sessionExpiresAt) throws SQLException {
+        return writeLocked(userId, profile -> {
+            Integer authId = delegate.recordSuccessfulLogin(userId, ipAddress, userAgent, upgradedPasswordHash,
+                                                            sessionTokenHash, sessionExpiresAt);
+            LocalDateTime now = LocalDateTime.now();
+            updateCachedUser(profile, user -> {
+                user.setLastActive(now);
+                if (upgradedPasswordHash != null) {
+                    user.setPasswordHash(upgradedPasswordHash);
+                }
+            });
+            return authId;
+        });
+    }
+
+    @Override
+    public boolean setUserPreference(Integer userId, String key, String value) throws SQLException {
+        return writeLocked(userId, profile -> {
+            boolean written = delegate.setUserPreference(userId, key, value);
+            if (written) {
+                updateCachedPreferences(profile, Collections.singletonMap(key, value));
+            }
+            return written;
+        });
+    }
+
+    @Override
+    public int setUserPreferences(Integer userId, Map<String, String> preferences) throws SQLException {
+        return writeLocked(userId, profile -> {
+            int written = delegate.setUserPreferences(userId, preferences);
+            updateCachedPreferences(profile, preferences);
+            return written;
+        });
+    }
+
+    // Lookups by other keys refresh the cached copy, so a login warms the cache for later findById calls
+
+    @Override
+    public Optional<User> findByUsername(String username) throws SQLException {
+        return refresh(delegate.findByUsername(username));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) throws SQLException {
+        return refresh(delegate.findByEmail(email));
+    }
+
+    @Override
+    public Optional<User> findByUsernameOrEmail(String usernameOrEmail) throws SQLException {
+        return refresh(delegate.findByUsernameOrEmail(usernameOrEmail));
+    }
+
+    @Override
+    @Deprecated
+    public Optional<User> authenticateUser(String usernameOrEmail, String passwordHash) throws SQLException {
+        return refresh(delegate.authenticateUser(usernameOrEmail, passwordHash));
+    }
+
+    // Pass-through
+
+    @Override
+    public List<User> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public boolean existsById(Integer id) throws SQLException {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public long count() throws SQLException {
+        return delegate.count();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) throws SQLException {
+        return delegate.existsByUsername(username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) throws SQLException {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public boolean isUsernameAvailable(String username) throws SQLException {
+        return delegate.isUsernameAvailable(username);
+    }
+
+    @Override
+    public boolean isEmailAvailable(String email) throws SQLException {
+        return delegate.isEmailAvailable(email);
+    }
+
+    @Override
+    public long countAnonymousUsers() throws SQLException {
+        return delegate.countAnonymousUsers();
+    }
+
+    @Override
+    public Integer recordLogin(Integer userId, String ipAddress, String userAgent) throws SQLException {
+        return delegate.recordLogin(userId, ipAddress, userAgent);
+    }
+
+    @Override
+    public Optional<UserSession> findActiveSession(String sessionTokenHash, LocalDateTime idleSince) throws SQLException {
+        return delegate.findActiveSession(sessionTokenHash, idleSince);
+    }
+
+    @Override
+    public int touchSessions(Map<Integer, LocalDateTime> lastSeenByAuthId) throws SQLException {
+        return delegate.touchSessions(lastSeenByAuthId);
+    }
+
+    @Override
+    public boolean recordLogout(Integer authId) throws SQLException {
+        return delegate.recordLogout(authId);
+    }
+
+    // Cache management
+
+    /**
+     * Fraction of cached reads served from memory since startup (0 when nothing was read yet)
+     */
+    public double getHitRate() {
+        long hits = MetricsRegistry.counter("cache.userProfile.hits").getCount();
+        long misses = MetricsRegistry.counter("cache.userProfile.misses").getCount();
+        return hits + misses == 0 ? 0.0 : hits / (double) (hits + misses);
+    }
+
+    /**
+     * Number of users currently cached
+     */
+    public int size() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    /**
+     * Drop a user from the cache
+     */
+    public void evict(Integer userId) {
+        synchronized (profiles) {
+            profiles.remove(userId);
+        }
+    }
+
+    /**
+     * Drop every cached user
+     */
+    public void clear() {
+        synchronized (profiles) {
+            profiles.clear();
+        }
+    }
+
+    /**
+     * Apply a read to the user's cached preferences, loading them first if needed, under the profile lock
+     */
+    private <T> T readPreferences(Integer userId, Function<Map<String, String>, T> read) throws SQLException {
+        Profile profile = profile(userId);
+        synchronized (profile) {
+            if (profile.preferences != null) {
+                hit();
+            } else {
+                miss();
+                profile.preferences = new HashMap<>(delegate.getUserPreferences(userId));
+            }
+            return read.apply(profile.preferences);
+        }
+    }
+
+    /**
+     * Run a database write and its cache update under the user's profile lock
+     */
+    private <T> T writeLocked(Integer userId, ProfileWrite<T> write) throws SQLException {
+        Profile profile = profile(userId);
+        try {
+            synchronized (profile) {
+                return write.apply(profile);
+            }
+        } finally {
+            discardIfEmpty(userId, profile);
+        }
+    }
+
+    private Profile profile(Integer userId) {
+        synchronized (profiles) {
+            return profiles.computeIfAbsent(userId, id -> new Profile());
+        }
+    }
+
+    /**
+     * Drop a profile that holds nothing, so lookups of missing users do not take up cache slots
+     */
+    private void discardIfEmpty(Integer userId, Profile profile) {
+        synchronized (profiles) {
+            if (profile.user == null && profile.preferences == null) {
+                profiles.remove(userId, profile);
+            }
+        }
+    }
+
+    private void cacheUser(User user) {
+        if (user != null && user.getUserId() != null) {
+            Profile profile = profile(user.getUserId());
+            synchronized (profile) {
+                profile.user = copyOf(user);
+            }
+        }
+    }
+
+    private Optional<User> refresh(Optional<User> user) {
+        user.ifPresent(this::cacheUser);
+        return user;
+    }
+
+    private static void updateCachedUser(Profile profile, Consumer<User> change) {
+        if (profile.user != null) {
+            change.accept(profile.user);
+        }
+    }
+
+    private static void updateCachedPreferences(Profile profile, Map<String, String> preferences) {
+        if (profile.preferences != null) {
+            profile.preferences.putAll(preferences);
+        }
+    }
+
+    private static void hit() {
+        MetricsRegistry.counter("cache.userProfile.hits").increment();
+    }
+
+    private static void miss() {
+        MetricsRegistry.counter("cache.userProfile.misses").increment();
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setUserId(user.getUserId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setPasswordHash(user.getPasswordHash());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setAge(user.getAge());
+        copy.setLocation(user.getLocation());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastActive(user.getLastActive());
+        copy.setAnonymous(user.isAnonymous());
+        return copy;
+    }
+
+    /**
+     * A database write that also updates the cached profile
+     */
+    private interface ProfileWrite<T> {
+        T apply(Profile profile) throws SQLException;
+    }
+
+    /**
+     * Cached state for one user; either part may still be unloaded (null)
+     */
+    private static final class Profile {
+        User user;
+        Map<String, String> preferences;
+    }
+}
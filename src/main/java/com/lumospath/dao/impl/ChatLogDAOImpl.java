@@ -2,24 +2,37 @@ package com.lumospath.dao.impl;
 
 import com.lumospath.dao.ChatLogDAO;
 import com.lumospath.model.ChatLog;
+import com.lumospath.model.ChatSearchResult;
 import com.lumospath.util.DatabaseUtil;
+import com.lumospath.util.InvertedIndex;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementation of ChatLogDAO for database operations
  */
 public class ChatLogDAOImpl implements ChatLogDAO {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final InvertedIndex SEARCH_INDEX = new InvertedIndex("chat_log_terms");
+    private static final AtomicBoolean searchIndexVerified = new AtomicBoolean(false);
+    private static final String HIGHLIGHT_OPEN = "**";
+    private static final String HIGHLIGHT_CLOSE = "**";
+    private static final int SNIPPET_LENGTH = 160;
 
     @Override
     public ChatLog save(ChatLog chatLog) throws SQLException {
-        String sql = "INSERT INTO chat_logs (user_id, user_message, bot_response, sentiment_score, detected_emotion, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO chat_logs (user_id, user_message, bot_response, sentiment_score, detected_emotion, " +
+                     "analysis_micros, response_micros, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -41,7 +54,9 @@ public class ChatLogDAOImpl implements ChatLogDAO {
             }
             
             pstmt.setString(5, chatLog.getDetectedEmotion());
-            pstmt.setString(6, chatLog.getCreatedAt().format(DATE_FORMATTER));
+            setNullableLong(pstmt, 6, chatLog.getAnalysisMicros());
+            setNullableLong(pstmt, 7, chatLog.getResponseMicros());
+            pstmt.setString(8, chatLog.getCreatedAt().format(DATE_FORMATTER));
             
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -56,6 +71,7 @@ public class ChatLogDAOImpl implements ChatLogDAO {
                 }
             }
             
+            SEARCH_INDEX.index(conn, chatLog.getLogId(), userIdOrNull(chatLog), searchFields(chatLog));
             return chatLog;
         }
     }
@@ -84,6 +100,7 @@ public class ChatLogDAOImpl implements ChatLogDAO {
                 throw new SQLException("Updating chat log failed, no rows affected.");
             }
             
+            SEARCH_INDEX.reindex(conn, chatLog.getLogId(), userIdOrNull(chatLog), searchFields(chatLog));
             return chatLog;
         }
     }
@@ -240,6 +257,83 @@ public class ChatLogDAOImpl implements ChatLogDAO {
         return chatLogs;
     }
 
+    @Override
+    public List<ChatLog> findPageBefore(Integer userId, LocalDateTime beforeCreatedAt, int beforeLogId, int limit) throws SQLException {
+        String sql = "SELECT * FROM chat_logs WHERE user_id = ? AND (created_at < ? OR (created_at = ? AND log_id < ?)) " +
+                     "ORDER BY created_at DESC, log_id DESC LIMIT ?";
+        List<ChatLog> chatLogs = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            String before = beforeCreatedAt.format(DATE_FORMATTER);
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, before);
+            pstmt.setString(3, before);
+            pstmt.setInt(4, beforeLogId);
+            pstmt.setInt(5, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    chatLogs.add(mapResultSetToChatLog(rs));
+                }
+            }
+        }
+        
+        return chatLogs;
+    }
+
+    @Override
+    public List<ChatLog> findPageAfter(int afterLogId, boolean unanalyzedOnly, int limit) throws SQLException {
+        String sql = "SELECT * FROM chat_logs WHERE log_id > ?" + (unanalyzedOnly ? " AND analysis_micros IS NULL" : "") +
+                     " ORDER BY log_id LIMIT ?";
+        
+        return DatabaseUtil.executeQuery(sql, rs -> {
+            List<ChatLog> chatLogs = new ArrayList<>();
+            while (rs.next()) {
+                chatLogs.add(mapResultSetToChatLog(rs));
+            }
+            return chatLogs;
+        }, afterLogId, limit);
+    }
+
+    @Override
+    public long countAfter(int afterLogId, boolean unanalyzedOnly) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM chat_logs WHERE log_id > ?" + (unanalyzedOnly ? " AND analysis_micros IS NULL" : "");
+        return DatabaseUtil.executeQuery(sql, rs -> rs.next() ? rs.getLong(1) : 0L, afterLogId);
+    }
+
+    @Override
+    public int updateAnalysis(List<ChatLog> chatLogs, boolean unanalyzedOnly) throws SQLException {
+        if (chatLogs.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE chat_logs SET sentiment_score = ?, detected_emotion = ?, analysis_micros = ? WHERE log_id = ?" +
+                     (unanalyzedOnly ? " AND analysis_micros IS NULL" : "");
+        
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (ChatLog chatLog : chatLogs) {
+                    if (chatLog.getSentimentScore() != null) {
+                        pstmt.setDouble(1, chatLog.getSentimentScore());
+                    } else {
+                        pstmt.setNull(1, Types.DOUBLE);
+                    }
+                    pstmt.setString(2, chatLog.getDetectedEmotion());
+                    setNullableLong(pstmt, 3, chatLog.getAnalysisMicros());
+                    pstmt.setInt(4, chatLog.getLogId());
+                    pstmt.addBatch();
+                }
+                int updated = 0;
+                for (int count : pstmt.executeBatch()) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+                    updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+                }
+                return updated;
+            }
+        });
+    }
+
     @Override
     public long countByUserId(Integer userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM chat_logs WHERE user_id = ?";
@@ -257,14 +351,22 @@ public class ChatLogDAOImpl implements ChatLogDAO {
 
     @Override
     public int deleteOldEntries(LocalDateTime olderThan) throws SQLException {
+        String deleteTermsSql = "DELETE FROM " + SEARCH_INDEX.getTermTable() +
+                                " WHERE doc_id IN (SELECT log_id FROM chat_logs WHERE created_at < ?)";
         String sql = "DELETE FROM chat_logs WHERE created_at < ?";
+        String cutoff = olderThan.format(DATE_FORMATTER);
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, olderThan.format(DATE_FORMATTER));
-            return pstmt.executeUpdate();
-        }
+        // Drop the index rows in one set-based statement first, so the cascade has nothing left to do per row
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (PreparedStatement deleteTerms = conn.prepareStatement(deleteTermsSql);
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                deleteTerms.setString(1, cutoff);
+                deleteTerms.executeUpdate();
+                
+                pstmt.setString(1, cutoff);
+                return pstmt.executeUpdate();
+            }
+        });
     }
 
     @Override
@@ -300,6 +402,125 @@ public class ChatLogDAOImpl implements ChatLogDAO {
         return chatLogs;
     }
 
+    @Override
+    public List<ChatSearchResult> searchByText(Integer userId, String query, int limit, ChatSearchResult after) throws SQLException {
+        ensureSearchIndexPopulated();
+        
+        InvertedIndex.Match cursor = after == null ? null
+            : new InvertedIndex.Match(after.getChatLog().getLogId(), after.getMatchedTerms(), after.getScore());
+        List<InvertedIndex.Match> matches;
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            matches = SEARCH_INDEX.searchAfter(conn, userId, query, limit, cursor);
+        }
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Load the matching rows by primary key, then restore the ranked order
+        String placeholders = String.join(", ", Collections.nCopies(matches.size(), "?"));
+        Object[] ids = matches.stream().map(InvertedIndex.Match::getDocId).toArray();
+        Map<Integer, ChatLog> byId = DatabaseUtil.executeQuery(
+            "SELECT * FROM chat_logs WHERE log_id IN (" + placeholders + ")", rs -> {
+                Map<Integer, ChatLog> logs = new HashMap<>();
+                while (rs.next()) {
+                    ChatLog log = mapResultSetToChatLog(rs);
+                    logs.put(log.getLogId(), log);
+                }
+                return logs;
+            }, ids);
+        
+        List<ChatSearchResult> results = new ArrayList<>();
+        for (InvertedIndex.Match match : matches) {
+            ChatLog log = byId.get(match.getDocId());
+            if (log != null) {
+                results.add(new ChatSearchResult(log, match.getMatchedTerms(), match.getScore(),
+                    InvertedIndex.highlight(log.getUserMessage(), query, HIGHLIGHT_OPEN, HIGHLIGHT_CLOSE, SNIPPET_LENGTH),
+                    InvertedIndex.highlight(log.getBotResponse(), query, HIGHLIGHT_OPEN, HIGHLIGHT_CLOSE, SNIPPET_LENGTH)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Rebuild the search index for every chat log
+     * @return Number of chat logs indexed
+     */
+    public int rebuildSearchIndex() throws SQLException {
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM " + SEARCH_INDEX.getTermTable());
+            }
+            int indexed = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM chat_logs");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ChatLog log = mapResultSetToChatLog(rs);
+                    SEARCH_INDEX.index(conn, log.getLogId(), userIdOrNull(log), searchFields(log));
+                    indexed++;
+                }
+            }
+            return indexed;
+        });
+    }
+
+    /**
+     * Chat logs without any term rows (written before the search index existed) are indexed once per
+     * process, on first search. Rows whose text has no searchable terms are simply re-checked.
+     */
+    private void ensureSearchIndexPopulated() throws SQLException {
+        if (searchIndexVerified.get()) {
+            return;
+        }
+        synchronized (searchIndexVerified) {
+            if (searchIndexVerified.get()) {
+                return;
+            }
+            int indexed = indexUnindexed();
+            if (indexed > 0) {
+                System.out.println("Indexed " + indexed + " chat logs for search");
+            }
+            searchIndexVerified.set(true);
+        }
+    }
+
+    /**
+     * Index every row of chat_logs that has no rows in the term table
+     * @return Number of rows indexed
+     */
+    private int indexUnindexed() throws SQLException {
+        String sql = "SELECT * FROM chat_logs d WHERE NOT EXISTS (SELECT 1 FROM " + SEARCH_INDEX.getTermTable() +
+                     " t WHERE t.doc_id = d.log_id)";
+        return DatabaseUtil.executeInTransaction(conn -> {
+            int indexed = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ChatLog log = mapResultSetToChatLog(rs);
+                    SEARCH_INDEX.reindex(conn, log.getLogId(), userIdOrNull(log), searchFields(log));
+                    indexed++;
+                }
+            }
+            return indexed;
+        });
+    }
+
+    /**
+     * Searchable fields and their ranking weights: the user's own words outrank the bot's reply
+     */
+    private static Map<String, Integer> searchFields(ChatLog chatLog) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        fields.put(chatLog.getUserMessage(), 2);
+        fields.merge(chatLog.getBotResponse(), 1, Integer::sum);
+        return fields;
+    }
+
+    /**
+     * Anonymous chats are stored with a null user_id
+     */
+    private static Integer userIdOrNull(ChatLog chatLog) {
+        return chatLog.getUserId() != null && chatLog.getUserId() != 0 ? chatLog.getUserId() : null;
+    }
+
     /**
      * Map ResultSet to ChatLog object
      */
@@ -327,6 +548,8 @@ public class ChatLogDAOImpl implements ChatLogDAO {
         }
         
         log.setDetectedEmotion(rs.getString("detected_emotion"));
+        log.setAnalysisMicros(getNullableLong(rs, "analysis_micros"));
+        log.setResponseMicros(getNullableLong(rs, "response_micros"));
         
         String createdAtStr = rs.getString("created_at");
         if (createdAtStr != null) {
@@ -335,4 +558,17 @@ public class ChatLogDAOImpl implements ChatLogDAO {
         
         return log;
     }
-}
\ No newline at end of file
+    
+    private static void setNullableLong(PreparedStatement pstmt, int index, Long value) throws SQLException {
+        if (value != null) {
+            pstmt.setLong(index, value);
+        } else {
+            pstmt.setNull(index, Types.BIGINT);
+        }
+    }
+    
+    private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
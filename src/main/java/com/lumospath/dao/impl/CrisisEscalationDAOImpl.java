@@ -0,0 +1,27 @@
+package com.lumospath.dao.impl;
+
+import com.lumospath.dao.CrisisEscalationDAO;
+import com.lumospath.util.DatabaseUtil;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of CrisisEscalationDAO using the crisis_escalations table
+ */
+public class CrisisEscalationDAOImpl implements CrisisEscalationDAO {
+
+    @Override
+    public void save(Integer userId, String level, String matchedPhrase, long detectionMicros, LocalDateTime createdAt) throws SQLException {
+        String sql = "INSERT INTO crisis_escalations (user_id, level, matched_phrase, detection_micros, created_at) VALUES (?, ?, ?, ?, ?)";
+        // Anonymous users are stored with a null user_id
+        Integer storedUserId = userId != null && userId > 0 ? userId : null;
+        DatabaseUtil.executeUpdate(sql, storedUserId, level, matchedPhrase, detectionMicros, DatabaseUtil.formatDateTime(createdAt));
+    }
+
+    @Override
+    public long countSince(LocalDateTime since) throws SQLException {
+        return DatabaseUtil.executeQuery("SELECT COUNT(*) FROM crisis_escalations WHERE created_at >= ?",
+            rs -> rs.next() ? rs.getLong(1) : 0L, DatabaseUtil.formatDateTime(since));
+    }
+}
@@ -0,0 +1,36 @@
+package com.lumospath.dao.impl;
+
+import com.lumospath.dao.JobCheckpointDAO;
+import com.lumospath.util.DatabaseUtil;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of JobCheckpointDAO using the job_checkpoints table
+ */
+public class JobCheckpointDAOImpl implements JobCheckpointDAO {
+
+    @Override
+    public Long findLastKey(String jobName) throws SQLException {
+        return DatabaseUtil.executeQuery("SELECT last_key FROM job_checkpoints WHERE job_name = ?",
+            rs -> rs.next() ? rs.getLong(1) : null, jobName);
+    }
+
+    @Override
+    public long findProcessed(String jobName) throws SQLException {
+        return DatabaseUtil.executeQuery("SELECT processed FROM job_checkpoints WHERE job_name = ?",
+            rs -> rs.next() ? rs.getLong(1) : 0L, jobName);
+    }
+
+    @Override
+    public void save(String jobName, long lastKey, long processed) throws SQLException {
+        String sql = "MERGE INTO job_checkpoints (job_name, last_key, processed, updated_at) KEY (job_name) VALUES (?, ?, ?, ?)";
+        DatabaseUtil.executeUpdate(sql, jobName, lastKey, processed, DatabaseUtil.formatDateTime(LocalDateTime.now()));
+    }
+
+    @Override
+    public boolean delete(String jobName) throws SQLException {
+        return DatabaseUtil.executeUpdate("DELETE FROM job_checkpoints WHERE job_name = ?", jobName) > 0;
+    }
+}
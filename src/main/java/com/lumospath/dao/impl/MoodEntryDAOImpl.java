@@ -4,73 +4,91 @@ import com.lumospath.dao.MoodEntryDAO;
 import com.lumospath.model.MoodEntry;
 import com.lumospath.model.MoodType;
 import com.lumospath.util.DatabaseUtil;
+import com.lumospath.util.InvertedIndex;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementation of MoodEntryDAO for database operations
  */
 public class MoodEntryDAOImpl implements MoodEntryDAO {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final InvertedIndex SEARCH_INDEX = new InvertedIndex("mood_entry_terms");
+    private static final AtomicBoolean searchIndexVerified = new AtomicBoolean(false);
 
     @Override
     public MoodEntry save(MoodEntry moodEntry) throws SQLException {
         String sql = "INSERT INTO mood_entries (user_id, mood_type, mood_scale, description, trigger_cause, tags, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, moodEntry.getUserId());
-            pstmt.setString(2, moodEntry.getMoodType().toString());
-            pstmt.setInt(3, moodEntry.getMoodScale());
-            pstmt.setString(4, moodEntry.getDescription());
-            pstmt.setString(5, moodEntry.getTrigger());
-            pstmt.setString(6, moodEntry.getTags());
-            pstmt.setString(7, moodEntry.getCreatedAt().format(DATE_FORMATTER));
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating mood entry failed, no rows affected.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    moodEntry.setEntryId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating mood entry failed, no ID obtained.");
+        // The entry, its search terms and its tags are committed together or not at all
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, moodEntry.getUserId());
+                pstmt.setString(2, moodEntry.getMoodType().name());
+                pstmt.setInt(3, moodEntry.getMoodScale());
+                pstmt.setString(4, moodEntry.getDescription());
+                pstmt.setString(5, moodEntry.getTrigger());
+                pstmt.setString(6, moodEntry.getTags());
+                pstmt.setString(7, moodEntry.getCreatedAt().format(DATE_FORMATTER));
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating mood entry failed, no rows affected.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        moodEntry.setEntryId(generatedKeys.getInt(1));
+                    } else {
+                        throw new SQLException("Creating mood entry failed, no ID obtained.");
+                    }
                 }
             }
             
+            SEARCH_INDEX.index(conn, moodEntry.getEntryId(), moodEntry.getUserId(), searchFields(moodEntry));
+            saveTags(conn, moodEntry);
             return moodEntry;
-        }
+        });
     }
 
     @Override
     public MoodEntry update(MoodEntry moodEntry) throws SQLException {
         String sql = "UPDATE mood_entries SET mood_type = ?, mood_scale = ?, description = ?, trigger_cause = ?, tags = ? WHERE entry_id = ?";
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, moodEntry.getMoodType().toString());
-            pstmt.setInt(2, moodEntry.getMoodScale());
-            pstmt.setString(3, moodEntry.getDescription());
-            pstmt.setString(4, moodEntry.getTrigger());
-            pstmt.setString(5, moodEntry.getTags());
-            pstmt.setInt(6, moodEntry.getEntryId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating mood entry failed, no rows affected.");
+        // The row, its search terms and its tags change together or not at all
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, moodEntry.getMoodType().name());
+                pstmt.setInt(2, moodEntry.getMoodScale());
+                pstmt.setString(3, moodEntry.getDescription());
+                pstmt.setString(4, moodEntry.getTrigger());
+                pstmt.setString(5, moodEntry.getTags());
+                pstmt.setInt(6, moodEntry.getEntryId());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Updating mood entry failed, no rows affected.");
+                }
             }
             
+            SEARCH_INDEX.reindex(conn, moodEntry.getEntryId(), moodEntry.getUserId(), searchFields(moodEntry));
+            try (PreparedStatement deleteTags = conn.prepareStatement("DELETE FROM mood_entry_tags WHERE entry_id = ?")) {
+                deleteTags.setInt(1, moodEntry.getEntryId());
+                deleteTags.executeUpdate();
+            }
+            saveTags(conn, moodEntry);
             return moodEntry;
-        }
+        });
     }
 
     @Override
@@ -206,14 +224,16 @@ public class MoodEntryDAOImpl implements MoodEntryDAO {
 
     @Override
     public List<MoodEntry> findByUserIdAndMoodType(Integer userId, MoodType moodType) throws SQLException {
-        String sql = "SELECT * FROM mood_entries WHERE user_id = ? AND mood_type = ? ORDER BY created_at DESC";
+        // Older rows stored the display form of the mood type, so match both representations
+        String sql = "SELECT * FROM mood_entries WHERE user_id = ? AND mood_type IN (?, ?) ORDER BY created_at DESC";
         List<MoodEntry> moodEntries = new ArrayList<>();
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
-            pstmt.setString(2, moodType.toString());
+            pstmt.setString(2, moodType.name());
+            pstmt.setString(3, moodType.toString());
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -247,87 +267,273 @@ public class MoodEntryDAOImpl implements MoodEntryDAO {
     }
 
     @Override
-    public double getAverageMoodScale(Integer userId, LocalDateTime startDate, LocalDateTime endDate) throws SQLException {
-        String sql = "SELECT AVG(mood_scale) as avg_mood FROM mood_entries WHERE user_id = ? AND created_at BETWEEN ? AND ?";
+    public List<MoodEntry> findPageBefore(Integer userId, LocalDateTime beforeCreatedAt, int beforeEntryId, int limit) throws SQLException {
+        String sql = "SELECT * FROM mood_entries WHERE user_id = ?" +
+                     (beforeCreatedAt != null ? " AND (created_at < ? OR (created_at = ? AND entry_id < ?))" : "") +
+                     " ORDER BY created_at DESC, entry_id DESC LIMIT ?";
+        List<MoodEntry> moodEntries = new ArrayList<>();
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setInt(1, userId);
-            pstmt.setString(2, startDate.format(DATE_FORMATTER));
-            pstmt.setString(3, endDate.format(DATE_FORMATTER));
+            int index = 1;
+            pstmt.setInt(index++, userId);
+            if (beforeCreatedAt != null) {
+                String before = beforeCreatedAt.format(DATE_FORMATTER);
+                pstmt.setString(index++, before);
+                pstmt.setString(index++, before);
+                pstmt.setInt(index++, beforeEntryId);
+            }
+            pstmt.setInt(index, limit);
             
             try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next() ? rs.getDouble("avg_mood") : 0.0;
+                while (rs.next()) {
+                    moodEntries.add(mapResultSetToMoodEntry(rs));
+                }
             }
         }
+        
+        return moodEntries;
     }
 
     @Override
-    public List<Object[]> getMoodStatistics(Integer userId, int days) throws SQLException {
-        String sql = "SELECT mood_type, COUNT(*) as count FROM mood_entries WHERE user_id = ? AND created_at >= ? GROUP BY mood_type ORDER BY count DESC";
-        List<Object[]> statistics = new ArrayList<>();
-        
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+    public double getAverageMoodScale(Integer userId) throws SQLException {
+        String sql = "SELECT AVG(CAST(mood_scale AS DOUBLE)) as avg_mood FROM mood_entries WHERE user_id = ?";
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
-            pstmt.setString(2, startDate.format(DATE_FORMATTER));
             
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    statistics.add(new Object[]{rs.getString("mood_type"), rs.getInt("count")});
-                }
+                return rs.next() ? rs.getDouble("avg_mood") : 0.0;
             }
         }
-        
-        return statistics;
     }
 
     @Override
-    public List<MoodEntry> findByTriggerContaining(Integer userId, String triggerText) throws SQLException {
-        String sql = "SELECT * FROM mood_entries WHERE user_id = ? AND trigger_cause LIKE ? ORDER BY created_at DESC";
-        List<MoodEntry> moodEntries = new ArrayList<>();
+    public double getAverageMoodScale(Integer userId, LocalDateTime startDate, LocalDateTime endDate) throws SQLException {
+        String sql = "SELECT AVG(mood_scale) as avg_mood FROM mood_entries WHERE user_id = ? AND created_at BETWEEN ? AND ?";
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
-            pstmt.setString(2, "%" + triggerText + "%");
+            pstmt.setString(2, startDate.format(DATE_FORMATTER));
+            pstmt.setString(3, endDate.format(DATE_FORMATTER));
             
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    moodEntries.add(mapResultSetToMoodEntry(rs));
-                }
+                return rs.next() ? rs.getDouble("avg_mood") : 0.0;
             }
         }
+    }
+
+    @Override
+    public List<Object[]> getMoodStatistics(Integer userId, int days) throws SQLException {
+        String sql = "SELECT mood_type, COUNT(*) as count FROM mood_entries WHERE user_id = ? AND created_at >= ? GROUP BY mood_type ORDER BY count DESC";
+        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
         
-        return moodEntries;
+        // Routed through DatabaseUtil so slow executions are captured by the slow-query log
+        return DatabaseUtil.executeQuery(sql, rs -> {
+            // Merge legacy and current mood_type spellings under the display label
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            while (rs.next()) {
+                String label = MoodType.fromStoredValue(rs.getString("mood_type")).toString();
+                counts.merge(label, rs.getInt("count"), Integer::sum);
+            }
+            List<Object[]> statistics = new ArrayList<>();
+            counts.forEach((label, count) -> statistics.add(new Object[]{label, count}));
+            return statistics;
+        }, userId, startDate.format(DATE_FORMATTER));
     }
 
     @Override
-    public List<Object[]> getMoodTrendData(Integer userId, int days) throws SQLException {
-        String sql = "SELECT DATE(created_at) as date, AVG(mood_scale) as avg_mood FROM mood_entries WHERE user_id = ? AND created_at >= ? GROUP BY DATE(created_at) ORDER BY date";
-        List<Object[]> trendData = new ArrayList<>();
+    public List<MoodEntry> findByTriggerContaining(Integer userId, String triggerText) throws SQLException {
+        String sql = "SELECT * FROM mood_entries WHERE user_id = ? AND trigger_cause LIKE ? ORDER BY created_at DESC";
+        return DatabaseUtil.executeQuery(sql, this::mapResultSetToMoodEntryList, userId, "%" + triggerText + "%");
+    }
+
+    @Override
+    public List<MoodEntry> searchByText(Integer userId, String query, int limit, int offset) throws SQLException {
+        ensureSearchIndexPopulated();
         
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        List<InvertedIndex.Match> matches;
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            matches = SEARCH_INDEX.search(conn, userId, query, limit, offset);
+        }
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            pstmt.setString(2, startDate.format(DATE_FORMATTER));
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
+        // Load the matching rows by primary key, then restore the ranked order
+        String placeholders = String.join(", ", Collections.nCopies(matches.size(), "?"));
+        Object[] ids = matches.stream().map(InvertedIndex.Match::getDocId).toArray();
+        Map<Integer, MoodEntry> byId = DatabaseUtil.executeQuery(
+            "SELECT * FROM mood_entries WHERE entry_id IN (" + placeholders + ")", rs -> {
+                Map<Integer, MoodEntry> entries = new HashMap<>();
+                while (rs.next()) {
+                    MoodEntry entry = mapResultSetToMoodEntry(rs);
+                    entries.put(entry.getEntryId(), entry);
+                }
+                return entries;
+            }, ids);
+        
+        List<MoodEntry> ranked = new ArrayList<>();
+        for (InvertedIndex.Match match : matches) {
+            MoodEntry entry = byId.get(match.getDocId());
+            if (entry != null) {
+                ranked.add(entry);
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Rebuild the search index for every mood entry
+     * @return Number of entries indexed
+     */
+    public int rebuildSearchIndex() throws SQLException {
+        return DatabaseUtil.executeInTransaction(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM " + SEARCH_INDEX.getTermTable());
+            }
+            int indexed = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM mood_entries");
+                 ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    trendData.add(new Object[]{rs.getString("date"), rs.getDouble("avg_mood")});
+                    MoodEntry entry = mapResultSetToMoodEntry(rs);
+                    SEARCH_INDEX.index(conn, entry.getEntryId(), entry.getUserId(), searchFields(entry));
+                    indexed++;
                 }
             }
+            return indexed;
+        });
+    }
+
+    /**
+     * Entries without any term rows (written before the search index existed) are indexed once per
+     * process, on first search. Rows whose text has no searchable terms are simply re-checked.
+     */
+    private void ensureSearchIndexPopulated() throws SQLException {
+        if (searchIndexVerified.get()) {
+            return;
+        }
+        synchronized (searchIndexVerified) {
+            if (searchIndexVerified.get()) {
+                return;
+            }
+            int indexed = indexUnindexed();
+            if (indexed > 0) {
+                System.out.println("Indexed " + indexed + " mood entries for search");
+            }
+            searchIndexVerified.set(true);
+        }
+    }
+
+    /**
+     * Index every row of mood_entries that has no rows in the term table
+     * @return Number of rows indexed
+     */
+    private int indexUnindexed() throws SQLException {
+        String sql = "SELECT * FROM mood_entries d WHERE NOT EXISTS (SELECT 1 FROM " + SEARCH_INDEX.getTermTable() +
+                     " t WHERE t.doc_id = d.entry_id)";
+        return DatabaseUtil.executeInTransaction(conn -> {
+            int indexed = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    MoodEntry entry = mapResultSetToMoodEntry(rs);
+                    SEARCH_INDEX.reindex(conn, entry.getEntryId(), entry.getUserId(), searchFields(entry));
+                    indexed++;
+                }
+            }
+            return indexed;
+        });
+    }
+
+    /**
+     * Searchable fields and their ranking weights: tags outrank triggers, which outrank descriptions
+     */
+    private static Map<String, Integer> searchFields(MoodEntry entry) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        fields.put(entry.getDescription(), 1);
+        fields.merge(entry.getTrigger(), 2, Integer::sum);
+        fields.merge(entry.getTags(), 3, Integer::sum);
+        return fields;
+    }
+
+    @Override
+    public List<MoodEntry> findByUserIdAndTag(Integer userId, String tag) throws SQLException {
+        return findByUserIdAndTags(userId, List.of(tag), false);
+    }
+
+    @Override
+    public List<MoodEntry> findByUserIdAndTags(Integer userId, List<String> tags, boolean matchAll) throws SQLException {
+        List<String> normalized = MoodEntry.parseTags(String.join(",", tags));
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Resolve entry ids from the (tag, user_id, created_at) index, then join back to the entries
+        String placeholders = String.join(", ", Collections.nCopies(normalized.size(), "?"));
+        String sql = "SELECT e.* FROM mood_entries e JOIN (" +
+                     "SELECT entry_id FROM mood_entry_tags WHERE tag IN (" + placeholders + ") AND user_id = ? " +
+                     "GROUP BY entry_id" + (matchAll ? " HAVING COUNT(*) = " + normalized.size() : "") +
+                     ") t ON t.entry_id = e.entry_id ORDER BY e.created_at DESC";
+        
+        List<Object> params = new ArrayList<>(normalized);
+        params.add(userId);
+        return DatabaseUtil.executeQuery(sql, this::mapResultSetToMoodEntryList, params.toArray());
+    }
+
+    @Override
+    public List<Object[]> getTagFrequencies(Integer userId, int days) throws SQLException {
+        String sql = "SELECT tag, COUNT(*) as count FROM mood_entry_tags WHERE user_id = ? AND created_at >= ? GROUP BY tag ORDER BY count DESC, tag";
+        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        
+        return DatabaseUtil.executeQuery(sql, rs -> {
+            List<Object[]> frequencies = new ArrayList<>();
+            while (rs.next()) {
+                frequencies.add(new Object[]{rs.getString("tag"), rs.getInt("count")});
+            }
+            return frequencies;
+        }, userId, startDate.format(DATE_FORMATTER));
+    }
+
+    /**
+     * Write the entry's tags to mood_entry_tags, copying user_id and created_at from the stored row
+     */
+    private void saveTags(Connection conn, MoodEntry moodEntry) throws SQLException {
+        List<String> tags = moodEntry.getTagList();
+        if (tags.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO mood_entry_tags (entry_id, user_id, tag, created_at) " +
+                     "SELECT entry_id, user_id, ?, created_at FROM mood_entries WHERE entry_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (String tag : tags) {
+                pstmt.setString(1, tag);
+                pstmt.setInt(2, moodEntry.getEntryId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
         }
+    }
+
+    @Override
+    public List<Object[]> getMoodTrendData(Integer userId, int days) throws SQLException {
+        String sql = "SELECT CAST(created_at AS DATE) as entry_date, AVG(CAST(mood_scale AS DOUBLE)) as avg_mood, MIN(mood_scale) as min_mood, MAX(mood_scale) as max_mood " +
+                     "FROM mood_entries WHERE user_id = ? AND created_at >= ? GROUP BY CAST(created_at AS DATE) ORDER BY entry_date";
+        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
         
-        return trendData;
+        return DatabaseUtil.executeQuery(sql, rs -> {
+            List<Object[]> trendData = new ArrayList<>();
+            while (rs.next()) {
+                trendData.add(new Object[]{rs.getString("entry_date"), rs.getDouble("avg_mood"),
+                                           rs.getInt("min_mood"), rs.getInt("max_mood")});
+            }
+            return trendData;
+        }, userId, startDate.format(DATE_FORMATTER));
     }
 
     @Override
@@ -357,9 +563,7 @@ public class MoodEntryDAOImpl implements MoodEntryDAO {
         }
     }
 
-    /**
-     * Delete all mood entries for a specific user
-     */
+    @Override
     public int deleteAllByUserId(Integer userId) throws SQLException {
         String sql = "DELETE FROM mood_entries WHERE user_id = ?";
         
@@ -371,6 +575,17 @@ public class MoodEntryDAOImpl implements MoodEntryDAO {
         }
     }
 
+    /**
+     * Map all rows of a ResultSet to MoodEntry objects
+     */
+    private List<MoodEntry> mapResultSetToMoodEntryList(ResultSet rs) throws SQLException {
+        List<MoodEntry> moodEntries = new ArrayList<>();
+        while (rs.next()) {
+            moodEntries.add(mapResultSetToMoodEntry(rs));
+        }
+        return moodEntries;
+    }
+
     /**
      * Map ResultSet to MoodEntry object
      */
@@ -378,7 +593,7 @@ public class MoodEntryDAOImpl implements MoodEntryDAO {
         MoodEntry entry = new MoodEntry();
         entry.setEntryId(rs.getInt("entry_id"));
         entry.setUserId(rs.getInt("user_id"));
-        entry.setMoodType(MoodType.valueOf(rs.getString("mood_type")));
+        entry.setMoodType(MoodType.fromStoredValue(rs.getString("mood_type")));
         entry.setMoodScale(rs.getInt("mood_scale"));
         entry.setDescription(rs.getString("description"));
         entry.setTrigger(rs.getString("trigger_cause"));
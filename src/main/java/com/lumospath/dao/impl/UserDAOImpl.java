@@ -2,13 +2,17 @@ package com.lumospath.dao.impl;
 
 import com.lumospath.dao.UserDAO;
 import com.lumospath.model.User;
+import com.lumospath.model.UserSession;
+import com.lumospath.util.AvailabilityFilter;
 import com.lumospath.util.DatabaseUtil;
 import com.lumospath.util.DatabaseUtil.ResultSetHandler;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,6 +21,12 @@ import java.util.Optional;
 public class UserDAOImpl implements UserDAO {
     
     private static final String TABLE_NAME = "users";
+    private static final int AVAILABILITY_NEGATIVE_CACHE_SIZE = 1000;
+    
+    // Shared by every instance: the filters mirror the users table, not a DAO instance
+    private static final AvailabilityFilter USERNAME_FILTER = new AvailabilityFilter("username", AVAILABILITY_NEGATIVE_CACHE_SIZE);
+    private static final AvailabilityFilter EMAIL_FILTER = new AvailabilityFilter("email", AVAILABILITY_NEGATIVE_CACHE_SIZE);
+    private static final Object AVAILABILITY_LOCK = new Object();
     
     // SQL Queries
     private static final String INSERT_USER = 
@@ -55,15 +65,24 @@ public class UserDAOImpl implements UserDAO {
     private static final String EXISTS_BY_EMAIL = 
         "SELECT 1 FROM " + TABLE_NAME + " WHERE email = ?";
     
+    private static final String FIND_ALL_USERNAMES_AND_EMAILS = 
+        "SELECT username, email FROM " + TABLE_NAME;
+    
     private static final String COUNT_ANONYMOUS = 
         "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE anonymous = 1";
     
     private static final String SET_USER_PREFERENCE = 
-        "INSERT OR REPLACE INTO user_preferences (user_id, preference_key, preference_value, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+        "MERGE INTO user_preferences (user_id, preference_key, preference_value, created_at, updated_at) KEY (user_id, preference_key) VALUES (?, ?, ?, ?, ?)";
     
     private static final String GET_USER_PREFERENCE = 
         "SELECT preference_value FROM user_preferences WHERE user_id = ? AND preference_key = ?";
     
+    private static final String GET_USER_PREFERENCES = 
+        "SELECT preference_key, preference_value FROM user_preferences WHERE user_id = ?";
+    
+    private static final String FIND_BY_USERNAME_OR_EMAIL = 
+        "SELECT * FROM " + TABLE_NAME + " WHERE username = ? OR email = ?";
+    
     private static final String AUTHENTICATE_USER = 
         "SELECT * FROM " + TABLE_NAME + " WHERE (username = ? OR email = ?) AND password_hash = ?";
     
@@ -73,8 +92,25 @@ public class UserDAOImpl implements UserDAO {
     private static final String INSERT_AUTH_HISTORY = 
         "INSERT INTO user_auth_history (user_id, login_time, ip_address, user_agent) VALUES (?, ?, ?, ?)";
     
+    private static final String INSERT_AUTH_SESSION = 
+        "INSERT INTO user_auth_history (user_id, login_time, ip_address, user_agent, session_token_hash, last_seen, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String FIND_ACTIVE_SESSION = 
+        "SELECT u.*, h.auth_id, h.login_time, h.last_seen, h.expires_at FROM user_auth_history h " +
+        "JOIN " + TABLE_NAME + " u ON u.user_id = h.user_id " +
+        "WHERE h.session_token_hash = ? AND h.logout_time IS NULL AND h.expires_at > CAST(? AS TIMESTAMP) AND h.last_seen > CAST(? AS TIMESTAMP)";
+    
+    private static final String UPDATE_SESSION_LAST_SEEN = 
+        "UPDATE user_auth_history SET last_seen = ? WHERE auth_id = ? AND logout_time IS NULL";
+    
+    private static final String UPDATE_LAST_ACTIVE_AND_PASSWORD = 
+        "UPDATE " + TABLE_NAME + " SET last_active = ?, password_hash = ? WHERE user_id = ?";
+    
+    // Session duration is computed from the stored login_time in the same statement
     private static final String UPDATE_AUTH_LOGOUT = 
-        "UPDATE user_auth_history SET logout_time = ?, session_duration_minutes = ? WHERE auth_id = ?";
+        "UPDATE user_auth_history SET logout_time = CAST(? AS TIMESTAMP), " +
+        "session_duration_minutes = DATEDIFF('SECOND', login_time, CAST(? AS TIMESTAMP)) / 60 " +
+        "WHERE auth_id = ? AND logout_time IS NULL";
     
     @Override
     public User save(User user) throws SQLException {
@@ -110,6 +146,7 @@ public class UserDAOImpl implements UserDAO {
             }
         }
         
+        recordTakenIdentifiers(user);
         return user;
     }
     
@@ -134,6 +171,7 @@ public class UserDAOImpl implements UserDAO {
             }
         }
         
+        recordTakenIdentifiers(user);
         return user;
     }
     
@@ -209,6 +247,69 @@ public class UserDAOImpl implements UserDAO {
         return DatabaseUtil.executeQuery(EXISTS_BY_EMAIL, rs -> rs.next(), email);
     }
     
+    @Override
+    public boolean isUsernameAvailable(String username) throws SQLException {
+        ensureAvailabilityFilters();
+        if (USERNAME_FILTER.isDefinitelyAvailable(username)) {
+            return true;
+        }
+        boolean exists = existsByUsername(username);
+        if (!exists) {
+            USERNAME_FILTER.recordAvailable(username);
+        }
+        return !exists;
+    }
+    
+    @Override
+    public boolean isEmailAvailable(String email) throws SQLException {
+        ensureAvailabilityFilters();
+        if (EMAIL_FILTER.isDefinitelyAvailable(email)) {
+            return true;
+        }
+        boolean exists = existsByEmail(email);
+        if (!exists) {
+            EMAIL_FILTER.recordAvailable(email);
+        }
+        return !exists;
+    }
+    
+    /**
+     * Build the availability filters from the users table on first use, and rebuild them
+     * once they have taken more values than they were sized for
+     */
+    private void ensureAvailabilityFilters() throws SQLException {
+        if (!USERNAME_FILTER.needsRebuild() && !EMAIL_FILTER.needsRebuild()) {
+            return;
+        }
+        synchronized (AVAILABILITY_LOCK) {
+            if (!USERNAME_FILTER.needsRebuild() && !EMAIL_FILTER.needsRebuild()) {
+                return;
+            }
+            List<String> usernames = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            DatabaseUtil.executeQuery(FIND_ALL_USERNAMES_AND_EMAILS, rs -> {
+                while (rs.next()) {
+                    usernames.add(rs.getString("username"));
+                    emails.add(rs.getString("email"));
+                }
+                return null;
+            });
+            USERNAME_FILTER.rebuild(usernames, usernames.size());
+            EMAIL_FILTER.rebuild(emails, emails.size());
+        }
+    }
+    
+    /**
+     * Add a saved user's username and email to the availability filters. Runs after the write
+     * and under the rebuild lock, so a concurrent rebuild either sees the row or the new value.
+     */
+    private void recordTakenIdentifiers(User user) {
+        synchronized (AVAILABILITY_LOCK) {
+            USERNAME_FILTER.add(user.getUsername());
+            EMAIL_FILTER.add(user.getEmail());
+        }
+    }
+    
     @Override
     public long countAnonymousUsers() throws SQLException {
         return DatabaseUtil.executeQuery(COUNT_ANONYMOUS, rs -> {
@@ -240,6 +341,37 @@ public class UserDAOImpl implements UserDAO {
     }
     
     @Override
+    public Map<String, String> getUserPreferences(Integer userId) throws SQLException {
+        return DatabaseUtil.executeQuery(GET_USER_PREFERENCES, rs -> {
+            Map<String, String> preferences = new HashMap<>();
+            while (rs.next()) {
+                preferences.put(rs.getString("preference_key"), rs.getString("preference_value"));
+            }
+            return preferences;
+        }, userId);
+    }
+    
+    @Override
+    public int setUserPreferences(Integer userId, Map<String, String> preferences) throws SQLException {
+        if (preferences.isEmpty()) {
+            return 0;
+        }
+        String now = DatabaseUtil.formatDateTime(LocalDateTime.now());
+        Object[][] batch = preferences.entrySet().stream()
+            .map(entry -> new Object[]{userId, entry.getKey(), entry.getValue(), now, now})
+            .toArray(Object[][]::new);
+        DatabaseUtil.executeBatch(SET_USER_PREFERENCE, batch);
+        return batch.length;
+    }
+    
+    @Override
+    public Optional<User> findByUsernameOrEmail(String usernameOrEmail) throws SQLException {
+        return DatabaseUtil.executeQuery(FIND_BY_USERNAME_OR_EMAIL, this::mapResultSetToUser, 
+                                        usernameOrEmail, usernameOrEmail);
+    }
+    
+    @Override
+    @Deprecated
     public Optional<User> authenticateUser(String usernameOrEmail, String passwordHash) throws SQLException {
         return DatabaseUtil.executeQuery(AUTHENTICATE_USER, this::mapResultSetToUser, 
                                         usernameOrEmail, usernameOrEmail, passwordHash);
@@ -271,29 +403,79 @@ public class UserDAOImpl implements UserDAO {
     }
     
     @Override
-    public boolean recordLogout(Integer authId) throws SQLException {
-        // Calculate session duration
-        LocalDateTime logoutTime = LocalDateTime.now();
+    public Integer recordSuccessfulLogin(Integer userId, String ipAddress, String userAgent, String upgradedPasswordHash,
+                                         String sessionTokenHash, LocalDateTime sessionExpiresAt) throws SQLException {
+        String now = DatabaseUtil.formatDateTime(LocalDateTime.now());
         
-        // First, get the login time to calculate duration
-        String getLoginTimeSql = "SELECT login_time FROM user_auth_history WHERE auth_id = ?";
-        LocalDateTime loginTime = DatabaseUtil.executeQuery(getLoginTimeSql, rs -> {
-            if (rs.next()) {
-                return DatabaseUtil.parseDateTime(rs.getString("login_time"));
+        return DatabaseUtil.executeInTransaction(conn -> {
+            String updateSql = upgradedPasswordHash != null ? UPDATE_LAST_ACTIVE_AND_PASSWORD : UPDATE_LAST_ACTIVE;
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                int index = 1;
+                pstmt.setString(index++, now);
+                if (upgradedPasswordHash != null) {
+                    pstmt.setString(index++, upgradedPasswordHash);
+                }
+                pstmt.setInt(index, userId);
+                if (pstmt.executeUpdate() == 0) {
+                    throw new SQLException("Recording login failed, user " + userId + " not found.");
+                }
             }
-            return null;
-        }, authId);
-        
-        if (loginTime != null) {
-            long sessionMinutes = java.time.Duration.between(loginTime, logoutTime).toMinutes();
-            int rowsAffected = DatabaseUtil.executeUpdate(UPDATE_AUTH_LOGOUT,
-                                                          DatabaseUtil.formatDateTime(logoutTime),
-                                                          sessionMinutes,
-                                                          authId);
-            return rowsAffected > 0;
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_AUTH_SESSION, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, now);
+                pstmt.setString(3, ipAddress);
+                pstmt.setString(4, userAgent);
+                pstmt.setString(5, sessionTokenHash);
+                pstmt.setString(6, sessionTokenHash != null ? now : null);
+                pstmt.setString(7, sessionExpiresAt != null ? DatabaseUtil.formatDateTime(sessionExpiresAt) : null);
+                pstmt.executeUpdate();
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        return generatedKeys.getInt(1);
+                    }
+                    throw new SQLException("Recording login failed, no ID obtained.");
+                }
+            }
+        });
+    }
+    
+    @Override
+    public Optional<UserSession> findActiveSession(String sessionTokenHash, LocalDateTime idleSince) throws SQLException {
+        return DatabaseUtil.executeQuery(FIND_ACTIVE_SESSION, rs -> {
+            if (!rs.next()) {
+                return Optional.<UserSession>empty();
+            }
+            User user = extractUserFromResultSet(rs);
+            return Optional.of(new UserSession(sessionTokenHash, rs.getInt("auth_id"), user,
+                DatabaseUtil.parseDateTime(rs.getString("login_time")),
+                DatabaseUtil.parseDateTime(rs.getString("expires_at")),
+                DatabaseUtil.parseDateTime(rs.getString("last_seen"))));
+        }, sessionTokenHash, DatabaseUtil.formatDateTime(LocalDateTime.now()), DatabaseUtil.formatDateTime(idleSince));
+    }
+    
+    @Override
+    public int touchSessions(Map<Integer, LocalDateTime> lastSeenByAuthId) throws SQLException {
+        if (lastSeenByAuthId.isEmpty()) {
+            return 0;
         }
-        
-        return false;
+        Object[][] batch = lastSeenByAuthId.entrySet().stream()
+            .map(entry -> new Object[]{DatabaseUtil.formatDateTime(entry.getValue()), entry.getKey()})
+            .toArray(Object[][]::new);
+        int[] results = DatabaseUtil.executeBatch(UPDATE_SESSION_LAST_SEEN, batch);
+        int updated = 0;
+        for (int result : results) {
+            updated += Math.max(0, result);
+        }
+        return updated;
+    }
+    
+    @Override
+    public boolean recordLogout(Integer authId) throws SQLException {
+        String logoutTime = DatabaseUtil.formatDateTime(LocalDateTime.now());
+        int rowsAffected = DatabaseUtil.executeUpdate(UPDATE_AUTH_LOGOUT, logoutTime, logoutTime, authId);
+        return rowsAffected > 0;
     }
     
     @Override
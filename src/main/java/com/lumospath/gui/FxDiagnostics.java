@@ -0,0 +1,388 @@
+package com.lumospath.gui;
+
+import com.lumospath.util.MetricsRegistry;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.stage.Popup;
+import javafx.stage.Stage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in FX thread diagnostics: frame times, pulse durations, FX thread blocking and the view that
+ * was active when they happened. Enabled with -Dlumospath.fx.diagnostics=true (or the
+ * LUMOS_FX_DIAGNOSTICS=true environment variable); when disabled nothing is installed and
+ * {@link #setActivity} is a field write.
+ * <p>
+ * Frame time is the interval between pulses, taken from an AnimationTimer (which keeps pulses
+ * running at the display rate while diagnostics are on). Pulse time runs from the animation phase
+ * to the end of CSS and layout; rendering happens on the render thread and is not included.
+ * Blocking is measured by a watchdog thread that posts a probe with Platform.runLater and times
+ * how long it waits; stalls over a threshold are logged with the FX thread's stack.
+ * <p>
+ * Every event goes into a bounded in-memory trace that is written as CSV on Ctrl+Shift+T and when
+ * the application closes. Ctrl+Shift+D toggles the overlay.
+ */
+public final class FxDiagnostics {
+    private static final boolean ENABLED = Boolean.getBoolean("lumospath.fx.diagnostics")
+            || "true".equalsIgnoreCase(System.getenv("LUMOS_FX_DIAGNOSTICS"));
+    private static final Path TRACE_FILE = Paths.get(System.getProperty("lumospath.fx.trace", "logs/fx-trace.csv"));
+    private static final int TRACE_CAPACITY = Integer.getInteger("lumospath.fx.trace.capacity", 50_000);
+
+    private static final long PROBE_INTERVAL_MILLIS = 50;
+    // Probes delayed at least this long are traced; longer ones are logged with a stack trace
+    private static final long BLOCKED_TRACE_NANOS = 50_000_000L;
+    private static final long STALL_NANOS = 250_000_000L;
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+    private static final int RECENT_FRAMES = 240;
+    private static final int STACK_DEPTH = 8;
+
+    private static volatile String activity = "startup";
+    private static volatile FxDiagnostics instance;
+
+    private final Thread fxThread = Thread.currentThread();
+    private final Trace trace = new Trace(TRACE_CAPACITY);
+    private final Label overlayLabel = new Label();
+    private final Popup overlay = new Popup();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lumospath-fx-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // FX thread only
+    private final long[] recentFrames = new long[RECENT_FRAMES];
+    private int recentFrameCount;
+    private int recentFrameIndex;
+    private long lastFrameNanos;
+    private long pulseStartNanos;
+    private long lastOverlayRefreshNanos;
+    private long recentMaxPulseNanos;
+    private long recentMaxBlockedNanos;
+
+    // Watchdog thread and the probe it posts
+    private volatile long probePostedNanos;
+    private volatile String stallStack;
+
+    private FxDiagnostics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Name the view or action that is running, so frames and stalls can be attributed to it
+     */
+    public static void setActivity(String name) {
+        activity = name;
+        FxDiagnostics diagnostics = instance;
+        if (diagnostics != null) {
+            diagnostics.trace.add(System.nanoTime(), "activity", 0, name, null);
+        }
+    }
+
+    /**
+     * Start measuring the given window's scene. Must be called on the FX thread; does nothing
+     * unless diagnostics are enabled.
+     */
+    public static void install(Stage stage, Scene scene) {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        FxDiagnostics diagnostics = new FxDiagnostics();
+        instance = diagnostics;
+        diagnostics.start(stage, scene);
+        System.out.println("🩺 FX diagnostics enabled; Ctrl+Shift+D toggles the overlay, Ctrl+Shift+T writes "
+                + TRACE_FILE);
+    }
+
+    /**
+     * Write the trace and print a summary; called when the application closes
+     */
+    public static void shutdown() {
+        FxDiagnostics diagnostics = instance;
+        if (diagnostics == null) {
+            return;
+        }
+        instance = null;
+        diagnostics.watchdog.shutdownNow();
+        diagnostics.writeTrace();
+    }
+
+    private void start(Stage stage, Scene scene) {
+        AnimationTimer frameTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onFrame(now);
+            }
+        };
+        frameTimer.start();
+        scene.addPostLayoutPulseListener(this::onPulseEnd);
+
+        overlayLabel.setMouseTransparent(true);
+        overlayLabel.setStyle("-fx-background-color: rgba(17, 24, 39, 0.8); -fx-text-fill: #F9FAFB; "
+                + "-fx-font-family: monospace; -fx-font-size: 11px; -fx-padding: 6 8;");
+        overlay.getContent().add(overlayLabel);
+        overlay.setAutoHide(false);
+        stage.xProperty().addListener((obs, oldValue, newValue) -> positionOverlay(stage));
+        stage.yProperty().addListener((obs, oldValue, newValue) -> positionOverlay(stage));
+        stage.widthProperty().addListener((obs, oldValue, newValue) -> positionOverlay(stage));
+        overlayLabel.widthProperty().addListener((obs, oldValue, newValue) -> positionOverlay(stage));
+        if (stage.isShowing()) {
+            showOverlay(stage);
+        } else {
+            stage.setOnShown(e -> showOverlay(stage));
+        }
+
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN),
+                () -> {
+                    if (overlay.isShowing()) {
+                        overlay.hide();
+                    } else {
+                        showOverlay(stage);
+                    }
+                });
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.T, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN),
+                () -> watchdog.execute(this::writeTrace));
+
+        watchdog.scheduleWithFixedDelay(this::probe, PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void onFrame(long now) {
+        pulseStartNanos = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            long frameNanos = now - lastFrameNanos;
+            MetricsRegistry.histogram("gui.fx.frame").record(frameNanos);
+            trace.add(now, "frame", frameNanos, activity, null);
+            recentFrames[recentFrameIndex] = frameNanos;
+            recentFrameIndex = (recentFrameIndex + 1) % RECENT_FRAMES;
+            recentFrameCount = Math.min(recentFrameCount + 1, RECENT_FRAMES);
+        }
+        lastFrameNanos = now;
+
+        if (now - lastOverlayRefreshNanos >= OVERLAY_REFRESH_NANOS && overlay.isShowing()) {
+            lastOverlayRefreshNanos = now;
+            refreshOverlay();
+        }
+    }
+
+    private void onPulseEnd() {
+        if (pulseStartNanos == 0) {
+            return;
+        }
+        long end = System.nanoTime();
+        long pulseNanos = end - pulseStartNanos;
+        pulseStartNanos = 0;
+        MetricsRegistry.histogram("gui.fx.pulse").record(pulseNanos);
+        trace.add(end, "pulse", pulseNanos, activity, null);
+        recentMaxPulseNanos = Math.max(recentMaxPulseNanos, pulseNanos);
+    }
+
+    /**
+     * Runs on the watchdog thread: post a probe, or report a probe that has been waiting too long
+     */
+    private void probe() {
+        long posted = probePostedNanos;
+        if (posted != 0) {
+            if (stallStack == null && System.nanoTime() - posted >= STALL_NANOS) {
+                stallStack = fxThreadStack();
+                System.out.println("🐢 FX thread blocked for over " + STALL_NANOS / 1_000_000 + " ms in " + activity
+                        + " at " + stallStack);
+            }
+            return;
+        }
+        long postedAt = System.nanoTime();
+        probePostedNanos = postedAt;
+        Platform.runLater(() -> {
+            long now = System.nanoTime();
+            long blockedNanos = now - postedAt;
+            MetricsRegistry.histogram("gui.fx.blocked").record(blockedNanos);
+            if (blockedNanos >= BLOCKED_TRACE_NANOS) {
+                trace.add(now, "blocked", blockedNanos, activity, stallStack);
+            }
+            recentMaxBlockedNanos = Math.max(recentMaxBlockedNanos, blockedNanos);
+            stallStack = null;
+            probePostedNanos = 0;
+        });
+    }
+
+    private String fxThreadStack() {
+        StackTraceElement[] stack = fxThread.getStackTrace();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(STACK_DEPTH, stack.length); i++) {
+            if (i > 0) {
+                text.append(" < ");
+            }
+            text.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName())
+                .append(':').append(stack[i].getLineNumber());
+        }
+        return text.toString();
+    }
+
+    private void showOverlay(Stage stage) {
+        refreshOverlay();
+        overlay.show(stage);
+        positionOverlay(stage);
+    }
+
+    private void positionOverlay(Stage stage) {
+        overlay.setX(stage.getX() + stage.getWidth() - overlayLabel.getWidth() - 16);
+        overlay.setY(stage.getY() + 40);
+    }
+
+    private void refreshOverlay() {
+        long[] frames = Arrays.copyOf(recentFrames, recentFrameCount);
+        Arrays.sort(frames);
+        double fps = 0;
+        if (frames.length > 0) {
+            long total = 0;
+            for (long frame : frames) {
+                total += frame;
+            }
+            fps = frames.length * 1e9 / total;
+        }
+        overlayLabel.setText(String.format(
+                "%.1f fps  frame p50 %.1f  p95 %.1f  p99 %.1f ms%npulse max %.1f ms  blocked max %.1f ms%n%s",
+                fps, millis(percentile(frames, 50)), millis(percentile(frames, 95)), millis(percentile(frames, 99)),
+                millis(recentMaxPulseNanos), millis(recentMaxBlockedNanos), activity));
+        recentMaxPulseNanos = 0;
+        recentMaxBlockedNanos = 0;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Write the trace as CSV, keeping the previous file as "file.1"
+     */
+    private void writeTrace() {
+        Trace.Snapshot events = trace.snapshot();
+        // Trace times are System.nanoTime values; convert them to milliseconds since JVM start
+        long offsetNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L - System.nanoTime();
+        try {
+            if (TRACE_FILE.getParent() != null) {
+                Files.createDirectories(TRACE_FILE.getParent());
+            }
+            if (Files.exists(TRACE_FILE)) {
+                Files.move(TRACE_FILE, Paths.get(TRACE_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(TRACE_FILE, StandardCharsets.UTF_8)) {
+                writer.write("uptime_ms,event,duration_ms,activity,detail");
+                writer.newLine();
+                for (int i = 0; i < events.size; i++) {
+                    writer.write(String.format(Locale.ROOT, "%.3f,%s,%.3f,%s,%s", millis(events.times[i] + offsetNanos),
+                            events.types[i], millis(events.durations[i]), csv(events.activities[i]), csv(events.details[i])));
+                    writer.newLine();
+                }
+            }
+            System.out.println("🩺 Wrote " + events.size + " FX trace events to " + TRACE_FILE + "; frame "
+                    + MetricsRegistry.histogram("gui.fx.frame").summary() + ", pulse "
+                    + MetricsRegistry.histogram("gui.fx.pulse").summary() + ", blocked "
+                    + MetricsRegistry.histogram("gui.fx.blocked").summary());
+        } catch (IOException e) {
+            System.err.println("Could not write FX trace: " + e.getMessage());
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Fixed-size ring of trace events; the oldest events are overwritten once it is full
+     */
+    private static final class Trace {
+        private final long[] times;
+        private final String[] types;
+        private final long[] durations;
+        private final String[] activities;
+        private final String[] details;
+        private int next;
+        private int size;
+
+        Trace(int capacity) {
+            int length = Math.max(1, capacity);
+            times = new long[length];
+            types = new String[length];
+            durations = new long[length];
+            activities = new String[length];
+            details = new String[length];
+        }
+
+        synchronized void add(long time, String type, long duration, String activity, String detail) {
+            times[next] = time;
+            types[next] = type;
+            durations[next] = duration;
+            activities[next] = activity;
+            details[next] = detail;
+            next = (next + 1) % times.length;
+            size = Math.min(size + 1, times.length);
+        }
+
+        /**
+         * Copy the events, oldest first
+         */
+        synchronized Snapshot snapshot() {
+            Snapshot snapshot = new Snapshot(size);
+            int first = (next - size + times.length) % times.length;
+            for (int i = 0; i < size; i++) {
+                int index = (first + i) % times.length;
+                snapshot.times[i] = times[index];
+                snapshot.types[i] = types[index];
+                snapshot.durations[i] = durations[index];
+                snapshot.activities[i] = activities[index];
+                snapshot.details[i] = details[index];
+            }
+            return snapshot;
+        }
+
+        private static final class Snapshot {
+            private final int size;
+            private final long[] times;
+            private final String[] types;
+            private final long[] durations;
+            private final String[] activities;
+            private final String[] details;
+
+            Snapshot(int size) {
+                this.size = size;
+                times = new long[size];
+                types = new String[size];
+                durations = new long[size];
+                activities = new String[size];
+                details = new String[size];
+            }
+        }
+    }
+}
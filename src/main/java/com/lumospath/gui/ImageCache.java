@@ -0,0 +1,63 @@
+package com.lumospath.gui;
+
+import com.lumospath.util.MetricsRegistry;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of the bundled images that code sets on nodes and stages. Each image is decoded once,
+ * ideally by {@link #preload()} on a startup thread, so the FX thread only attaches it.
+ * Images that stylesheets reference by url() are not served from here: JavaFX reads and decodes
+ * those itself, on the FX thread, the first time a matching node is styled. They are small files
+ * on the classpath, so styling never waits on the network.
+ */
+public final class ImageCache {
+    public static final String RED_HEART = "/images/icons/red-heart-48.png";
+
+    private static final List<String> BUNDLED_IMAGES = List.of(RED_HEART);
+
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    /**
+     * Decode every image used from code on the calling thread. Call from a background thread at startup.
+     */
+    public static void preload() {
+        for (String path : BUNDLED_IMAGES) {
+            get(path);
+        }
+    }
+
+    /**
+     * Get a bundled image, decoding it now if it was not preloaded
+     * @param path Classpath location, e.g. {@link #RED_HEART}
+     * @return The shared image, or null if it is missing or cannot be decoded
+     */
+    public static Image get(String path) {
+        return images.computeIfAbsent(path, ImageCache::load);
+    }
+
+    private static Image load(String path) {
+        URL url = ImageCache.class.getResource(path);
+        if (url == null) {
+            System.err.println("Bundled image not found: " + path);
+            return null;
+        }
+        long start = System.nanoTime();
+        // Synchronous decode on the calling thread, never a background load that would finish on the FX thread
+        Image image = new Image(url.toExternalForm(), false);
+        if (image.isError()) {
+            System.err.println("Could not decode bundled image " + path + ": " + image.getException());
+            return null;
+        }
+        MetricsRegistry.recordSince("gui.imageDecode", start);
+        return image;
+    }
+}
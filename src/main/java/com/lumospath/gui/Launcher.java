@@ -0,0 +1,25 @@
+package com.lumospath.gui;
+
+import java.util.Arrays;
+
+/**
+ * Plain entry point for starting the GUI from a classpath, e.g. the AppCDS jar built by the "appcds"
+ * profile. The java launcher refuses to start an Application subclass as the main class unless
+ * JavaFX is on the module path; started from here, JavaFX loads from the classpath like any library.
+ *
+ * Usage: java -cp target/lumos-path-1.0.0.jar com.lumospath.gui.Launcher [--simple] [args]
+ * --simple starts SimpleLauncher instead of LumosPathGUI.
+ */
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && "--simple".equals(args[0])) {
+            SimpleLauncher.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            LumosPathGUI.main(args);
+        }
+    }
+}
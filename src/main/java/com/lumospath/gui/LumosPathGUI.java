@@ -1,29 +1,43 @@
 package com.lumospath.gui;
 
+import com.lumospath.ApplicationContext;
 import com.lumospath.chatbot.LumosBot;
 import com.lumospath.gui.controllers.MainController;
+import com.lumospath.service.AuthenticationService;
+import com.lumospath.service.ChatHistoryService;
 import com.lumospath.service.EmergencyHelplineService;
+import com.lumospath.service.MeditationService;
 import com.lumospath.service.MoodTrackingService;
 import com.lumospath.service.MotivationalQuoteService;
 import com.lumospath.util.DatabaseUtil;
+import com.lumospath.util.StartupTimer;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Main JavaFX Application class for LumosPath GUI
  */
 public class LumosPathGUI extends Application {
+    private static final int WARM_UP_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final AtomicInteger WARM_UP_THREAD_COUNTER = new AtomicInteger();
+    
+    private CompletableFuture<Void> warmUpFinished = CompletableFuture.completedFuture(null);
+    private CompletableFuture<Void> imagesPreloaded = CompletableFuture.completedFuture(null);
+    private CompletableFuture<Void> schemaReady = CompletableFuture.completedFuture(null);
     
     public static void main(String[] args) {
-        // Initialize database
-        try {
-            DatabaseUtil.initializeDatabase();
-        } catch (Exception e) {
-            System.err.println("Database initialization failed: " + e.getMessage());
-        }
+        StartupTimer.mark("main");
         
         // macOS-specific system properties
         System.setProperty("apple.laf.useScreenMenuBar", "true");
@@ -43,29 +57,33 @@ public class LumosPathGUI extends Application {
 
     @Override
     public void start(Stage primaryStage) {
+            StartupTimer.mark("fxStart");
             try {
-                // Set application title and icon
+                // Set application title
                 primaryStage.setTitle("LumosPath - Mental Health Support");
             
-            // Try to set an icon (will use a simple emoji for now)
-            try {
-                // You can replace this with an actual icon file later
-                primaryStage.getIcons().add(new Image("data:image/svg+xml;base64,PHN2ZyB3aWR0aD0iMzIiIGhlaWdodD0iMzIiIHZpZXdCb3g9IjAgMCAzMiAzMiIgZmlsbD0ibm9uZSIgeG1sbnM9Imh0dHA6Ly93d3cudzMub3JnLzIwMDAvc3ZnIj4KPGNpcmNsZSBjeD0iMTYiIGN5PSIxNiIgcj0iMTYiIGZpbGw9IiM0Qzc2QUYiLz4KPHN2ZyB4PSI4IiB5PSI4IiB3aWR0aD0iMTYiIGhlaWdodD0iMTYiIHZpZXdCb3g9IjAgMCAxNiAxNiIgZmlsbD0ibm9uZSI+CjxjaXJjbGUgY3g9IjgiIGN5PSI4IiByPSI4IiBmaWxsPSIjRkZGIi8+Cjwvc3ZnPgo8L3N2Zz4K"));
-            } catch (Exception e) {
-                // Icon loading failed, continue without icon
-            }
-
-            // Initialize services
-            MoodTrackingService moodService = new MoodTrackingService();
-            MotivationalQuoteService quoteService = new MotivationalQuoteService();
-            EmergencyHelplineService helplineService = new EmergencyHelplineService();
-            LumosBot chatbot = new LumosBot();
-
-            // Create main controller
-            MainController mainController = new MainController(moodService, quoteService, helplineService, chatbot);
+            // Build services and check the schema in the background while the first frame renders
+            MainController mainController = startWarmUp();
+            // A failed migration leaves the schema half-applied: report it and quit instead of running on it
+            schemaReady.whenCompleteAsync((ignored, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    mainController.showAlert("Database Error",
+                        "LumosPath could not prepare its database and will close.\n\n" + cause.getMessage(),
+                        Alert.AlertType.ERROR);
+                    Platform.exit();
+                }
+            }, Platform::runLater);
+            // The window icon is set once the image cache has decoded it off the FX thread
+            imagesPreloaded.thenRunAsync(() -> {
+                Image icon = ImageCache.get(ImageCache.RED_HEART);
+                if (icon != null) {
+                    primaryStage.getIcons().add(icon);
+                }
+            }, Platform::runLater);
             
             // Create and set scene
-            Scene scene = mainController.createMainScene();
+            Scene scene = StartupTimer.time("createScene", mainController::createMainScene);
             // Load the main app stylesheet so custom classes (buttons, containers) are applied
             try {
                 scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
@@ -95,6 +113,8 @@ public class LumosPathGUI extends Application {
             
             // Show the stage
             primaryStage.show();
+            recordFirstFrame(scene);
+            FxDiagnostics.install(primaryStage, scene);
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -102,9 +122,78 @@ public class LumosPathGUI extends Application {
         }
     }
 
+    /**
+     * Start building services on background threads. Services that use the database wait for the
+     * schema check; the rest start immediately. The controller waits for a service only when a view
+     * that needs it is first opened.
+     */
+    private MainController startWarmUp() {
+        ExecutorService warmUp = Executors.newFixedThreadPool(WARM_UP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "lumospath-warmup-" + WARM_UP_THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        CompletableFuture<Void> schema = CompletableFuture.runAsync(
+            () -> StartupTimer.run("schema", DatabaseUtil::initializeDatabase), warmUp);
+        schemaReady = schema;
+        imagesPreloaded = CompletableFuture.runAsync(() -> StartupTimer.run("images", ImageCache::preload), warmUp);
+        ApplicationContext context = ApplicationContext.get();
+        CompletableFuture<MotivationalQuoteService> quoteService = CompletableFuture.supplyAsync(
+            () -> StartupTimer.time("MotivationalQuoteService", context::getQuoteService), warmUp);
+        CompletableFuture<EmergencyHelplineService> helplineService = CompletableFuture.supplyAsync(
+            () -> StartupTimer.time("EmergencyHelplineService", context::getHelplineService), warmUp);
+        CompletableFuture<MeditationService> meditationService = CompletableFuture.supplyAsync(
+            () -> StartupTimer.time("MeditationService", context::getMeditationService), warmUp);
+        CompletableFuture<LumosBot> chatbot = quoteService.thenApplyAsync(
+            ignored -> StartupTimer.time("LumosBot", context::getChatbot), warmUp);
+        CompletableFuture<AuthenticationService> authService = schema.thenApplyAsync(
+            ignored -> StartupTimer.time("AuthenticationService", context::getAuthService), warmUp);
+        CompletableFuture<MoodTrackingService> moodService = schema.thenApplyAsync(
+            ignored -> StartupTimer.time("MoodTrackingService", context::getMoodService), warmUp);
+        CompletableFuture<ChatHistoryService> chatHistoryService = schema.thenApplyAsync(
+            ignored -> StartupTimer.time("ChatHistoryService", context::getChatHistoryService), warmUp);
+        
+        warmUpFinished = CompletableFuture.allOf(imagesPreloaded, quoteService, helplineService, meditationService, chatbot,
+                                                 authService, moodService, chatHistoryService)
+            .whenComplete((ignored, error) -> {
+                StartupTimer.mark("warmUpDone");
+                warmUp.shutdown();
+                if (error != null) {
+                    System.err.println("Service warm-up failed: " + error.getMessage());
+                }
+            });
+        
+        return new MainController(moodService, quoteService, helplineService, chatbot, authService,
+                                  chatHistoryService, meditationService);
+    }
+    
+    /**
+     * Mark the first rendered frame and log the startup summary once warm-up has also finished.
+     * With -Dlumospath.startup.exitAfterFirstFrame=true the application then exits, so startup
+     * benchmarks can time the real launcher.
+     */
+    private void recordFirstFrame(Scene scene) {
+        Runnable firstPulse = new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                StartupTimer.mark("firstFrame");
+                warmUpFinished.whenComplete((ignored, error) -> {
+                    StartupTimer.logSummary();
+                    if (Boolean.getBoolean("lumospath.startup.exitAfterFirstFrame")) {
+                        Platform.exit();
+                    }
+                });
+            }
+        };
+        scene.addPostLayoutPulseListener(firstPulse);
+    }
+
     @Override
     public void stop() {
         // Clean up resources when application is closing
         System.out.println("LumosPath application is closing...");
+        FxDiagnostics.shutdown();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.lumospath.gui;
 
+import com.lumospath.ApplicationContext;
 import com.lumospath.model.*;
 import com.lumospath.service.*;
 import com.lumospath.util.DatabaseUtil;
@@ -29,7 +30,8 @@ public class SimpleLauncher extends Application {
             DatabaseUtil.initializeDatabase();
             System.out.println("✅ Database initialized successfully!");
         } catch (Exception e) {
-            System.out.println("⚠️ Database warning: " + e.getMessage());
+            System.out.println("❌ Cannot start without a usable database: " + e.getMessage());
+            System.exit(1);
         }
         
         System.out.println("🌟 Starting LumosPath GUI...");
@@ -49,8 +51,8 @@ public class SimpleLauncher extends Application {
     public void start(Stage primaryStage) {
         try {
             // Initialize services
-            quoteService = new MotivationalQuoteService();
-            moodService = new MoodTrackingService();
+            quoteService = ApplicationContext.get().getQuoteService();
+            moodService = ApplicationContext.get().getMoodService();
             
             // Create main layout
             BorderPane root = new BorderPane();
@@ -1,14 +1,19 @@
 package com.lumospath.gui.controllers;
 
+import com.lumospath.ApplicationContext;
 import com.lumospath.service.MoodTrackingService;
 import com.lumospath.service.MotivationalQuoteService;
 import com.lumospath.service.EmergencyHelplineService;
 import com.lumospath.service.AuthenticationService;
 import com.lumospath.service.ChatHistoryService;
+import com.lumospath.service.MeditationService;
 import com.lumospath.chatbot.LumosBot;
 import com.lumospath.model.User;
+import com.lumospath.gui.FxDiagnostics;
 import com.lumospath.gui.views.*;
+import com.lumospath.util.MetricsRegistry;
 
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -16,22 +21,33 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.stage.Stage;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Main controller class for managing the JavaFX GUI
  */
 public class MainController {
-    private final MoodTrackingService moodService;
-    private final MotivationalQuoteService quoteService;
-    private final EmergencyHelplineService helplineService;
-    private final AuthenticationService authService;
-    private final ChatHistoryService chatHistoryService;
-    private final LumosBot chatbot;
+    // Services are built in the background during startup; views wait for them on first use
+    private final CompletableFuture<MoodTrackingService> moodService;
+    private final CompletableFuture<MotivationalQuoteService> quoteService;
+    private final CompletableFuture<EmergencyHelplineService> helplineService;
+    private final CompletableFuture<AuthenticationService> authService;
+    private final CompletableFuture<ChatHistoryService> chatHistoryService;
+    private final CompletableFuture<MeditationService> meditationService;
+    private final CompletableFuture<LumosBot> chatbot;
     
     private User currentUser;
     private BorderPane mainLayout;
     private Scene scene;
+    private HBox navbar;
+    
+    // Node trees of the views shown so far, reused on later navigation
+    private final Map<ManagedView, Parent> viewRoots = new IdentityHashMap<>();
+    private ManagedView activeView;
     
-    // Views
+    // Views, created on first navigation
     private WelcomeView welcomeView;
     private LoginView loginView;
     private SignUpView signUpView;
@@ -45,24 +61,27 @@ public class MainController {
     
     public MainController(MoodTrackingService moodService, MotivationalQuoteService quoteService,
                          EmergencyHelplineService helplineService, LumosBot chatbot) {
+        this(CompletableFuture.completedFuture(moodService), CompletableFuture.completedFuture(quoteService),
+             CompletableFuture.completedFuture(helplineService), CompletableFuture.completedFuture(chatbot),
+             CompletableFuture.completedFuture(ApplicationContext.get().getAuthService()),
+             CompletableFuture.completedFuture(ApplicationContext.get().getChatHistoryService()),
+             CompletableFuture.completedFuture(ApplicationContext.get().getMeditationService()));
+    }
+    
+    public MainController(CompletableFuture<MoodTrackingService> moodService,
+                          CompletableFuture<MotivationalQuoteService> quoteService,
+                          CompletableFuture<EmergencyHelplineService> helplineService,
+                          CompletableFuture<LumosBot> chatbot,
+                          CompletableFuture<AuthenticationService> authService,
+                          CompletableFuture<ChatHistoryService> chatHistoryService,
+                          CompletableFuture<MeditationService> meditationService) {
         this.moodService = moodService;
         this.quoteService = quoteService;
         this.helplineService = helplineService;
-        this.authService = new AuthenticationService();
-        this.chatHistoryService = new ChatHistoryService();
         this.chatbot = chatbot;
-        
-        // Initialize views
-        this.welcomeView = new WelcomeView(this);
-        this.loginView = new LoginView(this, authService);
-        this.signUpView = new SignUpView(this, authService);
-        this.dashboardView = new DashboardView(this);
-        this.moodView = new MoodTrackingView(this, moodService);
-        this.quotesView = new QuotesView(this, quoteService);
-        this.chatView = new ChatView(this, chatbot);
-        this.helplineView = new HelplineView(this, helplineService);
-        this.meditationView = new MeditationView(this);
-        this.progressView = new UserProgressView(this, moodService, chatHistoryService);
+        this.authService = authService;
+        this.chatHistoryService = chatHistoryService;
+        this.meditationService = meditationService;
     }
     
     public Scene createMainScene() {
@@ -83,59 +102,196 @@ public class MainController {
     }
     
     public void showWelcomeView() {
-        mainLayout.setCenter(welcomeView.createView());
-        mainLayout.setTop(null);
-        mainLayout.setLeft(null);
+        showPage("WelcomeView", welcomeView().createView());
     }
     
     public void showLoginView() {
-        mainLayout.setCenter(loginView.createView());
-        mainLayout.setTop(null);
-        mainLayout.setLeft(null);
+        showPage("LoginView", loginView().createView());
     }
     
     public void showSignUpView() {
-        mainLayout.setCenter(signUpView.createView());
-        mainLayout.setTop(null);
-        mainLayout.setLeft(null);
+        showPage("SignUpView", signUpView().createView());
     }
     
     public void showDashboardView() {
-        createNavigation();
-        mainLayout.setCenter(dashboardView.createView());
+        show(dashboardView());
     }
     
     public void showMoodTrackingView() {
-        createNavigation();
-        mainLayout.setCenter(moodView.createView());
+        show(moodView());
     }
     
     public void showQuotesView() {
-        createNavigation();
-        mainLayout.setCenter(quotesView.createView());
+        show(quotesView());
     }
     
     public void showChatView() {
-        createNavigation();
-        mainLayout.setCenter(chatView.createView());
+        show(chatView());
     }
     
     public void showHelplineView() {
-        createNavigation();
-        mainLayout.setCenter(helplineView.createView());
+        show(helplineView());
     }
     
     public void showMeditationView() {
-        createNavigation();
-        mainLayout.setCenter(meditationView.createView());
+        show(meditationView());
     }
     
     public void showProgressView() {
-        createNavigation();
-        mainLayout.setCenter(progressView.createView());
+        show(progressView());
+    }
+    
+    /**
+     * Show a page without navigation. Welcome, sign-in and sign-up pages run no queries and are
+     * rebuilt each time so their forms always start empty.
+     */
+    private void showPage(String name, Parent page) {
+        FxDiagnostics.setActivity(name);
+        hideActiveView();
+        mainLayout.setCenter(page);
+        mainLayout.setTop(null);
+        mainLayout.setLeft(null);
+    }
+    
+    /**
+     * Show a cached view, building its node tree on first use
+     */
+    private void show(ManagedView view) {
+        FxDiagnostics.setActivity(view.getClass().getSimpleName());
+        AuthenticationService auth = authService.getNow(null);
+        if (auth != null) {
+            auth.touchSession();
+        }
+        if (activeView != view) {
+            hideActiveView();
+        }
+        mainLayout.setTop(navigation());
+        
+        Parent root = viewRoots.get(view);
+        if (root == null) {
+            long start = System.nanoTime();
+            root = view.createView();
+            viewRoots.put(view, root);
+            MetricsRegistry.recordSince("gui.view.create", start);
+        }
+        activeView = view;
+        mainLayout.setCenter(root);
+        
+        long start = System.nanoTime();
+        view.onShow();
+        MetricsRegistry.recordSince("gui.view.show", start);
+    }
+    
+    private void hideActiveView() {
+        if (activeView != null) {
+            activeView.onHide();
+            activeView = null;
+        }
+    }
+    
+    /**
+     * Tell the cached views that stored data changed, so they re-bind it the next time they are shown
+     */
+    public void notifyDataChanged(ManagedView.DataChange change) {
+        for (ManagedView view : viewRoots.keySet()) {
+            view.onDataChanged(change);
+        }
+    }
+    
+    private WelcomeView welcomeView() {
+        if (welcomeView == null) {
+            welcomeView = new WelcomeView(this);
+        }
+        return welcomeView;
+    }
+    
+    private LoginView loginView() {
+        if (loginView == null) {
+            loginView = new LoginView(this, await(authService));
+        }
+        return loginView;
     }
     
-    private void createNavigation() {
+    private SignUpView signUpView() {
+        if (signUpView == null) {
+            signUpView = new SignUpView(this, await(authService));
+        }
+        return signUpView;
+    }
+    
+    private DashboardView dashboardView() {
+        if (dashboardView == null) {
+            dashboardView = new DashboardView(this);
+        }
+        return dashboardView;
+    }
+    
+    private MoodTrackingView moodView() {
+        if (moodView == null) {
+            moodView = new MoodTrackingView(this, getMoodService());
+        }
+        return moodView;
+    }
+    
+    private QuotesView quotesView() {
+        if (quotesView == null) {
+            quotesView = new QuotesView(this, await(quoteService));
+        }
+        return quotesView;
+    }
+    
+    private ChatView chatView() {
+        if (chatView == null) {
+            chatView = new ChatView(this, await(chatbot));
+        }
+        return chatView;
+    }
+    
+    private HelplineView helplineView() {
+        if (helplineView == null) {
+            helplineView = new HelplineView(this, await(helplineService));
+        }
+        return helplineView;
+    }
+    
+    private MeditationView meditationView() {
+        if (meditationView == null) {
+            meditationView = new MeditationView(this, await(meditationService));
+        }
+        return meditationView;
+    }
+    
+    private UserProgressView progressView() {
+        if (progressView == null) {
+            progressView = new UserProgressView(this, getMoodService(), getChatHistoryService());
+        }
+        return progressView;
+    }
+    
+    /**
+     * Get a service, blocking if its background warm-up has not finished yet.
+     * Time spent waiting on the FX thread is recorded under "startup.serviceWait".
+     */
+    private static <T> T await(CompletableFuture<T> service) {
+        if (service.isDone()) {
+            return service.join();
+        }
+        long start = System.nanoTime();
+        try {
+            return service.join();
+        } finally {
+            MetricsRegistry.recordSince("startup.serviceWait", start);
+        }
+    }
+    
+    private HBox navigation() {
+        if (navbar == null) {
+            navbar = createNavigation();
+        }
+        return navbar;
+    }
+    
+    private HBox createNavigation() {
         // Create top navigation bar
         HBox navbar = new HBox(20);
         navbar.setPadding(new Insets(15, 20, 15, 20));
@@ -159,8 +315,8 @@ public class MainController {
             logoutBtn.getStyleClass().add("secondary-button");
             logoutBtn.setStyle("-fx-font-size: 11px; -fx-padding: 6px 12px;");
             logoutBtn.setOnAction(e -> {
-                authService.logout();
-                currentUser = null;
+                await(authService).logout();
+                setUser(null);
                 showWelcomeView();
             });
             
@@ -209,12 +365,18 @@ public class MainController {
         navButtons.getChildren().addAll(dashboardBtn, moodBtn, chatBtn, progressBtn, meditationBtn, helplineBtn);
         
         navbar.getChildren().addAll(title, spacer, navButtons, userInfo);
-        mainLayout.setTop(navbar);
+        return navbar;
     }
     
     // User management
     public void setUser(User user) {
+        if (user == currentUser) {
+            return;
+        }
         this.currentUser = user;
+        // The navigation bar shows the user's name; views holding per-user data re-bind on next show
+        navbar = null;
+        notifyDataChanged(ManagedView.DataChange.USER);
     }
     
     public User getCurrentUser() {
@@ -222,11 +384,11 @@ public class MainController {
     }
     
     public MoodTrackingService getMoodService() {
-        return moodService;
+        return await(moodService);
     }
     
     public ChatHistoryService getChatHistoryService() {
-        return chatHistoryService;
+        return await(chatHistoryService);
     }
     
     // Show alert dialogs
@@ -0,0 +1,159 @@
+package com.lumospath.gui.views;
+
+import com.lumospath.model.ChatLog;
+import com.lumospath.service.ChatHistoryService;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Paged transcript model behind the chat ListView.
+ * Messages of the current session are appended at the end; a user's saved conversations are
+ * loaded a page at a time, newest first, and inserted at the top when the user scrolls up.
+ * Paging uses the (created_at, log_id) of the oldest loaded log, so pages stay stable while
+ * new messages are saved.
+ */
+public class ChatTranscript {
+    private static final int PAGE_SIZE = 25;
+
+    private final ChatHistoryService chatService;
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+
+    private Integer userId;
+    private ChatLog oldestLoaded;
+    private boolean hasOlder;
+    private boolean loading;
+    private int sessionMessageCount;
+
+    public ChatTranscript(ChatHistoryService chatService) {
+        this.chatService = chatService;
+    }
+
+    /**
+     * Start an empty transcript. Saved history of the given user is older than this moment.
+     * @param userId The user whose history can be paged in (null or 0 for anonymous users)
+     */
+    public void reset(Integer userId) {
+        this.userId = userId;
+        this.hasOlder = userId != null && userId > 0;
+        this.loading = false;
+        this.sessionMessageCount = 0;
+        // Log ID 0 excludes every log saved in the current second, so nothing appears twice
+        this.oldestLoaded = new ChatLog();
+        oldestLoaded.setCreatedAt(LocalDateTime.now());
+        oldestLoaded.setLogId(0);
+        messages.clear();
+    }
+
+    public ObservableList<Message> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Number of user and bot messages added during this session
+     */
+    public int getSessionMessageCount() {
+        return sessionMessageCount;
+    }
+
+    public boolean hasOlder() {
+        return hasOlder;
+    }
+
+    public void append(Message message) {
+        if (message.getKind() != Message.Kind.SYSTEM) {
+            sessionMessageCount++;
+        }
+        messages.add(message);
+    }
+
+    /**
+     * Load the next page of older history on a background thread and insert it at the top.
+     * Does nothing while a page is loading or when there is no older history.
+     * @param onLoaded Called on the FX thread with the number of messages inserted
+     */
+    public void loadOlder(IntConsumer onLoaded) {
+        if (loading || !hasOlder) {
+            return;
+        }
+        loading = true;
+        Integer pageUserId = userId;
+        ChatLog before = oldestLoaded;
+
+        Task<List<ChatLog>> task = new Task<>() {
+            @Override
+            protected List<ChatLog> call() throws SQLException {
+                return chatService.getChatHistoryPage(pageUserId, before, PAGE_SIZE);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (before != oldestLoaded) {
+                return; // transcript was reset while the page loaded
+            }
+            loading = false;
+            List<ChatLog> page = task.getValue();
+            if (page.size() < PAGE_SIZE) {
+                hasOlder = false;
+            }
+            if (page.isEmpty()) {
+                onLoaded.accept(0);
+                return;
+            }
+            oldestLoaded = page.get(page.size() - 1);
+            if (oldestLoaded.getCreatedAt() == null) {
+                hasOlder = false;
+            }
+
+            List<Message> older = new ArrayList<>(page.size() * 2);
+            for (int i = page.size() - 1; i >= 0; i--) {
+                ChatLog log = page.get(i);
+                older.add(new Message(Message.Kind.USER, log.getUserMessage(), log.getCreatedAt()));
+                older.add(new Message(Message.Kind.BOT, log.getBotResponse(), log.getCreatedAt()));
+            }
+            messages.addAll(0, older);
+            onLoaded.accept(older.size());
+        });
+        task.setOnFailed(e -> {
+            if (before == oldestLoaded) {
+                loading = false;
+            }
+            System.err.println("Error loading older chat history: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "lumospath-chat-history");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * A single chat bubble
+     */
+    public static final class Message {
+        public enum Kind {
+            USER,
+            BOT,
+            SYSTEM
+        }
+
+        private final Kind kind;
+        private final String text;
+        private final LocalDateTime timestamp;
+
+        public Message(Kind kind, String text, LocalDateTime timestamp) {
+            this.kind = kind;
+            this.text = text;
+            this.timestamp = timestamp;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getText() { return text; }
+        public LocalDateTime getTimestamp() { return timestamp; }
+    }
+}
@@ -1,34 +1,41 @@
 package com.lumospath.gui.views;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
 
+import com.lumospath.chatbot.BotReply;
 import com.lumospath.chatbot.LumosBot;
 import com.lumospath.gui.controllers.MainController;
+import com.lumospath.gui.views.ChatTranscript.Message;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
-public class ChatView {
+public class ChatView implements ManagedView {
     private final MainController controller;
     private final LumosBot chatbot;
-    private final List<Label> chatMessages;
-    private ScrollPane chatScrollPane;
-    private VBox chatMessagesContainer;
+    private ChatTranscript transcript;
+    private ListView<Message> transcriptList;
+    private boolean userChanged;
     
     public ChatView(MainController controller, LumosBot chatbot) {
         this.controller = controller;
         this.chatbot = chatbot;
-        this.chatMessages = new ArrayList<>();
     }
     
+    @Override
     public ScrollPane createView() {
         VBox container = new VBox(24);
         container.getStyleClass().add("main-container");
@@ -47,26 +54,18 @@ public class ChatView {
         
         header.getChildren().addAll(title, subtitle);
         
-        // Enhanced chat messages area with modern styling
-        chatMessagesContainer = new VBox(16);
-        chatMessagesContainer.setPadding(new Insets(24));
-        chatMessagesContainer.getStyleClass().add("chat-messages");
+        // Virtualized transcript: only the visible bubbles exist as nodes
+        transcript = new ChatTranscript(controller.getChatHistoryService());
+        transcriptList = new ListView<>(transcript.getMessages());
+        transcriptList.setCellFactory(list -> new MessageCell());
+        transcriptList.setPrefHeight(450);
+        transcriptList.setFocusTraversable(false);
+        transcriptList.getStyleClass().add("chat-messages");
+        transcriptList.skinProperty().addListener((obs, oldSkin, newSkin) -> watchScrollTop());
         
         // Add welcome message with enhanced styling
-        addBotMessage("🌟 Welcome, beautiful soul! I'm LumosBot, your AI companion for emotional support and spiritual guidance.\n\n" +
-                     "I'm here to:\n" +
-                     "💙 Listen with empathy and understanding\n" +
-                     "📚 Share wisdom from various inspirational sources\n" +
-                     "🤗 Provide emotional support and encouragement\n" +
-                     "✨ Help you navigate life's challenges\n\n" +
-                     "What's on your heart today? I'm here to listen and support you. 💕");
-        
-        chatScrollPane = new ScrollPane(chatMessagesContainer);
-        chatScrollPane.setFitToWidth(true);
-        chatScrollPane.setPrefHeight(450);
-        chatScrollPane.getStyleClass().add("scroll-pane");
-        chatScrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        chatScrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        startTranscript();
+        addWelcomeMessage();
         
         // Enhanced input area with modern design
         VBox inputContainer = new VBox(16);
@@ -136,7 +135,7 @@ public class ChatView {
         buttonContainer.getChildren().addAll(sendBtn, quoteBtn, wisdomBtn, clearBtn);
         inputContainer.getChildren().addAll(inputLabel, messageInput, buttonContainer);
         
-        container.getChildren().addAll(header, chatScrollPane, inputContainer);
+        container.getChildren().addAll(header, transcriptList, inputContainer);
         
         ScrollPane scrollPane = new ScrollPane(container);
         scrollPane.setFitToWidth(true);
@@ -144,6 +143,72 @@ public class ChatView {
         return scrollPane;
     }
     
+    @Override
+    public void onShow() {
+        // The transcript survives navigation; a different user starts a new conversation
+        if (userChanged) {
+            userChanged = false;
+            chatbot.resetConversation();
+            startTranscript();
+            addWelcomeMessage();
+        }
+    }
+    
+    @Override
+    public void onDataChanged(DataChange change) {
+        if (change == DataChange.USER) {
+            userChanged = true;
+        }
+    }
+    
+    /**
+     * Start a new session transcript; the current user's saved history pages in on scroll-up
+     */
+    private void startTranscript() {
+        transcript.reset(currentUserId());
+    }
+    
+    /**
+     * Load the next page of older history when the transcript is scrolled to the top
+     */
+    private void watchScrollTop() {
+        for (Node node : transcriptList.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() <= scrollBar.getMin() && oldValue.doubleValue() > newValue.doubleValue()) {
+                        loadOlderHistory();
+                    }
+                });
+                // A short transcript has no scroll bar to drag, so wheel/touchpad scrolling at the top counts too
+                transcriptList.addEventFilter(ScrollEvent.SCROLL, e -> {
+                    if (e.getDeltaY() > 0 && (!scrollBar.isVisible() || scrollBar.getValue() <= scrollBar.getMin())) {
+                        loadOlderHistory();
+                    }
+                });
+            }
+        }
+    }
+    
+    private void loadOlderHistory() {
+        transcript.loadOlder(inserted -> {
+            if (inserted > 0) {
+                // Keep the message that was at the top in place
+                transcriptList.scrollTo(inserted);
+            }
+        });
+    }
+    
+    private void addWelcomeMessage() {
+        addBotMessage("🌟 Welcome, beautiful soul! I'm LumosBot, your AI companion for emotional support and spiritual guidance.\n\n" +
+                     "I'm here to:\n" +
+                     "💙 Listen with empathy and understanding\n" +
+                     "📚 Share wisdom from various inspirational sources\n" +
+                     "🤗 Provide emotional support and encouragement\n" +
+                     "✨ Help you navigate life's challenges\n\n" +
+                     "What's on your heart today? I'm here to listen and support you. 💕");
+    }
+    
     private void sendMessage(String userMessage) {
         // Add user message to chat
         addUserMessage(userMessage);
@@ -151,14 +216,14 @@ public class ChatView {
         // Get AI response using enhanced chatbot
         Platform.runLater(() -> {
             try {
-                String botResponse = chatbot.getResponse(userMessage);
-                addBotMessage(botResponse);
+                BotReply reply = chatbot.reply(userMessage, currentUserId());
+                addBotMessage(reply.getText());
                 
-                // Save chat interaction to database
-                saveChatInteraction(userMessage, botResponse);
+                // Save chat interaction with the bot's sentiment and emotion analysis
+                saveChatInteraction(userMessage, reply.getText(), reply);
                 
                 // Show conversation summary after every 5 messages
-                if (chatMessages.size() % 10 == 0 && chatMessages.size() > 0) {
+                if (transcript.getSessionMessageCount() % 10 == 0 && transcript.getSessionMessageCount() > 0) {
                     String summary = chatbot.getConversationSummary();
                     addSystemMessage("💭 Conversation insight: " + summary);
                 }
@@ -168,26 +233,30 @@ public class ChatView {
                                      "I'm here to support you. Please tell me how you're feeling or what you'd like to talk about.";
                 addBotMessage(errorResponse);
                 
-                // Save error interaction too
-                saveChatInteraction(userMessage, errorResponse);
+                // Save error interaction too; it has no analysis
+                saveChatInteraction(userMessage, errorResponse, null);
             }
         });
     }
     
-    private void saveChatInteraction(String userMessage, String botResponse) {
+    /**
+     * @param reply The chatbot's reply with its analysis, or null when no reply was generated
+     */
+    private void saveChatInteraction(String userMessage, String botResponse, BotReply reply) {
         try {
-            Integer userId = controller.getCurrentUser() != null ? controller.getCurrentUser().getUserId() : null;
+            Integer userId = currentUserId();
             
             // Don't save for user ID 0 or null (anonymous users)
             if (userId == null || userId <= 0) {
                 return; // Skip saving for anonymous users
             }
             
-            // For now, we'll save with basic sentiment analysis from the chatbot
-            Double sentimentScore = 0.0; // You could enhance this with actual sentiment analysis
-            String detectedEmotion = "neutral"; // You could enhance this with actual emotion detection
-            
-            controller.getChatHistoryService().saveChatLog(userId, userMessage, botResponse, sentimentScore, detectedEmotion);
+            if (reply != null) {
+                controller.getChatHistoryService().saveChatLog(userId, userMessage, reply);
+            } else {
+                controller.getChatHistoryService().saveChatLog(userId, userMessage, botResponse, null, null);
+            }
+            controller.notifyDataChanged(DataChange.CHAT);
             
         } catch (Exception e) {
             System.err.println("Error saving chat interaction: " + e.getMessage());
@@ -195,61 +264,36 @@ public class ChatView {
         }
     }
     
+    private Integer currentUserId() {
+        return controller.getCurrentUser() != null ? controller.getCurrentUser().getUserId() : null;
+    }
+    
     private void addUserMessage(String message) {
-        Label userMsg = new Label("You: " + message);
-        userMsg.getStyleClass().add("user-message");
-        userMsg.setWrapText(true);
-        userMsg.setMaxWidth(400);
-        
-        HBox userMsgContainer = new HBox();
-        userMsgContainer.setAlignment(Pos.CENTER_RIGHT);
-        userMsgContainer.getChildren().add(userMsg);
-        
-        chatMessagesContainer.getChildren().add(userMsgContainer);
-        chatMessages.add(userMsg);
-        scrollToBottom();
+        addMessage(new Message(Message.Kind.USER, message, LocalDateTime.now()));
     }
     
     private void addBotMessage(String message) {
-        Label botMsg = new Label("🤖 LumosBot: " + message);
-        botMsg.getStyleClass().add("bot-message");
-        botMsg.setWrapText(true);
-        botMsg.setMaxWidth(400);
-        
-        HBox botMsgContainer = new HBox();
-        botMsgContainer.setAlignment(Pos.CENTER_LEFT);
-        botMsgContainer.getChildren().add(botMsg);
-        
-        chatMessagesContainer.getChildren().add(botMsgContainer);
-        chatMessages.add(botMsg);
-        scrollToBottom();
+        addMessage(new Message(Message.Kind.BOT, message, LocalDateTime.now()));
     }
     
     private void addSystemMessage(String message) {
-        Label sysMsg = new Label("📊 " + message);
-        sysMsg.getStyleClass().add("system-message");
-        sysMsg.setWrapText(true);
-        sysMsg.setMaxWidth(400);
-        sysMsg.setStyle("-fx-background-color: #fef3c7; -fx-padding: 12px 16px; -fx-background-radius: 12px; -fx-text-fill: #92400e; -fx-font-style: italic; -fx-font-size: 13px;");
-        
-        HBox sysMsgContainer = new HBox();
-        sysMsgContainer.setAlignment(Pos.CENTER);
-        sysMsgContainer.getChildren().add(sysMsg);
-        
-        chatMessagesContainer.getChildren().add(sysMsgContainer);
+        addMessage(new Message(Message.Kind.SYSTEM, message, LocalDateTime.now()));
+    }
+    
+    private void addMessage(Message message) {
+        transcript.append(message);
         scrollToBottom();
     }
     
     private void scrollToBottom() {
         Platform.runLater(() -> {
-            chatScrollPane.setVvalue(1.0);
+            transcriptList.scrollTo(transcript.getMessages().size() - 1);
         });
     }
     
     private void clearChat() {
-        chatMessagesContainer.getChildren().clear();
-        chatMessages.clear();
         chatbot.resetConversation();
+        startTranscript();
         
         // Add fresh welcome message with enhanced styling
         addBotMessage("🌟 Fresh start! I love new beginnings - they're like clean slates full of possibilities!\n\n" +
@@ -260,4 +304,53 @@ public class ChatView {
                      "✨ Guidance through life's challenges\n\n" +
                      "What's happening in your world right now? I'm here with my full attention and an open heart. 💕");
     }
+    
+    /**
+     * Reusable chat bubble; the ListView keeps only as many cells as fit on screen
+     */
+    private static final class MessageCell extends ListCell<Message> {
+        private static final String SYSTEM_MESSAGE_STYLE = "-fx-background-color: #fef3c7; -fx-padding: 12px 16px; -fx-background-radius: 12px; -fx-text-fill: #92400e; -fx-font-style: italic; -fx-font-size: 13px;";
+        
+        private final Label bubble = new Label();
+        private final HBox row = new HBox(bubble);
+        
+        MessageCell() {
+            bubble.setWrapText(true);
+            bubble.setMaxWidth(400);
+            // Size cells to the list, not to their text, so there is never a horizontal scroll bar
+            setPrefWidth(0);
+        }
+        
+        @Override
+        protected void updateItem(Message message, boolean empty) {
+            super.updateItem(message, empty);
+            setText(null);
+            if (empty || message == null) {
+                setGraphic(null);
+                return;
+            }
+            
+            bubble.getStyleClass().removeAll("user-message", "bot-message", "system-message");
+            bubble.setStyle(null);
+            switch (message.getKind()) {
+                case USER:
+                    bubble.setText("You: " + message.getText());
+                    bubble.getStyleClass().add("user-message");
+                    row.setAlignment(Pos.CENTER_RIGHT);
+                    break;
+                case BOT:
+                    bubble.setText("🤖 LumosBot: " + message.getText());
+                    bubble.getStyleClass().add("bot-message");
+                    row.setAlignment(Pos.CENTER_LEFT);
+                    break;
+                default:
+                    bubble.setText("📊 " + message.getText());
+                    bubble.getStyleClass().add("system-message");
+                    bubble.setStyle(SYSTEM_MESSAGE_STYLE);
+                    row.setAlignment(Pos.CENTER);
+                    break;
+            }
+            setGraphic(row);
+        }
+    }
 }
@@ -12,14 +12,18 @@ import javafx.scene.layout.VBox;
 /**
  * Main dashboard view with feature navigation
  */
-public class DashboardView {
+public class DashboardView implements ManagedView {
     private final MainController controller;
+    private Label welcomeLabel;
+    private boolean dirty;
     
     public DashboardView(MainController controller) {
         this.controller = controller;
     }
     
+    @Override
     public ScrollPane createView() {
+        dirty = false;
         VBox container = new VBox(30);
         container.getStyleClass().add("main-container");
         container.setPadding(new Insets(30));
@@ -41,14 +45,26 @@ public class DashboardView {
         return scrollPane;
     }
     
+    @Override
+    public void onShow() {
+        if (dirty) {
+            dirty = false;
+            welcomeLabel.setText(welcomeText());
+        }
+    }
+    
+    @Override
+    public void onDataChanged(DataChange change) {
+        if (change == DataChange.USER) {
+            dirty = true;
+        }
+    }
+    
     private VBox createWelcomeHeader() {
         VBox header = new VBox(10);
         header.setAlignment(Pos.CENTER_LEFT);
         
-        String username = controller.getCurrentUser() != null ? 
-                         controller.getCurrentUser().getUsername() : "User";
-        
-        Label welcomeLabel = new Label("Welcome back, " + username + "! 🌟");
+        welcomeLabel = new Label(welcomeText());
         welcomeLabel.getStyleClass().add("header-title");
         
         Label subtitleLabel = new Label("How can LumosPath support you today?");
@@ -59,6 +75,12 @@ public class DashboardView {
         return header;
     }
     
+    private String welcomeText() {
+        String username = controller.getCurrentUser() != null ? 
+                         controller.getCurrentUser().getUsername() : "User";
+        return "Welcome back, " + username + "! 🌟";
+    }
+    
     private GridPane createFeaturesGrid() {
         GridPane grid = new GridPane();
         grid.setHgap(25);
@@ -8,7 +8,7 @@ import javafx.scene.layout.*;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 
-public class HelplineView {
+public class HelplineView implements ManagedView {
     private final MainController controller;
     private final EmergencyHelplineService helplineService;
     
@@ -17,6 +17,7 @@ public class HelplineView {
         this.helplineService = helplineService;
     }
     
+    @Override
     public ScrollPane createView() {
         VBox container = new VBox(30);
         container.getStyleClass().add("main-container");
@@ -0,0 +1,43 @@
+package com.lumospath.gui.views;
+
+import javafx.scene.Parent;
+
+/**
+ * A view whose node tree is built once by MainController and reused on later navigation.
+ * Views that show stored data keep a dirty flag, set from {@link #onDataChanged(DataChange)},
+ * and re-bind only that data the next time they are shown.
+ */
+public interface ManagedView {
+
+    /**
+     * Kinds of data change a view may depend on
+     */
+    enum DataChange {
+        USER,
+        MOOD,
+        CHAT
+    }
+
+    /**
+     * Build the view's node tree. Called once per view instance.
+     */
+    Parent createView();
+
+    /**
+     * Called each time the view becomes the visible page
+     */
+    default void onShow() {
+    }
+
+    /**
+     * Called when another page replaces this view
+     */
+    default void onHide() {
+    }
+
+    /**
+     * Called for every data change, visible or not; views mark themselves dirty here
+     */
+    default void onDataChanged(DataChange change) {
+    }
+}
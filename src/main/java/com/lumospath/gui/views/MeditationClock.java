@@ -0,0 +1,182 @@
+package com.lumospath.gui.views;
+
+import com.lumospath.model.MeditationSession.MeditationStep;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Session clock for the meditation player, driven by a single AnimationTimer.
+ * Elapsed time is read from System.nanoTime rather than counted from ticks, so it never drifts;
+ * pause, resume and seek only move the time origin and never rebuild animations. Step end times
+ * are precomputed as prefix sums of the step durations, so the current step is a binary search.
+ */
+public class MeditationClock {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Receives clock updates on the FX thread
+     */
+    public interface Listener {
+        /** Every frame while the clock runs and the view is visible, and once after each seek */
+        void onFrame(long elapsedNanos);
+
+        /** When the whole number of elapsed seconds changes */
+        void onSecond(int elapsedSeconds);
+
+        /** When the elapsed time moves into another step */
+        void onStepChanged(int stepIndex);
+
+        /** Once, when the elapsed time reaches the session length */
+        void onFinished();
+    }
+
+    private final long[] stepEnds;
+    private final long totalNanos;
+    private final Listener listener;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            tick();
+        }
+    };
+
+    private long accumulatedNanos;
+    private long runStartNanos;
+    private boolean running;
+    private boolean attached = true;
+    private boolean finished;
+    private int stepIndex = -1;
+    private int lastSecond = -1;
+
+    /**
+     * @param steps Session steps, in order; may be empty
+     * @param totalSeconds Session length; the clock finishes when it is reached
+     */
+    public MeditationClock(List<MeditationStep> steps, int totalSeconds, Listener listener) {
+        this.stepEnds = stepBoundaries(steps);
+        this.totalNanos = totalSeconds * NANOS_PER_SECOND;
+        this.listener = listener;
+    }
+
+    /**
+     * End time of each step in nanoseconds from the session start (prefix sums of the durations)
+     */
+    static long[] stepBoundaries(List<MeditationStep> steps) {
+        if (steps == null) {
+            return new long[0];
+        }
+        long[] ends = new long[steps.size()];
+        long end = 0;
+        for (int i = 0; i < ends.length; i++) {
+            end += Math.max(0, steps.get(i).getDurationSeconds()) * NANOS_PER_SECOND;
+            ends[i] = end;
+        }
+        return ends;
+    }
+
+    /**
+     * Index of the step that contains the given time, or -1 when there are no steps.
+     * Time at a boundary belongs to the next step; time past the last step stays in the last one.
+     */
+    static int stepAt(long[] stepEnds, long elapsedNanos) {
+        if (stepEnds.length == 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(stepEnds, elapsedNanos);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(index, stepEnds.length - 1);
+    }
+
+    public void start() {
+        if (running || finished) {
+            return;
+        }
+        running = true;
+        runStartNanos = System.nanoTime();
+        if (attached) {
+            timer.start();
+        }
+        tick();
+    }
+
+    public void pause() {
+        if (!running) {
+            return;
+        }
+        accumulatedNanos = elapsedNanos();
+        running = false;
+        timer.stop();
+    }
+
+    /**
+     * Stop for good; the clock cannot be started again
+     */
+    public void stop() {
+        pause();
+        finished = true;
+    }
+
+    /**
+     * Jump to a position in the session, keeping the running/paused state
+     */
+    public void seek(long elapsedNanos) {
+        accumulatedNanos = Math.max(0, Math.min(elapsedNanos, totalNanos));
+        runStartNanos = System.nanoTime();
+        finished = false;
+        tick();
+    }
+
+    /**
+     * Stop frame callbacks while the player is not visible. Time keeps running, so nothing is
+     * lost; the next attach catches up in a single frame.
+     */
+    public void detach() {
+        attached = false;
+        timer.stop();
+    }
+
+    public void attach() {
+        attached = true;
+        if (running) {
+            timer.start();
+            tick();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long elapsedNanos() {
+        long elapsed = running ? accumulatedNanos + (System.nanoTime() - runStartNanos) : accumulatedNanos;
+        return Math.min(elapsed, totalNanos);
+    }
+
+    private void tick() {
+        long elapsed = elapsedNanos();
+
+        int step = stepAt(stepEnds, elapsed);
+        if (step != stepIndex) {
+            stepIndex = step;
+            listener.onStepChanged(step);
+        }
+        int second = (int) (elapsed / NANOS_PER_SECOND);
+        if (second != lastSecond) {
+            lastSecond = second;
+            listener.onSecond(second);
+        }
+        listener.onFrame(elapsed);
+
+        if (elapsed >= totalNanos && running) {
+            stop();
+            listener.onFinished();
+        }
+    }
+}
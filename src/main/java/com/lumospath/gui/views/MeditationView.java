@@ -5,9 +5,7 @@ import com.lumospath.service.MeditationService;
 import com.lumospath.model.MeditationSession;
 import com.lumospath.model.MeditationType;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -17,14 +15,16 @@ import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
-import javafx.util.Duration;
 
 import java.util.List;
 
 /**
  * Beautiful meditation interface with guided sessions, breathing exercises, and timers
  */
-public class MeditationView {
+public class MeditationView implements ManagedView {
+    private static final long BREATH_CYCLE_NANOS = 14_000_000_000L;
+    private static final double PROGRESS_RESOLUTION = 0.001;
+    
     private final MainController controller;
     private final MeditationService meditationService;
     
@@ -45,18 +45,18 @@ public class MeditationView {
     
     // Session State
     private MeditationSession currentSession;
-    private Timeline meditationTimer;
-    private Timeline breathingAnimation;
-    private int currentStepIndex = 0;
+    // One clock drives the timer label, progress bar, step instructions and breathing circle
+    private MeditationClock clock;
     private int totalElapsedSeconds = 0;
     private boolean isPlaying = false;
     private boolean isPaused = false;
     
-    public MeditationView(MainController controller) {
+    public MeditationView(MainController controller, MeditationService meditationService) {
         this.controller = controller;
-        this.meditationService = new MeditationService();
+        this.meditationService = meditationService;
     }
     
+    @Override
     public ScrollPane createView() {
         mainContainer = new VBox(20);
         mainContainer.getStyleClass().add("main-container");
@@ -79,6 +79,21 @@ public class MeditationView {
         return scrollPane;
     }
     
+    @Override
+    public void onShow() {
+        if (clock != null) {
+            clock.attach();
+        }
+    }
+    
+    @Override
+    public void onHide() {
+        // A running session keeps its time but draws nothing while another page is shown
+        if (clock != null) {
+            clock.detach();
+        }
+    }
+    
     private void createHeader() {
         Label title = new Label("🧘‍♀️ Meditation & Mindfulness");
         title.getStyleClass().add("header-title");
@@ -246,6 +261,11 @@ public class MeditationView {
         progressBar = new ProgressBar(0);
         progressBar.setPrefWidth(400);
         progressBar.setStyle("-fx-accent: #4caf50;");
+        progressBar.setOnMouseClicked(e -> {
+            if (clock != null && (isPlaying || isPaused)) {
+                clock.seek((long) (clock.getTotalNanos() * Math.max(0, Math.min(1, e.getX() / progressBar.getWidth()))));
+            }
+        });
         
         // Control Buttons
         HBox controlsBox = new HBox(15);
@@ -288,8 +308,11 @@ public class MeditationView {
     }
     
     private void startMeditationSession(MeditationSession session) {
+        if (clock != null) {
+            clock.stop();
+        }
         this.currentSession = session;
-        this.currentStepIndex = 0;
+        this.clock = new MeditationClock(session.getSteps(), session.getDurationMinutes() * 60, new SessionClockListener());
         this.totalElapsedSeconds = 0;
         this.isPlaying = false;
         this.isPaused = false;
@@ -374,45 +397,24 @@ public class MeditationView {
     
     private void startMeditationTimer() {
         if (currentSession == null || currentSession.getSteps() == null || currentSession.getSteps().isEmpty()) return;
-        
-        meditationTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            totalElapsedSeconds++;
-            updateTimerDisplay();
-            updateProgress();
-        }));
-        meditationTimer.setCycleCount(Animation.INDEFINITE);
-        meditationTimer.play();
-        
-        // Start breathing animation if needed
-        if (shouldShowBreathingAnimation()) {
-            startBreathingAnimation();
-        }
+        clock.start();
     }
     
     private void pauseMeditationTimer() {
-        if (meditationTimer != null) {
-            meditationTimer.pause();
-        }
-        if (breathingAnimation != null) {
-            breathingAnimation.pause();
+        if (clock != null) {
+            clock.pause();
         }
     }
     
     private void resumeMeditationTimer() {
-        if (meditationTimer != null) {
-            meditationTimer.play();
-        }
-        if (breathingAnimation != null) {
-            breathingAnimation.play();
+        if (clock != null) {
+            clock.start();
         }
     }
     
     private void stopMeditation() {
-        if (meditationTimer != null) {
-            meditationTimer.stop();
-        }
-        if (breathingAnimation != null) {
-            breathingAnimation.stop();
+        if (clock != null) {
+            clock.stop();
         }
         
         // Show completion message
@@ -442,16 +444,13 @@ public class MeditationView {
     
     private void resetMeditationState() {
         currentSession = null;
-        currentStepIndex = 0;
         totalElapsedSeconds = 0;
         isPlaying = false;
         isPaused = false;
         
-        if (meditationTimer != null) {
-            meditationTimer.stop();
-        }
-        if (breathingAnimation != null) {
-            breathingAnimation.stop();
+        if (clock != null) {
+            clock.stop();
+            clock = null;
         }
     }
     
@@ -461,34 +460,61 @@ public class MeditationView {
         timerLabel.setText(String.format("%02d:%02d", minutes, seconds));
     }
     
-    private void updateProgress() {
-        if (currentSession == null) return;
-        
-        int totalDurationSeconds = currentSession.getDurationMinutes() * 60;
-        double progress = Math.min((double) totalElapsedSeconds / totalDurationSeconds, 1.0);
-        progressBar.setProgress(progress);
+    private void updateProgress(long elapsedNanos) {
+        double progress = Math.min((double) elapsedNanos / clock.getTotalNanos(), 1.0);
+        // Skip changes too small to see, so a frame without visible change costs no layout
+        if (Math.abs(progress - progressBar.getProgress()) >= PROGRESS_RESOLUTION || progress == 1.0) {
+            progressBar.setProgress(progress);
+        }
     }
     
-    private boolean shouldShowBreathingAnimation() {
-        return currentSession != null && 
-               (currentSession.getType() == MeditationType.BREATHING || 
-                currentSession.getType() == MeditationType.ANXIETY_RELIEF);
+    /**
+     * Breathing circle radius for a point in time: inhale 60 to 100 over 4 s, hold for 4 s,
+     * exhale back to 60 over 6 s. Computed from the clock, so it pauses and seeks with the session.
+     */
+    private void updateBreathingCircle(long elapsedNanos) {
+        double cycleSeconds = (elapsedNanos % BREATH_CYCLE_NANOS) / 1_000_000_000.0;
+        double radius;
+        if (cycleSeconds < 4) {
+            radius = 60 + 40 * (cycleSeconds / 4);
+        } else if (cycleSeconds < 8) {
+            radius = 100;
+        } else {
+            radius = 100 - 40 * ((cycleSeconds - 8) / 6);
+        }
+        breathingCircle.setRadius(radius);
     }
     
-    private void startBreathingAnimation() {
-        if (breathingAnimation != null) {
-            breathingAnimation.stop();
+    /**
+     * Applies clock updates to the player controls
+     */
+    private final class SessionClockListener implements MeditationClock.Listener {
+        @Override
+        public void onFrame(long elapsedNanos) {
+            updateProgress(elapsedNanos);
+            if (breathingCircle.isVisible()) {
+                updateBreathingCircle(elapsedNanos);
+            }
         }
         
-        // Simple breathing animation - expand and contract circle
-        breathingAnimation = new Timeline(
-            new KeyFrame(Duration.seconds(0), e -> breathingCircle.setRadius(60)),
-            new KeyFrame(Duration.seconds(4), e -> breathingCircle.setRadius(100)), // Inhale
-            new KeyFrame(Duration.seconds(8), e -> breathingCircle.setRadius(80)),  // Hold
-            new KeyFrame(Duration.seconds(14), e -> breathingCircle.setRadius(60))  // Exhale
-        );
-        breathingAnimation.setCycleCount(Animation.INDEFINITE);
-        breathingAnimation.play();
+        @Override
+        public void onSecond(int elapsedSeconds) {
+            totalElapsedSeconds = elapsedSeconds;
+            updateTimerDisplay();
+        }
+        
+        @Override
+        public void onStepChanged(int stepIndex) {
+            if (stepIndex >= 0) {
+                instructionLabel.setText(currentSession.getSteps().get(stepIndex).getInstruction());
+            }
+        }
+        
+        @Override
+        public void onFinished() {
+            // Dialogs cannot be shown from an animation callback
+            Platform.runLater(() -> stopMeditation());
+        }
     }
     
     private void showCompletionDialog(String message) {
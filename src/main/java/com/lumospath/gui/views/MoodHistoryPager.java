@@ -0,0 +1,92 @@
+package com.lumospath.gui.views;
+
+import com.lumospath.model.MoodEntry;
+import com.lumospath.service.MoodTrackingService;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Infinite-scroll model behind the mood history ListView.
+ * Entries are fetched a page at a time with keyset queries, newest first. While the user reads
+ * one page, the next one is already being fetched on a background thread, so scrolling to the
+ * end appends it without waiting. Opening the history costs one page, however long it is.
+ */
+public class MoodHistoryPager {
+    private static final int PAGE_SIZE = 30;
+    // Rows from the end of the list at which the prefetched page is appended
+    private static final int APPEND_THRESHOLD = 10;
+
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lumospath-mood-history");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MoodTrackingService moodService;
+    private final int userId;
+    private final ObservableList<MoodEntry> entries = FXCollections.observableArrayList();
+
+    private CompletableFuture<List<MoodEntry>> nextPage;
+    private boolean appending;
+    private boolean exhausted;
+
+    public MoodHistoryPager(MoodTrackingService moodService, int userId) {
+        this.moodService = moodService;
+        this.userId = userId;
+    }
+
+    public ObservableList<MoodEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Fetch the first page in the background
+     * @param onFirstPage Called on the FX thread once the first page is shown, with whether it was empty
+     */
+    public void start(Consumer<Boolean> onFirstPage) {
+        nextPage = fetch(null);
+        appendNextPage(() -> onFirstPage.accept(entries.isEmpty()));
+    }
+
+    /**
+     * Called as rows are displayed; appends the prefetched page when the end of the list comes near
+     */
+    public void onRowShown(int index) {
+        if (index >= entries.size() - APPEND_THRESHOLD) {
+            appendNextPage(null);
+        }
+    }
+
+    private void appendNextPage(Runnable afterAppend) {
+        if (appending || exhausted || nextPage == null) {
+            return;
+        }
+        appending = true;
+        // Always continue on a later pulse, since rows are shown while the ListView lays out
+        nextPage.thenAcceptAsync(page -> {
+            appending = false;
+            entries.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                exhausted = true;
+                nextPage = null;
+            } else {
+                nextPage = fetch(page.get(page.size() - 1));
+            }
+            if (afterAppend != null) {
+                afterAppend.run();
+            }
+        }, Platform::runLater);
+    }
+
+    private CompletableFuture<List<MoodEntry>> fetch(MoodEntry after) {
+        return CompletableFuture.supplyAsync(() -> moodService.getMoodEntryPage(userId, after, PAGE_SIZE), FETCH_EXECUTOR);
+    }
+}
@@ -14,19 +14,21 @@ import javafx.collections.FXCollections;
 /**
  * Mood tracking view with interactive mood selectors
  */
-public class MoodTrackingView {
+public class MoodTrackingView implements ManagedView {
     private final MainController controller;
     private final MoodTrackingService moodService;
     
     private MoodType selectedMood = null;
     private int selectedScale = 5;
     private VBox moodGrid;
+    private boolean userChanged;
     
     public MoodTrackingView(MainController controller, MoodTrackingService moodService) {
         this.controller = controller;
         this.moodService = moodService;
     }
     
+    @Override
     public ScrollPane createView() {
         VBox container = new VBox(30);
         container.getStyleClass().add("main-container");
@@ -256,6 +258,7 @@ public class MoodTrackingView {
             // Save mood entry to database
             if (userId > 0) {
                 controller.getMoodService().saveMoodEntry(entry);
+                controller.notifyDataChanged(DataChange.MOOD);
                 controller.showInfoAlert("Mood Recorded", 
                     "Your mood has been recorded and saved!\n\n" +
                     "Mood: " + recordedMood.toString() + "\n" +
@@ -292,6 +295,22 @@ public class MoodTrackingView {
         }
     }
     
+    @Override
+    public void onShow() {
+        // A half-filled form stays across navigation, but not across users
+        if (userChanged) {
+            userChanged = false;
+            resetForm();
+        }
+    }
+    
+    @Override
+    public void onDataChanged(DataChange change) {
+        if (change == DataChange.USER) {
+            userChanged = true;
+        }
+    }
+    
     private void resetForm() {
         selectedMood = null;
         selectedScale = 5;
@@ -0,0 +1,245 @@
+package com.lumospath.gui.views;
+
+import com.lumospath.service.MoodTrackingService;
+import com.lumospath.util.TimeSeriesDownsampler;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Daily mood trend over any range, from a month to the whole history.
+ * The full daily series is kept in a {@link TimeSeriesDownsampler}; the chart only ever receives
+ * a sample sized to its pixel width for the selected range, so a multi-year history costs the
+ * same to draw as a single month. New days are fetched and appended incrementally on refresh;
+ * after entries are deleted, reload() starts over from the whole history.
+ */
+public class MoodTrendChart {
+    // Whole history; the database only returns days that have entries
+    private static final int HISTORY_DAYS = 36500;
+    private static final double PIXELS_PER_POINT = 4.0;
+    private static final int MIN_POINTS = 16;
+
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lumospath-mood-trend");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MoodTrackingService moodService;
+    private final int userId;
+    private final TimeSeriesDownsampler series = new TimeSeriesDownsampler();
+
+    private final NumberAxis xAxis = new NumberAxis();
+    private final NumberAxis yAxis = new NumberAxis(0, 10, 1);
+    private final LineChart<Number, Number> chart = new LineChart<>(xAxis, yAxis);
+    private final XYChart.Series<Number, Number> averageSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> lowSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> highSeries = new XYChart.Series<>();
+    private final Label statusLabel = new Label("Loading mood trend...");
+    private final VBox root = new VBox(10);
+
+    // Selected range in days back from the latest entry, or 0 for everything
+    private int rangeDays = 30;
+    private boolean loading;
+    private boolean resampleScheduled;
+    // Bumped by reload(), so a fetch started before it cannot append old days
+    private int generation;
+
+    public MoodTrendChart(MoodTrackingService moodService, int userId) {
+        this.moodService = moodService;
+        this.userId = userId;
+        buildView();
+    }
+
+    public VBox getView() {
+        return root;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Load the whole history the first time; afterwards fetch only days since the last loaded one
+     */
+    public void refresh() {
+        if (loading) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        double lastDay = series.lastX();
+        // Re-read the last loaded day too, since entries may have been added to it
+        int days = Double.isNaN(lastDay) ? HISTORY_DAYS
+                : (int) Math.max(1, LocalDate.now().toEpochDay() - (long) lastDay + 1);
+
+        CompletableFuture.supplyAsync(() -> moodService.getMoodTrendData(userId, days), FETCH_EXECUTOR)
+            .thenAcceptAsync(rows -> {
+                if (requested != generation) {
+                    return;
+                }
+                loading = false;
+                for (Object[] row : rows) {
+                    double day = LocalDate.parse(String.valueOf(row[0]).substring(0, 10)).toEpochDay();
+                    if (!Double.isNaN(series.lastX()) && day < series.lastX()) {
+                        continue;
+                    }
+                    series.append(day, ((Number) row[1]).doubleValue(),
+                                  ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue());
+                }
+                if (series.size() == 0) {
+                    statusLabel.setText("No mood entries yet. Your trend appears here once you start tracking.");
+                    clearChart();
+                    return;
+                }
+                statusLabel.setText(null);
+                scheduleResample();
+            }, Platform::runLater);
+    }
+
+    /**
+     * Drop everything loaded so far and load the whole history again, e.g. after entries were deleted
+     */
+    public void reload() {
+        generation++;
+        loading = false;
+        series.clear();
+        clearChart();
+        statusLabel.setText("Loading mood trend...");
+        refresh();
+    }
+
+    private void clearChart() {
+        lowSeries.getData().clear();
+        averageSeries.getData().clear();
+        highSeries.getData().clear();
+    }
+
+    private void buildView() {
+        averageSeries.setName("Average");
+        lowSeries.setName("Lowest");
+        highSeries.setName("Highest");
+
+        xAxis.setAutoRanging(false);
+        xAxis.setForceZeroInRange(false);
+        xAxis.setTickLabelFormatter(new StringConverter<Number>() {
+            private final DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM d, yy");
+
+            @Override
+            public String toString(Number day) {
+                return LocalDate.ofEpochDay(day.longValue()).format(format);
+            }
+
+            @Override
+            public Number fromString(String text) {
+                return LocalDate.parse(text, format).toEpochDay();
+            }
+        });
+        yAxis.setLabel("Mood (1-10)");
+
+        // Animations and symbols cost a node per point; the sample is already small
+        chart.setAnimated(false);
+        chart.setCreateSymbols(false);
+        chart.setTitle("Mood Trend");
+        chart.setPrefHeight(300);
+        chart.widthProperty().addListener((obs, oldWidth, newWidth) -> scheduleResample());
+
+        ToggleGroup rangeGroup = new ToggleGroup();
+        HBox rangeButtons = new HBox(8);
+        rangeButtons.setAlignment(Pos.CENTER_LEFT);
+        addRangeButton(rangeButtons, rangeGroup, "1M", 30, true);
+        addRangeButton(rangeButtons, rangeGroup, "3M", 90, false);
+        addRangeButton(rangeButtons, rangeGroup, "1Y", 365, false);
+        addRangeButton(rangeButtons, rangeGroup, "All", 0, false);
+
+        statusLabel.setStyle("-fx-text-fill: #6B7280; -fx-font-style: italic;");
+        statusLabel.managedProperty().bind(statusLabel.textProperty().isNotEmpty());
+        statusLabel.visibleProperty().bind(statusLabel.managedProperty());
+
+        root.getChildren().addAll(rangeButtons, statusLabel, chart);
+    }
+
+    private void addRangeButton(HBox container, ToggleGroup group, String text, int days, boolean selected) {
+        ToggleButton button = new ToggleButton(text);
+        button.getStyleClass().add("secondary-button");
+        button.setToggleGroup(group);
+        button.setSelected(selected);
+        button.setOnAction(e -> {
+            if (!button.isSelected()) {
+                button.setSelected(true); // keep one range selected
+                return;
+            }
+            rangeDays = days;
+            scheduleResample();
+        });
+        container.getChildren().add(button);
+    }
+
+    /**
+     * Resample at most once per pulse, however many width changes or appends arrive
+     */
+    private void scheduleResample() {
+        if (resampleScheduled) {
+            return;
+        }
+        resampleScheduled = true;
+        Platform.runLater(() -> {
+            resampleScheduled = false;
+            resample();
+        });
+    }
+
+    private void resample() {
+        if (series.size() == 0) {
+            return;
+        }
+        double toDay = series.lastX();
+        double fromDay = rangeDays > 0 ? toDay - rangeDays + 1 : series.firstX();
+        int maxPoints = Math.max(MIN_POINTS, (int) (Math.max(chart.getWidth(), 300) / PIXELS_PER_POINT));
+        TimeSeriesDownsampler.Sample sample = series.sample(fromDay, toDay, maxPoints);
+
+        List<XYChart.Data<Number, Number>> average = new ArrayList<>(sample.size());
+        List<XYChart.Data<Number, Number>> low = new ArrayList<>(sample.size());
+        List<XYChart.Data<Number, Number>> high = new ArrayList<>(sample.size());
+        for (int i = 0; i < sample.size(); i++) {
+            average.add(new XYChart.Data<>(sample.getX(i), sample.getY(i)));
+            low.add(new XYChart.Data<>(sample.getX(i), sample.getLow(i)));
+            high.add(new XYChart.Data<>(sample.getX(i), sample.getHigh(i)));
+        }
+
+        xAxis.setLowerBound(fromDay);
+        xAxis.setUpperBound(Math.max(toDay, fromDay + 1));
+        xAxis.setTickUnit(Math.max(1, Math.ceil((toDay - fromDay) / 8)));
+        // One change event per series instead of one per point
+        lowSeries.getData().setAll(low);
+        averageSeries.getData().setAll(average);
+        highSeries.getData().setAll(high);
+        if (chart.getData().isEmpty()) {
+            ObservableList<XYChart.Series<Number, Number>> data = FXCollections.observableArrayList();
+            data.setAll(List.of(lowSeries, averageSeries, highSeries));
+            chart.setData(data);
+            // Envelope lines are drawn thin and dashed behind the average
+            lowSeries.getNode().setStyle("-fx-stroke-width: 1px; -fx-stroke-dash-array: 4 4; -fx-opacity: 0.6;");
+            highSeries.getNode().setStyle("-fx-stroke-width: 1px; -fx-stroke-dash-array: 4 4; -fx-opacity: 0.6;");
+        }
+    }
+}
@@ -9,15 +9,18 @@ import javafx.scene.layout.*;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 
-public class QuotesView {
+public class QuotesView implements ManagedView {
     private final MainController controller;
     private final MotivationalQuoteService quoteService;
+    private Label quoteText;
+    private Label quoteAuthor;
     
     public QuotesView(MainController controller, MotivationalQuoteService quoteService) {
         this.controller = controller;
         this.quoteService = quoteService;
     }
     
+    @Override
     public ScrollPane createView() {
         VBox container = new VBox(30);
         container.getStyleClass().add("main-container");
@@ -30,17 +33,15 @@ public class QuotesView {
         quoteContainer.getStyleClass().add("quote-container");
         quoteContainer.setAlignment(Pos.CENTER);
         
-        MotivationalQuote quote = quoteService.getRandomQuote();
-        
-        Label quoteText = new Label("\"" + quote.getQuote() + "\"");
+        quoteText = new Label();
         quoteText.getStyleClass().add("quote-text");
         
-        Label quoteAuthor = new Label("- " + quote.getAuthor());
+        quoteAuthor = new Label();
         quoteAuthor.getStyleClass().add("quote-author");
         
         Button newQuoteBtn = new Button("✨ New Quote");
         newQuoteBtn.getStyleClass().add("primary-button");
-        newQuoteBtn.setOnAction(e -> controller.showQuotesView()); // Refresh
+        newQuoteBtn.setOnAction(e -> showRandomQuote());
         
         quoteContainer.getChildren().addAll(quoteText, quoteAuthor, newQuoteBtn);
         
@@ -50,4 +51,16 @@ public class QuotesView {
         scrollPane.setFitToWidth(true);
         return scrollPane;
     }
+    
+    @Override
+    public void onShow() {
+        // Every visit shows a fresh quote, as before
+        showRandomQuote();
+    }
+    
+    private void showRandomQuote() {
+        MotivationalQuote quote = quoteService.getRandomQuote();
+        quoteText.setText("\"" + quote.getQuote() + "\"");
+        quoteAuthor.setText("- " + quote.getAuthor());
+    }
 }
\ No newline at end of file
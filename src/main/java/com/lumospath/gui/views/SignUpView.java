@@ -4,16 +4,23 @@ import com.lumospath.gui.controllers.MainController;
 import com.lumospath.service.AuthenticationService;
 import com.lumospath.service.AuthenticationService.AuthenticationResult;
 
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.util.function.Predicate;
 
 /**
  * Sign up view for user registration
  */
 public class SignUpView {
+    private static final Duration AVAILABILITY_CHECK_DELAY = Duration.millis(300);
+    
     private final MainController controller;
     private final AuthenticationService authService;
     
@@ -117,7 +124,15 @@ public class SignUpView {
         Label usernameHint = new Label("3-50 characters, letters, numbers, hyphens and underscores only");
         usernameHint.setStyle("-fx-font-size: 11px; -fx-text-fill: #95a5a6;");
         
-        usernameGroup.getChildren().addAll(usernameLabel, usernameField, usernameHint);
+        Label usernameStatus = new Label();
+        usernameStatus.setStyle("-fx-font-size: 11px;");
+        usernameStatus.setVisible(false);
+        usernameStatus.setManaged(false);
+        attachAvailabilityCheck(usernameField, usernameStatus,
+                username -> username.matches("^[a-zA-Z0-9_-]{3,50}$"),
+                authService::isUsernameAvailable, "Username is available", "Username is already taken");
+        
+        usernameGroup.getChildren().addAll(usernameLabel, usernameField, usernameHint, usernameStatus);
         
         // Email field
         VBox emailGroup = new VBox(8);
@@ -132,7 +147,15 @@ public class SignUpView {
         emailField.setStyle("-fx-font-size: 14px; -fx-padding: 10; -fx-border-radius: 5; " +
                            "-fx-background-radius: 5; -fx-border-color: #bdc3c7; -fx-border-width: 1;");
         
-        emailGroup.getChildren().addAll(emailLabel, emailField);
+        Label emailStatus = new Label();
+        emailStatus.setStyle("-fx-font-size: 11px;");
+        emailStatus.setVisible(false);
+        emailStatus.setManaged(false);
+        attachAvailabilityCheck(emailField, emailStatus,
+                email -> email.matches("^[^@\\s]+@[^@\\s]+\\.[^@\\s]{2,}$"),
+                authService::isEmailAvailable, "Email is available", "An account with this email already exists");
+        
+        emailGroup.getChildren().addAll(emailLabel, emailField, emailStatus);
         
         // Password field
         VBox passwordGroup = new VBox(8);
@@ -292,6 +315,47 @@ public class SignUpView {
         return navigation;
     }
     
+    /**
+     * Show live availability feedback for a field. Checks run off the FX thread once the user
+     * pauses typing, and results for text that has since changed are discarded.
+     */
+    private void attachAvailabilityCheck(TextField field, Label statusLabel, Predicate<String> isWellFormed,
+                                         Predicate<String> isAvailable, String availableMessage, String takenMessage) {
+        PauseTransition debounce = new PauseTransition(AVAILABILITY_CHECK_DELAY);
+        debounce.setOnFinished(e -> {
+            String value = field.getText().trim();
+            Task<Boolean> check = new Task<Boolean>() {
+                @Override
+                protected Boolean call() {
+                    return isAvailable.test(value);
+                }
+            };
+            check.setOnSucceeded(evt -> {
+                if (!value.equals(field.getText().trim())) {
+                    return;
+                }
+                boolean available = check.getValue();
+                statusLabel.setText(available ? "✓ " + availableMessage : "✗ " + takenMessage);
+                statusLabel.setTextFill(available ? Color.web("#27ae60") : Color.web("#e74c3c"));
+                statusLabel.setVisible(true);
+                statusLabel.setManaged(true);
+            });
+            Thread thread = new Thread(check, "lumospath-availability-check");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        
+        field.textProperty().addListener((obs, oldText, newText) -> {
+            statusLabel.setVisible(false);
+            statusLabel.setManaged(false);
+            if (newText != null && isWellFormed.test(newText.trim())) {
+                debounce.playFromStart();
+            } else {
+                debounce.stop();
+            }
+        });
+    }
+    
     private void showError(Label messageLabel, String message) {
         messageLabel.setText(message);
         messageLabel.getStyleClass().removeAll("success-message");
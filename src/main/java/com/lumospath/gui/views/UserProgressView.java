@@ -18,16 +18,21 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * View for displaying user progress including mood history and chat history
  */
-public class UserProgressView {
+public class UserProgressView implements ManagedView {
+    private static final int MAX_PIE_SLICES = 8;
+    
     private final MainController controller;
     private final MoodTrackingService moodService;
     private final ChatHistoryService chatService;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private VBox container;
+    private boolean dirty;
+    // Kept across refreshes so a mood change only appends the newest days
+    private MoodTrendChart trendChart;
     
     public UserProgressView(MainController controller, MoodTrackingService moodService, ChatHistoryService chatService) {
         this.controller = controller;
@@ -35,30 +40,61 @@ public class UserProgressView {
         this.chatService = chatService;
     }
     
+    @Override
     public ScrollPane createView() {
-        VBox container = new VBox(25);
+        container = new VBox(25);
         container.getStyleClass().add("main-container");
         container.setPadding(new Insets(30));
         
         // Header
         VBox header = createHeader();
+        container.getChildren().add(header);
+        bindUserData();
+        
+        ScrollPane scrollPane = new ScrollPane(container);
+        scrollPane.setFitToWidth(true);
+        scrollPane.getStyleClass().add("scroll-pane");
+        
+        return scrollPane;
+    }
+    
+    @Override
+    public void onShow() {
+        if (dirty) {
+            bindUserData();
+        }
+    }
+    
+    @Override
+    public void onDataChanged(DataChange change) {
+        dirty = true;
+    }
+    
+    /**
+     * (Re)build the sections below the header, which are the only parts showing stored data.
+     * The selected tab is kept when the user has not changed.
+     */
+    private void bindUserData() {
+        dirty = false;
+        int selectedTab = 0;
+        if (container.getChildren().size() > 1) {
+            selectedTab = ((TabPane) container.getChildren().get(2)).getSelectionModel().getSelectedIndex();
+            container.getChildren().remove(1, container.getChildren().size());
+        }
         
         // Progress summary cards
         HBox summaryCards = createSummaryCards();
         
         // Progress content with tabs
         TabPane tabPane = createProgressTabs();
+        if (selectedTab > 0 && selectedTab < tabPane.getTabs().size()) {
+            tabPane.getSelectionModel().select(selectedTab);
+        }
         
         // History management controls
         VBox controls = createHistoryControls();
         
-        container.getChildren().addAll(header, summaryCards, tabPane, controls);
-        
-        ScrollPane scrollPane = new ScrollPane(container);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("scroll-pane");
-        
-        return scrollPane;
+        container.getChildren().addAll(summaryCards, tabPane, controls);
     }
     
     private VBox createHeader() {
@@ -280,51 +316,78 @@ public class UserProgressView {
         return tabPane;
     }
     
-    private ScrollPane createMoodHistoryContent(int userId) {
+    private VBox createMoodHistoryContent(int userId) {
         VBox content = new VBox(20);
         content.setPadding(new Insets(20));
         
-        List<MoodEntry> recentMoods = moodService.getUserMoodEntries(userId);
-        
-        if (recentMoods.isEmpty()) {
-            VBox emptyState = new VBox(20);
-            emptyState.setAlignment(Pos.CENTER);
-            emptyState.setPadding(new Insets(50));
-            
-            Label icon = new Label("📈");
-            icon.setStyle("-fx-font-size: 48px;");
-            
-            Label title = new Label("No Mood Entries Yet");
-            title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
-            
-            Label subtitle = new Label("Start tracking your mood to see your emotional journey!");
-            subtitle.setStyle("-fx-font-size: 14px; -fx-text-fill: #6B7280;");
-            
-            Button trackMoodBtn = new Button("📊 Track Mood Now");
-            trackMoodBtn.getStyleClass().add("primary-button");
-            trackMoodBtn.setOnAction(e -> controller.showMoodTrackingView());
-            
-            emptyState.getChildren().addAll(icon, title, subtitle, trackMoodBtn);
-            return new ScrollPane(emptyState);
-        }
-        
-        // Show recent mood entries
         Label headerLabel = new Label("Recent Mood Entries");
         headerLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
         
-        VBox entriesList = new VBox(15);
+        // Virtualized and paged: only visible rows exist, and entries are fetched a page at a time
+        MoodHistoryPager pager = new MoodHistoryPager(moodService, userId);
+        ListView<MoodEntry> entriesList = new ListView<>(pager.getEntries());
+        entriesList.setCellFactory(list -> new MoodEntryCell(pager));
+        entriesList.setPlaceholder(new Label("Loading your mood history..."));
+        entriesList.setFocusTraversable(false);
+        entriesList.getStyleClass().add("history-list");
+        VBox.setVgrow(entriesList, Priority.ALWAYS);
+        
+        content.getChildren().addAll(headerLabel, entriesList);
+        
+        pager.start(empty -> {
+            if (empty) {
+                content.getChildren().setAll(createMoodHistoryEmptyState());
+            }
+        });
+        return content;
+    }
+    
+    private VBox createMoodHistoryEmptyState() {
+        VBox emptyState = new VBox(20);
+        emptyState.setAlignment(Pos.CENTER);
+        emptyState.setPadding(new Insets(50));
+        
+        Label icon = new Label("📈");
+        icon.setStyle("-fx-font-size: 48px;");
+        
+        Label title = new Label("No Mood Entries Yet");
+        title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+        
+        Label subtitle = new Label("Start tracking your mood to see your emotional journey!");
+        subtitle.setStyle("-fx-font-size: 14px; -fx-text-fill: #6B7280;");
+        
+        Button trackMoodBtn = new Button("📊 Track Mood Now");
+        trackMoodBtn.getStyleClass().add("primary-button");
+        trackMoodBtn.setOnAction(e -> controller.showMoodTrackingView());
         
-        for (MoodEntry mood : recentMoods.stream().limit(10).collect(Collectors.toList())) {
-            HBox entryBox = new HBox(15);
+        emptyState.getChildren().addAll(icon, title, subtitle, trackMoodBtn);
+        return emptyState;
+    }
+    
+    /**
+     * Reusable mood history row; tells the pager which rows are on screen so it can append the next page
+     */
+    private final class MoodEntryCell extends ListCell<MoodEntry> {
+        private final MoodHistoryPager pager;
+        private final HBox entryBox = new HBox(15);
+        private final Label moodEmoji = new Label();
+        private final Label moodType = new Label();
+        private final Label intensityLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label triggerLabel = new Label();
+        private final Label timeLabel = new Label();
+        
+        MoodEntryCell(MoodHistoryPager pager) {
+            this.pager = pager;
+            setPrefWidth(0);
+            
             entryBox.getStyleClass().add("history-item");
             entryBox.setPadding(new Insets(15));
             entryBox.setAlignment(Pos.CENTER_LEFT);
             
             // Mood emoji and type
             VBox moodInfo = new VBox(5);
-            Label moodEmoji = new Label(mood.getMoodType().getEmoji());
             moodEmoji.setStyle("-fx-font-size: 24px;");
-            Label moodType = new Label(mood.getMoodType().getDisplayName());
             moodType.getStyleClass().add("mood-type-label");
             moodInfo.getChildren().addAll(moodEmoji, moodType);
             
@@ -332,38 +395,43 @@ public class UserProgressView {
             VBox details = new VBox(5);
             details.setAlignment(Pos.CENTER_LEFT);
             HBox.setHgrow(details, Priority.ALWAYS);
-            
-            Label intensityLabel = new Label("Intensity: " + mood.getMoodScale() + "/10");
             intensityLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #4A90E2;");
-            
-            Label descLabel = new Label(mood.getDescription());
             descLabel.setStyle("-fx-text-fill: #374151;");
             descLabel.setWrapText(true);
-            
-            if (mood.getTrigger() != null && !mood.getTrigger().trim().isEmpty()) {
-                Label triggerLabel = new Label("Trigger: " + mood.getTrigger());
-                triggerLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #6B7280;");
-                details.getChildren().addAll(intensityLabel, descLabel, triggerLabel);
-            } else {
-                details.getChildren().addAll(intensityLabel, descLabel);
-            }
+            triggerLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #6B7280;");
+            triggerLabel.managedProperty().bind(triggerLabel.visibleProperty());
+            details.getChildren().addAll(intensityLabel, descLabel, triggerLabel);
             
             // Timestamp
             VBox timestamp = new VBox();
             timestamp.setAlignment(Pos.CENTER_RIGHT);
-            Label timeLabel = new Label(mood.getCreatedAt().format(dateFormatter));
             timeLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #9CA3AF;");
             timestamp.getChildren().add(timeLabel);
             
             entryBox.getChildren().addAll(moodInfo, details, timestamp);
-            entriesList.getChildren().add(entryBox);
         }
         
-        content.getChildren().addAll(headerLabel, entriesList);
-        
-        ScrollPane scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        return scrollPane;
+        @Override
+        protected void updateItem(MoodEntry mood, boolean empty) {
+            super.updateItem(mood, empty);
+            setText(null);
+            if (empty || mood == null) {
+                setGraphic(null);
+                return;
+            }
+            
+            moodEmoji.setText(mood.getMoodType().getEmoji());
+            moodType.setText(mood.getMoodType().getDisplayName());
+            intensityLabel.setText("Intensity: " + mood.getMoodScale() + "/10");
+            descLabel.setText(mood.getDescription());
+            boolean hasTrigger = mood.getTrigger() != null && !mood.getTrigger().trim().isEmpty();
+            triggerLabel.setVisible(hasTrigger);
+            triggerLabel.setText(hasTrigger ? "Trigger: " + mood.getTrigger() : null);
+            timeLabel.setText(mood.getCreatedAt() != null ? mood.getCreatedAt().format(dateFormatter) : "");
+            setGraphic(entryBox);
+            
+            pager.onRowShown(getIndex());
+        }
     }
     
     private ScrollPane createChatHistoryContent(int userId) {
@@ -460,19 +528,37 @@ public class UserProgressView {
         VBox content = new VBox(25);
         content.setPadding(new Insets(20));
         
+        // Mood trend
+        VBox moodTrendSection = createMoodTrendSection(userId);
+        
         // Mood statistics
         VBox moodStatsSection = createMoodStatisticsSection(userId);
         
         // Chat statistics
         VBox chatStatsSection = createChatStatisticsSection(userId);
         
-        content.getChildren().addAll(moodStatsSection, chatStatsSection);
+        content.getChildren().addAll(moodTrendSection, moodStatsSection, chatStatsSection);
         
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
         return scrollPane;
     }
     
+    private VBox createMoodTrendSection(int userId) {
+        VBox section = new VBox(15);
+        
+        Label title = new Label("📈 Mood Trend");
+        title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        
+        if (trendChart == null || trendChart.getUserId() != userId) {
+            trendChart = new MoodTrendChart(moodService, userId);
+        }
+        trendChart.refresh();
+        
+        section.getChildren().addAll(title, trendChart.getView());
+        return section;
+    }
+    
     private VBox createMoodStatisticsSection(int userId) {
         VBox section = new VBox(15);
         
@@ -490,10 +576,19 @@ public class UserProgressView {
         
         // Create pie chart for mood distribution
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-        for (Object[] stat : moodStats) {
-            String moodType = (String) stat[0];
-            Integer count = (Integer) stat[1];
-            pieChartData.add(new PieChart.Data(moodType, count));
+        // Rows arrive largest first; small slices beyond the limit are merged so the legend stays readable
+        int otherCount = 0;
+        for (int i = 0; i < moodStats.size(); i++) {
+            String moodType = (String) moodStats.get(i)[0];
+            Integer count = (Integer) moodStats.get(i)[1];
+            if (i < MAX_PIE_SLICES - 1 || moodStats.size() == MAX_PIE_SLICES) {
+                pieChartData.add(new PieChart.Data(moodType, count));
+            } else {
+                otherCount += count;
+            }
+        }
+        if (otherCount > 0) {
+            pieChartData.add(new PieChart.Data("Other", otherCount));
         }
         
         PieChart moodChart = new PieChart(pieChartData);
@@ -605,6 +700,8 @@ public class UserProgressView {
         boolean success = moodService.deleteUserMoodHistory(userId);
         
         if (success) {
+            reloadTrendChart();
+            controller.notifyDataChanged(DataChange.MOOD);
             controller.showInfoAlert("Success", "Your mood history has been cleared.");
             // Refresh the view
             controller.showDashboardView();
@@ -613,6 +710,15 @@ public class UserProgressView {
         }
     }
     
+    /**
+     * The trend chart only appends new days on refresh, so deleted entries need a full reload
+     */
+    private void reloadTrendChart() {
+        if (trendChart != null) {
+            trendChart.reload();
+        }
+    }
+    
     private void handleClearChatHistory() {
         if (!controller.showConfirmation("Clear Chat History", 
             "Are you sure you want to delete all your chat conversation history?\n\nThis action cannot be undone!")) {
@@ -623,6 +729,7 @@ public class UserProgressView {
         boolean success = chatService.deleteUserChatHistory(userId);
         
         if (success) {
+            controller.notifyDataChanged(DataChange.CHAT);
             controller.showInfoAlert("Success", "Your chat history has been cleared.");
             // Refresh the view
             controller.showDashboardView();
@@ -641,6 +748,14 @@ public class UserProgressView {
         boolean moodDeleted = moodService.deleteUserMoodHistory(userId);
         boolean chatDeleted = chatService.deleteUserChatHistory(userId);
         
+        if (moodDeleted) {
+            reloadTrendChart();
+            controller.notifyDataChanged(DataChange.MOOD);
+        }
+        if (chatDeleted) {
+            controller.notifyDataChanged(DataChange.CHAT);
+        }
+        
         if (moodDeleted || chatDeleted) {
             controller.showInfoAlert("Success", "Your history has been cleared.");
             // Refresh the view
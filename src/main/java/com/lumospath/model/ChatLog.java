@@ -12,6 +12,8 @@ public class ChatLog {
     private String botResponse;
     private Double sentimentScore;
     private String detectedEmotion;
+    private Long analysisMicros; // Null for logs saved before reply timings were recorded
+    private Long responseMicros;
     private LocalDateTime createdAt;
 
     // Constructors
@@ -81,6 +83,22 @@ public class ChatLog {
         this.detectedEmotion = detectedEmotion;
     }
 
+    public Long getAnalysisMicros() {
+        return analysisMicros;
+    }
+
+    public void setAnalysisMicros(Long analysisMicros) {
+        this.analysisMicros = analysisMicros;
+    }
+
+    public Long getResponseMicros() {
+        return responseMicros;
+    }
+
+    public void setResponseMicros(Long responseMicros) {
+        this.responseMicros = responseMicros;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,52 @@
+package com.lumospath.model;
+
+/**
+ * A ranked chat history search hit with highlighted snippets
+ */
+public class ChatSearchResult {
+    private final ChatLog chatLog;
+    private final int matchedTerms;
+    private final int score;
+    private final String highlightedUserMessage;
+    private final String highlightedBotResponse;
+
+    public ChatSearchResult(ChatLog chatLog, int matchedTerms, int score,
+                            String highlightedUserMessage, String highlightedBotResponse) {
+        this.chatLog = chatLog;
+        this.matchedTerms = matchedTerms;
+        this.score = score;
+        this.highlightedUserMessage = highlightedUserMessage;
+        this.highlightedBotResponse = highlightedBotResponse;
+    }
+
+    // Getters
+    public ChatLog getChatLog() {
+        return chatLog;
+    }
+
+    public int getMatchedTerms() {
+        return matchedTerms;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public String getHighlightedUserMessage() {
+        return highlightedUserMessage;
+    }
+
+    public String getHighlightedBotResponse() {
+        return highlightedBotResponse;
+    }
+
+    @Override
+    public String toString() {
+        return "ChatSearchResult{" +
+                "logId=" + chatLog.getLogId() +
+                ", matchedTerms=" + matchedTerms +
+                ", score=" + score +
+                ", userMessage='" + highlightedUserMessage + '\'' +
+                '}';
+    }
+}
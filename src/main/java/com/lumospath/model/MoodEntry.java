@@ -1,6 +1,11 @@
 package com.lumospath.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * MoodEntry model class for tracking user mood and feelings
@@ -93,6 +98,31 @@ public class MoodEntry {
         this.tags = tags;
     }
 
+    /**
+     * Get the tags as a normalized list (trimmed, lower-case, no duplicates)
+     */
+    public List<String> getTagList() {
+        return parseTags(tags);
+    }
+
+    /**
+     * Parse a comma-separated tag string into normalized tags
+     * @param tags Comma-separated tags like "stress,work,family"
+     * @return Normalized tags in their original order
+     */
+    public static List<String> parseTags(String tags) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                String normalized = tag.trim().toLowerCase(Locale.ROOT);
+                if (!normalized.isEmpty()) {
+                    parsed.add(normalized.length() > 100 ? normalized.substring(0, 100) : normalized);
+                }
+            }
+        }
+        return new ArrayList<>(parsed);
+    }
+
     @Override
     public String toString() {
         return "MoodEntry{" +
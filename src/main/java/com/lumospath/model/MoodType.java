@@ -73,6 +73,24 @@ public enum MoodType {
                this == STRESSED || this == ANXIOUS;
     }
 
+    /**
+     * Parse a stored mood_type value. Rows are written with name(), but older rows
+     * were written with toString() ("emoji Display Name"), so both forms are accepted.
+     * @param value The stored value
+     * @return Matching MoodType, or NEUTRAL if the value is not recognised
+     */
+    public static MoodType fromStoredValue(String value) {
+        if (value == null) {
+            return NEUTRAL;
+        }
+        for (MoodType type : values()) {
+            if (type.name().equals(value) || type.toString().equals(value)) {
+                return type;
+            }
+        }
+        return NEUTRAL;
+    }
+
     @Override
     public String toString() {
         return emoji + " " + displayName;
@@ -0,0 +1,102 @@
+package com.lumospath.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * UserSession model class for an authenticated session identified by an opaque token
+ */
+public class UserSession {
+    private final String tokenHash;
+    private final Integer authId;
+    private final User user;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime expiresAt;
+    private final boolean interactive;
+    private volatile LocalDateTime lastAccessedAt;
+    private volatile LocalDateTime lastPersistedAt;
+
+    public UserSession(String tokenHash, Integer authId, User user,
+                       LocalDateTime createdAt, LocalDateTime expiresAt, LocalDateTime lastAccessedAt) {
+        this(tokenHash, authId, user, createdAt, expiresAt, lastAccessedAt, false);
+    }
+
+    /**
+     * @param interactive Whether the session belongs to the desktop login of this process, which is
+     *                    never ended for being idle
+     */
+    public UserSession(String tokenHash, Integer authId, User user, LocalDateTime createdAt,
+                       LocalDateTime expiresAt, LocalDateTime lastAccessedAt, boolean interactive) {
+        this.tokenHash = tokenHash;
+        this.authId = authId;
+        this.user = user;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.interactive = interactive;
+        this.lastAccessedAt = lastAccessedAt;
+        this.lastPersistedAt = lastAccessedAt;
+    }
+
+    // Getters and Setters
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public Integer getAuthId() {
+        return authId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Integer getUserId() {
+        return user.getUserId();
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isInteractive() {
+        return interactive;
+    }
+
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+
+    public LocalDateTime getLastPersistedAt() {
+        return lastPersistedAt;
+    }
+
+    public void setLastPersistedAt(LocalDateTime lastPersistedAt) {
+        this.lastPersistedAt = lastPersistedAt;
+    }
+
+    /**
+     * Check whether the session has passed its absolute expiry or, unless interactive, been idle too long
+     */
+    public boolean isExpired(LocalDateTime now, long idleTimeoutMinutes) {
+        return !now.isBefore(expiresAt)
+                || (!interactive && !now.isBefore(lastAccessedAt.plusMinutes(idleTimeoutMinutes)));
+    }
+
+    @Override
+    public String toString() {
+        return "UserSession{" +
+                "authId=" + authId +
+                ", userId=" + getUserId() +
+                ", createdAt=" + createdAt +
+                ", expiresAt=" + expiresAt +
+                ", lastAccessedAt=" + lastAccessedAt +
+                '}';
+    }
+}
@@ -1,14 +1,14 @@
 package com.lumospath.service;
 
+import com.lumospath.ApplicationContext;
 import com.lumospath.dao.UserDAO;
-import com.lumospath.dao.impl.UserDAOImpl;
 import com.lumospath.model.User;
+import com.lumospath.model.UserSession;
 
-import java.security.MessageDigest;
-import java.security.SecureRandom;
 import java.sql.SQLException;
-import java.util.Base64;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 
 /**
@@ -16,6 +16,14 @@ import java.util.regex.Pattern;
  */
 public class AuthenticationService {
     private final UserDAO userDAO;
+    private final PasswordHashingService passwordHashing;
+    private final LoginRateLimiter loginRateLimiter;
+    private final SessionService sessionService;
+    
+    // Login throttling state is shared by every service instance in this JVM
+    private static final LoginRateLimiter SHARED_LOGIN_RATE_LIMITER = new LoginRateLimiter();
+    private static final String LOCAL_CLIENT = "localhost";
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
     private static final Pattern EMAIL_PATTERN = 
         Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$");
     private static final Pattern PASSWORD_PATTERN = 
@@ -24,19 +32,56 @@ public class AuthenticationService {
     // Current authenticated user and session info
     private User currentUser;
     private Integer currentAuthId;
+    private String currentSessionToken;
     
+    /**
+     * Uses the application's shared user DAO and session cache
+     */
     public AuthenticationService() {
-        this.userDAO = new UserDAOImpl();
+        this(ApplicationContext.get().getUserDAO(), ApplicationContext.get().getSessionService());
     }
     
     public AuthenticationService(UserDAO userDAO) {
+        this(userDAO, new SessionService(userDAO));
+    }
+    
+    public AuthenticationService(UserDAO userDAO, SessionService sessionService) {
+        this(userDAO, new PasswordHashingService(), SHARED_LOGIN_RATE_LIMITER, sessionService);
+    }
+    
+    public AuthenticationService(UserDAO userDAO, PasswordHashingService passwordHashing) {
+        this(userDAO, passwordHashing, SHARED_LOGIN_RATE_LIMITER);
+    }
+    
+    public AuthenticationService(UserDAO userDAO, PasswordHashingService passwordHashing, LoginRateLimiter loginRateLimiter) {
+        this(userDAO, passwordHashing, loginRateLimiter, new SessionService(userDAO));
+    }
+    
+    public AuthenticationService(UserDAO userDAO, PasswordHashingService passwordHashing,
+                                 LoginRateLimiter loginRateLimiter, SessionService sessionService) {
         this.userDAO = userDAO;
+        this.passwordHashing = passwordHashing;
+        this.loginRateLimiter = loginRateLimiter;
+        this.sessionService = sessionService;
     }
     
     /**
-     * Authenticate user with username/email and password
+     * Authenticate the desktop user with username/email and password.
+     * The session is interactive: it is not ended for idleness, only by logout.
      */
     public AuthenticationResult login(String usernameOrEmail, String password) {
+        return login(usernameOrEmail, password, LOCAL_CLIENT, true);
+    }
+    
+    /**
+     * Authenticate user with username/email and password from a specific client
+     * @param clientId Client address used for throttling and recorded in the login history
+     */
+    public AuthenticationResult login(String usernameOrEmail, String password, String clientId) {
+        return login(usernameOrEmail, password, clientId, false);
+    }
+    
+    private AuthenticationResult login(String usernameOrEmail, String password, String clientId, boolean interactive) {
         try {
             // Validate input
             if (usernameOrEmail == null || usernameOrEmail.trim().isEmpty()) {
@@ -46,30 +91,52 @@ public class AuthenticationService {
                 return AuthenticationResult.failure("Password is required");
             }
             
-            // Hash the provided password
-            String passwordHash = hashPassword(password);
+            // Reject throttled accounts and clients before touching the database
+            switch (loginRateLimiter.checkAttempt(usernameOrEmail, clientId)) {
+                case ACCOUNT_LOCKED:
+                    return AuthenticationResult.failure("Too many failed login attempts for this account. Please wait a few minutes and try again.");
+                case CLIENT_THROTTLED:
+                    return AuthenticationResult.failure("Too many login attempts. Please wait a minute and try again.");
+                default:
+                    break;
+            }
             
-            // Attempt authentication
-            Optional<User> userOpt = userDAO.authenticateUser(usernameOrEmail, passwordHash);
+            // Look up the account, then verify the password against its salted hash
+            Optional<User> userOpt = userDAO.findByUsernameOrEmail(usernameOrEmail);
+            PasswordHashingService.Verification verification =
+                passwordHashing.verify(password, userOpt.map(User::getPasswordHash).orElse(null));
             
-            if (userOpt.isPresent()) {
+            if (userOpt.isPresent() && verification.isMatched()) {
                 User user = userOpt.get();
                 
-                // Update last active timestamp
-                userDAO.updateLastActive(user.getUserId(), java.time.LocalDateTime.now());
-                
-                // Record login in authentication history
-                Integer authId = userDAO.recordLogin(user.getUserId(), "localhost", "LumosPath-Desktop");
+                // Update last active, upgrade legacy or weaker hashes and record the login with its
+                // session token in one transaction
+                LocalDateTime now = LocalDateTime.now();
+                String sessionToken = sessionService.newToken();
+                Integer authId = userDAO.recordSuccessfulLogin(user.getUserId(), clientId, "LumosPath-Desktop",
+                                                               verification.getUpgradedHash(),
+                                                               SessionService.hashToken(sessionToken),
+                                                               sessionService.expiryFrom(now));
+                if (verification.getUpgradedHash() != null) {
+                    user.setPasswordHash(verification.getUpgradedHash());
+                }
+                user.setLastActive(now);
+                sessionService.register(sessionToken, authId, user, now, interactive);
                 
                 // Set current session
                 this.currentUser = user;
                 this.currentAuthId = authId;
+                this.currentSessionToken = sessionToken;
                 
-                return AuthenticationResult.success(user, "Login successful");
+                loginRateLimiter.recordSuccess(usernameOrEmail);
+                return AuthenticationResult.success(user, "Login successful", sessionToken);
             } else {
+                loginRateLimiter.recordFailure(usernameOrEmail);
                 return AuthenticationResult.failure("Invalid username/email or password");
             }
             
+        } catch (RejectedExecutionException e) {
+            return AuthenticationResult.failure("Too many login attempts in progress, please try again shortly");
         } catch (SQLException e) {
             return AuthenticationResult.failure("Database error during login: " + e.getMessage());
         } catch (Exception e) {
@@ -89,13 +156,13 @@ public class AuthenticationService {
                 return AuthenticationResult.failure(validation.getMessage());
             }
             
-            // Check if username already exists
-            if (userDAO.existsByUsername(username)) {
+            // Check if username already exists (usually answered in memory)
+            if (!userDAO.isUsernameAvailable(username)) {
                 return AuthenticationResult.failure("Username already exists");
             }
             
-            // Check if email already exists
-            if (userDAO.existsByEmail(email)) {
+            // Check if email already exists (usually answered in memory)
+            if (!userDAO.isEmailAvailable(email)) {
                 return AuthenticationResult.failure("Email already exists");
             }
             
@@ -109,29 +176,87 @@ public class AuthenticationService {
             return AuthenticationResult.success(newUser, "Registration successful");
             
         } catch (SQLException e) {
+            // The UNIQUE indexes still catch a name taken between the check and the insert
+            if (UNIQUE_VIOLATION_SQL_STATE.equals(e.getSQLState())) {
+                return AuthenticationResult.failure("Username or email already exists");
+            }
             return AuthenticationResult.failure("Database error during registration: " + e.getMessage());
         } catch (Exception e) {
             return AuthenticationResult.failure("Unexpected error during registration: " + e.getMessage());
         }
     }
     
+    /**
+     * Check whether a username is still free, for live feedback while signing up.
+     * Errors count as available; registration re-checks against the database.
+     */
+    public boolean isUsernameAvailable(String username) {
+        try {
+            return userDAO.isUsernameAvailable(username);
+        } catch (SQLException e) {
+            System.err.println("Error checking username availability: " + e.getMessage());
+            return true;
+        }
+    }
+    
+    /**
+     * Check whether an email is still free, for live feedback while signing up.
+     * Errors count as available; registration re-checks against the database.
+     */
+    public boolean isEmailAvailable(String email) {
+        try {
+            return userDAO.isEmailAvailable(email);
+        } catch (SQLException e) {
+            System.err.println("Error checking email availability: " + e.getMessage());
+            return true;
+        }
+    }
+    
     /**
      * Logout current user
      */
     public boolean logout() {
         try {
-            if (currentAuthId != null) {
+            // Fall back to the login row when the session is no longer open, so the logout is never lost
+            boolean ended = currentSessionToken != null && sessionService.invalidate(currentSessionToken);
+            if (!ended && currentAuthId != null) {
                 userDAO.recordLogout(currentAuthId);
             }
-            currentUser = null;
-            currentAuthId = null;
             return true;
         } catch (SQLException e) {
             System.err.println("Error recording logout: " + e.getMessage());
+            return false;
+        } finally {
             currentUser = null;
             currentAuthId = null;
-            return false;
+            currentSessionToken = null;
+        }
+    }
+    
+    /**
+     * End the session identified by a token
+     * @return true if the session was open
+     */
+    public boolean logout(String sessionToken) {
+        if (sessionToken != null && sessionToken.equals(currentSessionToken)) {
+            return logout();
         }
+        return sessionService.invalidate(sessionToken);
+    }
+    
+    /**
+     * Record activity of the current desktop session, e.g. on navigation
+     */
+    public void touchSession() {
+        sessionService.touch(currentSessionToken);
+    }
+    
+    /**
+     * Resolve the user for a session token issued by login. Cached sessions are validated
+     * without touching the database.
+     */
+    public Optional<User> authenticate(String sessionToken) {
+        return sessionService.validate(sessionToken).map(UserSession::getUser);
     }
     
     /**
@@ -144,8 +269,8 @@ public class AuthenticationService {
         
         try {
             // Verify current password
-            String currentPasswordHash = hashPassword(currentPassword);
-            if (!currentPasswordHash.equals(currentUser.getPasswordHash())) {
+            if (currentPassword == null
+                    || !passwordHashing.verify(currentPassword, currentUser.getPasswordHash()).isMatched()) {
                 return AuthenticationResult.failure("Current password is incorrect");
             }
             
@@ -188,14 +313,10 @@ public class AuthenticationService {
     }
     
     /**
-     * Hash password using SHA-256 with salt
+     * Hash password with the configured PBKDF2 parameters and a random salt
      */
-    private String hashPassword(String password) throws Exception {
-        // For production, use a proper password hashing library like BCrypt
-        // This is a simplified implementation
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] hashedBytes = md.digest(password.getBytes("UTF-8"));
-        return Base64.getEncoder().encodeToString(hashedBytes);
+    private String hashPassword(String password) {
+        return passwordHashing.hash(password);
     }
     
     /**
@@ -260,24 +381,31 @@ public class AuthenticationService {
         private final boolean success;
         private final User user;
         private final String message;
+        private final String sessionToken;
         
-        private AuthenticationResult(boolean success, User user, String message) {
+        private AuthenticationResult(boolean success, User user, String message, String sessionToken) {
             this.success = success;
             this.user = user;
             this.message = message;
+            this.sessionToken = sessionToken;
         }
         
         public static AuthenticationResult success(User user, String message) {
-            return new AuthenticationResult(true, user, message);
+            return new AuthenticationResult(true, user, message, null);
+        }
+        
+        public static AuthenticationResult success(User user, String message, String sessionToken) {
+            return new AuthenticationResult(true, user, message, sessionToken);
         }
         
         public static AuthenticationResult failure(String message) {
-            return new AuthenticationResult(false, null, message);
+            return new AuthenticationResult(false, null, message, null);
         }
         
         public boolean isSuccess() { return success; }
         public User getUser() { return user; }
         public String getMessage() { return message; }
+        public String getSessionToken() { return sessionToken; }
     }
     
     /**
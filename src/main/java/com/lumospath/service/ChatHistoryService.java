@@ -1,8 +1,11 @@
 package com.lumospath.service;
 
+import com.lumospath.chatbot.BotReply;
 import com.lumospath.dao.ChatLogDAO;
 import com.lumospath.dao.impl.ChatLogDAOImpl;
 import com.lumospath.model.ChatLog;
+import com.lumospath.model.ChatSearchResult;
+import com.lumospath.util.MetricsRegistry;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -16,7 +19,11 @@ public class ChatHistoryService {
     private final ChatLogDAO chatLogDAO;
 
     public ChatHistoryService() {
-        this.chatLogDAO = new ChatLogDAOImpl();
+        this(MetricsRegistry.instrument(ChatLogDAO.class, new ChatLogDAOImpl(), "dao.ChatLogDAO"));
+    }
+
+    public ChatHistoryService(ChatLogDAO chatLogDAO) {
+        this.chatLogDAO = chatLogDAO;
     }
 
     /**
@@ -30,19 +37,34 @@ public class ChatHistoryService {
      */
     public ChatLog saveChatLog(Integer userId, String userMessage, String botResponse, 
                               Double sentimentScore, String detectedEmotion) {
+        return saveChatLog(new ChatLog(userId, userMessage, botResponse, sentimentScore, detectedEmotion));
+    }
+
+    /**
+     * Save a chat interaction with the analysis and timings the chatbot produced for it
+     * @param userId User ID (null for anonymous users)
+     * @param userMessage The user's message
+     * @param reply The chatbot's reply
+     * @return The saved ChatLog
+     */
+    public ChatLog saveChatLog(Integer userId, String userMessage, BotReply reply) {
+        ChatLog chatLog = new ChatLog(userId, userMessage, reply.getText(), reply.getSentimentScore(), reply.getDetectedEmotion());
+        chatLog.setAnalysisMicros(reply.getAnalysisNanos() / 1_000);
+        chatLog.setResponseMicros(reply.getTotalNanos() / 1_000);
+        return saveChatLog(chatLog);
+    }
+
+    private ChatLog saveChatLog(ChatLog chatLog) {
+        // Don't save for anonymous users (userId is null or 0); they get a transient chat log
+        if (chatLog.getUserId() == null || chatLog.getUserId() <= 0) {
+            return chatLog;
+        }
         try {
-            // Don't save for anonymous users (userId is null or 0)
-            if (userId == null || userId <= 0) {
-                // Return a transient chat log for anonymous users
-                return new ChatLog(userId, userMessage, botResponse, sentimentScore, detectedEmotion);
-            }
-            
-            ChatLog chatLog = new ChatLog(userId, userMessage, botResponse, sentimentScore, detectedEmotion);
             return chatLogDAO.save(chatLog);
         } catch (SQLException e) {
             System.err.println("Error saving chat log: " + e.getMessage());
             // Return a transient chat log if database save fails
-            return new ChatLog(userId, userMessage, botResponse, sentimentScore, detectedEmotion);
+            return chatLog;
         }
     }
 
@@ -81,6 +103,22 @@ public class ChatHistoryService {
         }
     }
 
+    /**
+     * Get one page of a user's chat history older than a position, newest first
+     * @param userId The user ID
+     * @param before Oldest chat log of the previous page; its creation time and ID are the page boundary
+     * @param pageSize Maximum number of entries to return
+     * @return Chat logs older than before, newest first
+     * @throws SQLException If the page cannot be read; unlike the other lookups this is not turned into an
+     *         empty list, which the caller would take as the end of the history
+     */
+    public List<ChatLog> getChatHistoryPage(Integer userId, ChatLog before, int pageSize) throws SQLException {
+        if (userId == null || userId <= 0) {
+            return new ArrayList<>(); // Anonymous users have no persistent history
+        }
+        return chatLogDAO.findPageBefore(userId, before.getCreatedAt(), before.getLogId(), pageSize);
+    }
+
     /**
      * Get chat history within a date range
      * @param userId The user ID
@@ -118,6 +156,26 @@ public class ChatHistoryService {
         }
     }
 
+    /**
+     * Search a user's past conversations, best match first. Matched words are wrapped in ** markers.
+     * @param userId The user ID
+     * @param query Free-text query
+     * @param pageSize Number of results per page
+     * @param after Last result of the previous page, or null for the first page
+     * @return One page of search results
+     */
+    public List<ChatSearchResult> searchChatHistory(Integer userId, String query, int pageSize, ChatSearchResult after) {
+        try {
+            if (userId == null || userId <= 0 || query == null || query.isBlank()) {
+                return new ArrayList<>();
+            }
+            return chatLogDAO.searchByText(userId, query, pageSize, after);
+        } catch (SQLException e) {
+            System.err.println("Error searching chat history: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Count total chat interactions for a user
      * @param userId The user ID
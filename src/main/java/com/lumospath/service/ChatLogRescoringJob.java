@@ -0,0 +1,324 @@
+package com.lumospath.service;
+
+import com.lumospath.ApplicationContext;
+import com.lumospath.chatbot.BotReply;
+import com.lumospath.chatbot.LumosBot;
+import com.lumospath.dao.ChatLogDAO;
+import com.lumospath.dao.JobCheckpointDAO;
+import com.lumospath.dao.impl.JobCheckpointDAOImpl;
+import com.lumospath.model.ChatLog;
+import com.lumospath.util.DatabaseUtil;
+import com.lumospath.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resumable backfill that re-runs the chatbot's sentiment and emotion analyzers over stored chat logs.
+ * Logs are read in log ID order a page at a time (keyset paging, so every read is an index range
+ * scan however far the job has got), scored in parallel on a fork-join pool and written back with
+ * one JDBC batch per page. The last log ID of each page is saved as a checkpoint, so a stopped or
+ * crashed run resumes where it left off; scoring a page twice gives the same result.
+ * <p>
+ * Every page is its own short transaction and the job sleeps between pages to stay under a row
+ * rate, so live chat saves are only ever blocked for one batch. By default only logs saved without
+ * analysis are visited, and a log analyzed by a live save in the meantime is never overwritten.
+ * <p>
+ * Usage: java -cp target/classes:... com.lumospath.service.ChatLogRescoringJob [--all] [--restart]
+ * [--batch-size=N] [--rows-per-second=N] [--threads=N]
+ * --all re-scores every log (after the analyzers changed), with its own checkpoint; --restart
+ * drops the checkpoint first.
+ */
+public class ChatLogRescoringJob {
+    public static final String JOB_NAME = "chat_log_rescoring";
+    public static final String ALL_JOB_NAME = "chat_log_rescoring_all";
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_ROWS_PER_SECOND = 5_000;
+
+    // Rows scored by one fork-join task before it stops splitting
+    private static final int SCORE_THRESHOLD = 64;
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = 10_000_000_000L;
+
+    private final ChatLogDAO chatLogDAO;
+    private final JobCheckpointDAO checkpointDAO;
+    private final LumosBot analyzer;
+    private final int batchSize;
+    private final int rowsPerSecond;
+    private final int parallelism;
+    private final boolean rescoreAll;
+
+    private volatile boolean stopRequested;
+
+    /**
+     * @param analyzer Chatbot whose analyzers score the messages; only its stateless analyze() is used
+     * @param batchSize Logs read, scored and written per page
+     * @param rowsPerSecond Maximum rate, or 0 for no limit
+     * @param parallelism Scoring threads
+     * @param rescoreAll Visit every log instead of only logs saved without analysis
+     */
+    public ChatLogRescoringJob(ChatLogDAO chatLogDAO, JobCheckpointDAO checkpointDAO, LumosBot analyzer,
+                               int batchSize, int rowsPerSecond, int parallelism, boolean rescoreAll) {
+        this.chatLogDAO = chatLogDAO;
+        this.checkpointDAO = checkpointDAO;
+        this.analyzer = analyzer;
+        this.batchSize = Math.max(1, batchSize);
+        this.rowsPerSecond = Math.max(0, rowsPerSecond);
+        this.parallelism = Math.max(1, parallelism);
+        this.rescoreAll = rescoreAll;
+    }
+
+    public String getJobName() {
+        return rescoreAll ? ALL_JOB_NAME : JOB_NAME;
+    }
+
+    /**
+     * Ask a running job to stop after the current page; its checkpoint is kept
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Drop the checkpoint, so the next run starts from the first log
+     */
+    public void resetCheckpoint() {
+        try {
+            checkpointDAO.delete(getJobName());
+        } catch (SQLException e) {
+            System.err.println("Error resetting checkpoint of " + getJobName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-score logs from the last checkpoint until none are left or a stop is requested
+     * @return What this run did
+     */
+    public Result run() {
+        String jobName = getJobName();
+        boolean unanalyzedOnly = !rescoreAll;
+        long start = System.nanoTime();
+        long processed = 0;
+        long updated = 0;
+        boolean completed = false;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("lumospath-rescore-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        try {
+            Long checkpoint = checkpointDAO.findLastKey(jobName);
+            int lastLogId = checkpoint == null ? 0 : checkpoint.intValue();
+            long processedBefore = checkpointDAO.findProcessed(jobName);
+            long total = chatLogDAO.countAfter(lastLogId, unanalyzedOnly);
+            System.out.println("🔁 " + jobName + ": " + total + " chat logs to score after log ID " + lastLogId
+                    + " (batch " + batchSize + ", " + parallelism + " threads, "
+                    + (rowsPerSecond > 0 ? rowsPerSecond + " rows/s" : "no rate limit") + ")");
+
+            long lastProgressLog = start;
+            while (!stopRequested) {
+                long pageStart = System.nanoTime();
+                List<ChatLog> page = chatLogDAO.findPageAfter(lastLogId, unanalyzedOnly, batchSize);
+                MetricsRegistry.recordSince("job.chatRescore.read", pageStart);
+                if (page.isEmpty()) {
+                    completed = true;
+                    break;
+                }
+
+                long scoreStart = System.nanoTime();
+                pool.invoke(new ScoreTask(page, 0, page.size()));
+                MetricsRegistry.recordSince("job.chatRescore.score", scoreStart);
+
+                long writeStart = System.nanoTime();
+                int pageUpdated = chatLogDAO.updateAnalysis(page, unanalyzedOnly);
+                lastLogId = page.get(page.size() - 1).getLogId();
+                processed += page.size();
+                updated += pageUpdated;
+                checkpointDAO.save(jobName, lastLogId, processedBefore + processed);
+                MetricsRegistry.recordSince("job.chatRescore.write", writeStart);
+
+                MetricsRegistry.counter("job.chatRescore.rows").add(page.size());
+                MetricsRegistry.counter("job.chatRescore.updated").add(pageUpdated);
+                MetricsRegistry.counter("job.chatRescore.batches").increment();
+                MetricsRegistry.recordSince("job.chatRescore.batch", pageStart);
+
+                long now = System.nanoTime();
+                if (now - lastProgressLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastProgressLog = now;
+                    logProgress(jobName, processed, total, now - start, lastLogId);
+                }
+                if (page.size() < batchSize) {
+                    completed = true;
+                    break;
+                }
+                throttle(page.size(), pageStart);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error re-scoring chat logs: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+        }
+
+        Result result = new Result(processed, updated, System.nanoTime() - start, completed);
+        System.out.println("🔁 " + jobName + (completed ? " finished: " : " stopped: ") + result);
+        return result;
+    }
+
+    /**
+     * Sleep long enough that this page does not exceed the row rate
+     */
+    private void throttle(int rows, long pageStartNanos) throws InterruptedException {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        long targetNanos = rows * 1_000_000_000L / rowsPerSecond;
+        long remainingNanos = targetNanos - (System.nanoTime() - pageStartNanos);
+        if (remainingNanos > 0) {
+            MetricsRegistry.histogram("job.chatRescore.throttle").record(remainingNanos);
+            Thread.sleep(remainingNanos / 1_000_000, (int) (remainingNanos % 1_000_000));
+        }
+    }
+
+    private static void logProgress(String jobName, long processed, long total, long elapsedNanos, int lastLogId) {
+        double rate = processed * 1e9 / Math.max(1, elapsedNanos);
+        long remaining = Math.max(0, total - processed);
+        System.out.printf("🔁 %s: %d/%d logs (%.0f%%), %.0f logs/s, ETA %.0f s, last log ID %d%n",
+                jobName, processed, total, total == 0 ? 100.0 : processed * 100.0 / total, rate,
+                rate > 0 ? remaining / rate : 0.0, lastLogId);
+    }
+
+    /**
+     * Scores a slice of a page, splitting it in half until it is small enough
+     */
+    private final class ScoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ChatLog> logs;
+        private final int from;
+        private final int to;
+
+        ScoreTask(List<ChatLog> logs, int from, int to) {
+            this.logs = logs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCORE_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    ChatLog log = logs.get(i);
+                    BotReply analysis = analyzer.analyze(log.getUserMessage());
+                    log.setSentimentScore(analysis.getSentimentScore());
+                    log.setDetectedEmotion(analysis.getDetectedEmotion());
+                    log.setAnalysisMicros(analysis.getAnalysisNanos() / 1_000);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScoreTask(logs, from, middle), new ScoreTask(logs, middle, to));
+        }
+    }
+
+    /**
+     * Outcome of one run
+     */
+    public static final class Result {
+        private final long processed;
+        private final long updated;
+        private final long elapsedNanos;
+        private final boolean completed;
+
+        Result(long processed, long updated, long elapsedNanos, boolean completed) {
+            this.processed = processed;
+            this.updated = updated;
+            this.elapsedNanos = elapsedNanos;
+            this.completed = completed;
+        }
+
+        /** Logs scored in this run */
+        public long getProcessed() { return processed; }
+        /** Logs written; lower than processed when live saves analyzed some logs first */
+        public long getUpdated() { return updated; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        /** Whether every log was visited; false when stopped or failed, in which case the next run resumes */
+        public boolean isCompleted() { return completed; }
+
+        @Override
+        public String toString() {
+            return String.format("%d logs scored, %d updated in %.1f s (%.0f logs/s)", processed, updated,
+                    elapsedNanos / 1e9, processed * 1e9 / Math.max(1, elapsedNanos));
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean rescoreAll = false;
+        boolean restart = false;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        int rowsPerSecond = DEFAULT_ROWS_PER_SECOND;
+        // Leave a core for the application and the database
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        for (String arg : args) {
+            if (arg.equals("--all")) {
+                rescoreAll = true;
+            } else if (arg.equals("--restart")) {
+                restart = true;
+            } else if (arg.startsWith("--batch-size=")) {
+                batchSize = Integer.parseInt(arg.substring("--batch-size=".length()));
+            } else if (arg.startsWith("--rows-per-second=")) {
+                rowsPerSecond = Integer.parseInt(arg.substring("--rows-per-second=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.err.println("Usage: ChatLogRescoringJob [--all] [--restart] [--batch-size=N] [--rows-per-second=N] [--threads=N]");
+                System.exit(2);
+            }
+        }
+
+        DatabaseUtil.initializeDatabase();
+        ApplicationContext context = ApplicationContext.get();
+        JobCheckpointDAO checkpointDAO = MetricsRegistry.instrument(JobCheckpointDAO.class, new JobCheckpointDAOImpl(),
+                                                                    "dao.JobCheckpointDAO");
+        ChatLogRescoringJob job = new ChatLogRescoringJob(context.getChatLogDAO(), checkpointDAO, context.getChatbot(),
+                                                          batchSize, rowsPerSecond, threads, rescoreAll);
+        if (restart) {
+            job.resetCheckpoint();
+        }
+
+        // Ctrl+C finishes the current page so the checkpoint matches what was written. The hook waits
+        // for main to count down, and main must not call System.exit once the JVM is already exiting.
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (done.getCount() == 0) {
+                return;
+            }
+            interrupted.set(true);
+            job.requestStop();
+            try {
+                done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        Result result = job.run();
+        MetricsRegistry.logSnapshot();
+        done.countDown();
+        if (!interrupted.get()) {
+            System.exit(result.isCompleted() ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lumospath.service;
+
+import com.lumospath.chatbot.CrisisDetector;
+import com.lumospath.dao.CrisisEscalationDAO;
+import com.lumospath.dao.impl.CrisisEscalationDAOImpl;
+import com.lumospath.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Records crisis escalations raised by the chatbot. Recording never runs on the caller's thread,
+ * so the safety reply is shown without waiting for the database.
+ */
+public class CrisisEscalationService {
+    private static final ExecutorService RECORD_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lumospath-crisis-escalation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CrisisEscalationDAO escalationDAO;
+
+    public CrisisEscalationService() {
+        this(MetricsRegistry.instrument(CrisisEscalationDAO.class, new CrisisEscalationDAOImpl(), "dao.CrisisEscalationDAO"));
+    }
+
+    public CrisisEscalationService(CrisisEscalationDAO escalationDAO) {
+        this.escalationDAO = escalationDAO;
+    }
+
+    /**
+     * Count the escalation and store it in the background
+     * @param userId User ID (null or 0 for anonymous users)
+     * @param match The crisis phrase that was found
+     */
+    public void recordAsync(Integer userId, CrisisDetector.Match match) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        RECORD_EXECUTOR.execute(() -> {
+            MetricsRegistry.counter("crisis.escalations." + match.getLevel().name().toLowerCase()).increment();
+            try {
+                escalationDAO.save(userId, match.getLevel().name(), match.getPhrase(),
+                                   match.getDetectionNanos() / 1_000, receivedAt);
+            } catch (SQLException e) {
+                MetricsRegistry.counter("crisis.escalations.errors").increment();
+                System.err.println("Error recording crisis escalation: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Get the number of escalations recorded in the last given number of hours
+     */
+    public long getRecentEscalationCount(int hours) {
+        try {
+            return escalationDAO.countSince(LocalDateTime.now().minusHours(hours));
+        } catch (SQLException e) {
+            System.err.println("Error counting crisis escalations: " + e.getMessage());
+            return 0;
+        }
+    }
+}
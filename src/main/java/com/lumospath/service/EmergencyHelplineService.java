@@ -175,6 +175,26 @@ public class EmergencyHelplineService {
         System.out.println("⚠️  If this is an emergency, please call these numbers immediately!");
         System.out.println("=" .repeat(60));
 
+        for (EmergencyContact contact : getCrisisContacts()) {
+            System.out.println("\n🔴 " + contact.getName().toUpperCase());
+            System.out.println("   📞 " + contact.getPhoneNumber());
+            System.out.println("   📍 " + contact.getLocation());
+            System.out.println("   ℹ️  " + contact.getDescription());
+            if (contact.isAvailable24x7()) {
+                System.out.println("   ⏰ Available 24x7");
+            }
+            System.out.println();
+        }
+
+        System.out.println("💝 Please remember: You matter. Your life is valuable. Help is available.");
+        System.out.println("🤗 These trained professionals want to support you through this difficult time.");
+    }
+
+    /**
+     * Get the contacts for someone in crisis: suicide prevention and crisis counseling lines that
+     * are available 24x7, or all of them if none are
+     */
+    public List<EmergencyContact> getCrisisContacts() {
         List<EmergencyContact> crisisContacts = emergencyContacts.stream()
                 .filter(contact -> contact.getType() == ContactType.SUICIDE_PREVENTION || 
                                  contact.getType() == ContactType.CRISIS_COUNSELING)
@@ -188,20 +208,7 @@ public class EmergencyHelplineService {
                                      contact.getType() == ContactType.CRISIS_COUNSELING)
                     .collect(Collectors.toList());
         }
-
-        for (EmergencyContact contact : crisisContacts) {
-            System.out.println("\n🔴 " + contact.getName().toUpperCase());
-            System.out.println("   📞 " + contact.getPhoneNumber());
-            System.out.println("   📍 " + contact.getLocation());
-            System.out.println("   ℹ️  " + contact.getDescription());
-            if (contact.isAvailable24x7()) {
-                System.out.println("   ⏰ Available 24x7");
-            }
-            System.out.println();
-        }
-
-        System.out.println("💝 Please remember: You matter. Your life is valuable. Help is available.");
-        System.out.println("🤗 These trained professionals want to support you through this difficult time.");
+        return crisisContacts;
     }
 
     /**
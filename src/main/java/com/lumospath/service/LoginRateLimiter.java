@@ -0,0 +1,77 @@
+package com.lumospath.service;
+
+import com.lumospath.util.MetricsRegistry;
+import com.lumospath.util.SecurityConfig;
+import com.lumospath.util.SlidingWindowRateLimiter;
+
+import java.util.Locale;
+
+/**
+ * Login throttling: failed attempts are tracked per account and all attempts per client, each in a
+ * sliding window. Checks are purely in-memory, so credential-stuffing bursts are turned away before
+ * they reach the database or the password hashing pool.
+ */
+public class LoginRateLimiter {
+    private final SlidingWindowRateLimiter accountFailures;
+    private final SlidingWindowRateLimiter clientAttempts;
+
+    public LoginRateLimiter() {
+        this(SecurityConfig.getInt("security.login.account_max_failures", 5),
+             SecurityConfig.getLong("security.login.account_window_seconds", 900),
+             SecurityConfig.getInt("security.login.client_max_attempts", 20),
+             SecurityConfig.getLong("security.login.client_window_seconds", 60),
+             SecurityConfig.getInt("security.login.max_tracked_keys", 10_000));
+    }
+
+    public LoginRateLimiter(int maxAccountFailures, long accountWindowSeconds,
+                            int maxClientAttempts, long clientWindowSeconds, int maxTrackedKeys) {
+        this.accountFailures = new SlidingWindowRateLimiter(maxAccountFailures, accountWindowSeconds * 1000, maxTrackedKeys);
+        this.clientAttempts = new SlidingWindowRateLimiter(maxClientAttempts, clientWindowSeconds * 1000, maxTrackedKeys);
+    }
+
+    /**
+     * Check whether a login attempt may proceed. Allowed attempts count against the client's budget.
+     */
+    public Decision checkAttempt(String usernameOrEmail, String clientId) {
+        if (accountFailures.isLimited(accountKey(usernameOrEmail))) {
+            MetricsRegistry.counter("auth.rateLimited.account").increment();
+            return Decision.ACCOUNT_LOCKED;
+        }
+        if (!clientAttempts.tryAcquire(clientKey(clientId))) {
+            MetricsRegistry.counter("auth.rateLimited.client").increment();
+            return Decision.CLIENT_THROTTLED;
+        }
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Count a failed login against the account
+     */
+    public void recordFailure(String usernameOrEmail) {
+        accountFailures.record(accountKey(usernameOrEmail));
+    }
+
+    /**
+     * Clear the account's failure history after a successful login
+     */
+    public void recordSuccess(String usernameOrEmail) {
+        accountFailures.reset(accountKey(usernameOrEmail));
+    }
+
+    private static String accountKey(String usernameOrEmail) {
+        return usernameOrEmail == null ? "" : usernameOrEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String clientKey(String clientId) {
+        return clientId == null ? "unknown" : clientId;
+    }
+
+    /**
+     * Outcome of a rate limit check
+     */
+    public enum Decision {
+        ALLOWED,
+        ACCOUNT_LOCKED,
+        CLIENT_THROTTLED
+    }
+}
@@ -4,6 +4,7 @@ import com.lumospath.dao.impl.MoodEntryDAOImpl;
 import com.lumospath.dao.MoodEntryDAO;
 import com.lumospath.model.MoodEntry;
 import com.lumospath.model.MoodType;
+import com.lumospath.util.MetricsRegistry;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,8 +19,16 @@ public class MoodTrackingService {
     private Scanner scanner;
 
     public MoodTrackingService() {
-        this.moodEntryDAO = new MoodEntryDAOImpl();
-        this.scanner = new Scanner(System.in);
+        this(MetricsRegistry.instrument(MoodEntryDAO.class, new MoodEntryDAOImpl(), "dao.MoodEntryDAO"),
+             new Scanner(System.in));
+    }
+
+    /**
+     * @param scanner Console input used by the interactive methods
+     */
+    public MoodTrackingService(MoodEntryDAO moodEntryDAO, Scanner scanner) {
+        this.moodEntryDAO = moodEntryDAO;
+        this.scanner = scanner;
     }
 
     /**
@@ -210,19 +219,87 @@ public class MoodTrackingService {
         }
     }
 
+    /**
+     * Get one page of a user's mood entries, newest first
+     * @param after Last entry of the previous page, or null for the first page
+     * @param pageSize Number of entries per page
+     */
+    public List<MoodEntry> getMoodEntryPage(int userId, MoodEntry after, int pageSize) {
+        try {
+            if (userId > 0 && after == null) {
+                return moodEntryDAO.findPageBefore(userId, null, 0, pageSize);
+            } else if (userId > 0 && after.getCreatedAt() != null) {
+                return moodEntryDAO.findPageBefore(userId, after.getCreatedAt(), after.getEntryId(), pageSize);
+            } else {
+                return new ArrayList<>(); // Anonymous users have no persistent history
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving mood entry page: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Search a user's journal (description, trigger and tags), best match first
+     * @param page Zero-based page number
+     * @param pageSize Number of entries per page
+     */
+    public List<MoodEntry> searchMoodEntries(int userId, String query, int page, int pageSize) {
+        try {
+            if (userId > 0 && query != null && !query.isBlank()) {
+                return moodEntryDAO.searchByText(userId, query, pageSize, page * pageSize);
+            } else {
+                return new ArrayList<>();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching mood entries: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Get a user's mood entries carrying a tag, newest first
+     */
+    public List<MoodEntry> getMoodEntriesByTag(int userId, String tag) {
+        try {
+            if (userId > 0 && tag != null && !tag.isBlank()) {
+                return moodEntryDAO.findByUserIdAndTag(userId, tag);
+            } else {
+                return new ArrayList<>();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving mood entries by tag: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Get tag usage counts for a user over the last given number of days
+     */
+    public List<Object[]> getTagFrequencies(int userId, int days) {
+        try {
+            if (userId > 0) {
+                return moodEntryDAO.getTagFrequencies(userId, days);
+            } else {
+                return new ArrayList<>();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving tag frequencies: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Get average mood score for a user
      */
     public double getAverageMoodScore(int userId) {
-        List<MoodEntry> userEntries = getUserMoodEntries(userId);
-        if (userEntries.isEmpty()) {
+        try {
+            // Aggregated in the database so long histories are never loaded just for this number
+            return userId > 0 ? moodEntryDAO.getAverageMoodScale(userId) : 0.0;
+        } catch (SQLException e) {
+            System.err.println("Error calculating average mood score: " + e.getMessage());
             return 0.0;
         }
-        
-        return userEntries.stream()
-                .mapToInt(MoodEntry::getMoodScale)
-                .average()
-                .orElse(0.0);
     }
     
     /**
@@ -295,8 +372,7 @@ public class MoodTrackingService {
     public boolean deleteUserMoodHistory(int userId) {
         try {
             if (userId > 0) {
-                MoodEntryDAOImpl moodDAO = (MoodEntryDAOImpl) moodEntryDAO;
-                int deletedCount = moodDAO.deleteAllByUserId(userId);
+                int deletedCount = moodEntryDAO.deleteAllByUserId(userId);
                 return deletedCount > 0;
             }
             return false;
@@ -0,0 +1,183 @@
+package com.lumospath.service;
+
+import com.lumospath.util.LegacySha256PasswordHasher;
+import com.lumospath.util.MetricsRegistry;
+import com.lumospath.util.PasswordHasher;
+import com.lumospath.util.Pbkdf2PasswordHasher;
+import com.lumospath.util.SecurityConfig;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for hashing and verifying passwords on a dedicated, bounded worker pool.
+ * Password hashing is deliberately slow, so it never runs on the caller's thread: a fixed number of
+ * workers with a bounded queue caps the CPU spent on logins, and a burst beyond the queue capacity is
+ * rejected with a RejectedExecutionException instead of starving the rest of the application.
+ */
+public class PasswordHashingService {
+    private static final ThreadPoolExecutor POOL = createPool();
+
+    private final PasswordHasher currentHasher;
+    private final List<PasswordHasher> hashers;
+    private final long timeoutMillis;
+    private volatile String dummyHash;
+
+    public PasswordHashingService() {
+        this(new Pbkdf2PasswordHasher(
+                SecurityConfig.getInt("security.password.pbkdf2.iterations", 600_000),
+                SecurityConfig.getInt("security.password.pbkdf2.salt_bytes", 16),
+                SecurityConfig.getInt("security.password.pbkdf2.key_bits", 256)));
+    }
+
+    public PasswordHashingService(PasswordHasher currentHasher) {
+        this.currentHasher = currentHasher;
+        this.hashers = List.of(currentHasher, new LegacySha256PasswordHasher());
+        this.timeoutMillis = SecurityConfig.getLong("security.password.timeout_ms", 10_000);
+    }
+
+    /**
+     * Hash a password with the current algorithm and parameters
+     * @return Encoded hash suitable for storing in users.password_hash
+     */
+    public String hash(String password) {
+        return submit("auth.passwordHash", () -> hashNow(password));
+    }
+
+    /**
+     * Verify a password against a stored hash. When the hash matches but uses an older format or weaker
+     * parameters, a replacement hash is computed in the same task and returned for the caller to store.
+     * @param encodedHash Stored hash, or null when the account does not exist (a dummy hash is checked
+     *                    instead so unknown accounts take as long as wrong passwords)
+     */
+    public Verification verify(String password, String encodedHash) {
+        return submit("auth.passwordVerify", () -> {
+            char[] chars = password.toCharArray();
+            try {
+                PasswordHasher hasher = hasherFor(encodedHash);
+                if (encodedHash == null || hasher == null) {
+                    currentHasher.matches(chars, getDummyHash());
+                    return Verification.FAILED;
+                }
+                if (!hasher.matches(chars, encodedHash)) {
+                    return Verification.FAILED;
+                }
+                if (hasher != currentHasher || hasher.needsRehash(encodedHash)) {
+                    MetricsRegistry.counter("auth.passwordRehash").increment();
+                    return new Verification(true, currentHasher.hash(chars));
+                }
+                return new Verification(true, null);
+            } finally {
+                Arrays.fill(chars, '\0');
+            }
+        });
+    }
+
+    /**
+     * Number of hashing tasks waiting for a worker
+     */
+    public static int getQueuedTasks() {
+        return POOL.getQueue().size();
+    }
+
+    private String hashNow(String password) {
+        char[] chars = password.toCharArray();
+        try {
+            return currentHasher.hash(chars);
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private PasswordHasher hasherFor(String encodedHash) {
+        for (PasswordHasher hasher : hashers) {
+            if (hasher.supports(encodedHash)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    private String getDummyHash() {
+        if (dummyHash == null) {
+            dummyHash = hashNow("lumospath-dummy-password");
+        }
+        return dummyHash;
+    }
+
+    private <T> T submit(String metric, Callable<T> task) {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = POOL.submit(task);
+        } catch (RejectedExecutionException e) {
+            MetricsRegistry.counter(metric + ".rejected").increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            MetricsRegistry.counter(metric + ".timeouts").increment();
+            throw new IllegalStateException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            MetricsRegistry.recordSince(metric, start);
+        }
+    }
+
+    private static ThreadPoolExecutor createPool() {
+        int threads = SecurityConfig.getInt("security.password.pool.threads", 0);
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int queueCapacity = Math.max(1, SecurityConfig.getInt("security.password.pool.queue_capacity", 64));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "lumospath-password-hasher-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Outcome of a password check
+     */
+    public static class Verification {
+        private static final Verification FAILED = new Verification(false, null);
+
+        private final boolean matched;
+        private final String upgradedHash;
+
+        private Verification(boolean matched, String upgradedHash) {
+            this.matched = matched;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean isMatched() { return matched; }
+
+        /**
+         * Replacement hash to store, or null if the stored hash is already current
+         */
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+}
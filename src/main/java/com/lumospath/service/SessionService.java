@@ -0,0 +1,288 @@
+package com.lumospath.service;
+
+import com.lumospath.dao.UserDAO;
+import com.lumospath.model.User;
+import com.lumospath.model.UserSession;
+import com.lumospath.util.MetricsRegistry;
+import com.lumospath.util.SecurityConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for opaque session tokens backed by user_auth_history.
+ * Only a SHA-256 of each token is stored. Open sessions are cached in memory, so validating a
+ * cached token never touches the database; last-seen times are written back in batches by a
+ * background sweeper, which also ends sessions that expired or went idle. The desktop login of this
+ * process is registered as interactive: it is never swept, and only its own logout ends it. The cache
+ * is bounded: when full, the least recently used session is dropped from memory and reloaded on its
+ * next use.
+ */
+public class SessionService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final UserDAO userDAO;
+    private final long ttlMinutes;
+    private final long idleTimeoutMinutes;
+    private final int maxSessions;
+    private final long sweepIntervalSeconds;
+
+    private final Map<String, UserSession> sessions = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService sweeper;
+
+    public SessionService(UserDAO userDAO) {
+        this(userDAO,
+             SecurityConfig.getLong("security.session.ttl_minutes", 720),
+             SecurityConfig.getLong("security.session.idle_timeout_minutes", 30),
+             SecurityConfig.getInt("security.session.max_sessions", 10_000),
+             SecurityConfig.getLong("security.session.sweep_interval_seconds", 60));
+    }
+
+    public SessionService(UserDAO userDAO, long ttlMinutes, long idleTimeoutMinutes, int maxSessions, long sweepIntervalSeconds) {
+        this.userDAO = userDAO;
+        this.ttlMinutes = ttlMinutes;
+        this.idleTimeoutMinutes = idleTimeoutMinutes;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+    }
+
+    /**
+     * Generate a new random session token (256 bits, URL-safe Base64)
+     */
+    public String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hash a token for storage and lookup
+     */
+    public static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Absolute expiry for a session starting now
+     */
+    public LocalDateTime expiryFrom(LocalDateTime start) {
+        return start.plusMinutes(ttlMinutes);
+    }
+
+    /**
+     * Cache a session whose login has already been recorded in user_auth_history
+     * @param interactive Whether the session is the desktop login of this process (see {@link UserSession})
+     */
+    public UserSession register(String token, Integer authId, User user, LocalDateTime createdAt, boolean interactive) {
+        UserSession session = new UserSession(hashToken(token), authId, user, createdAt, expiryFrom(createdAt),
+                                              createdAt, interactive);
+        cache(session);
+        startSweeper();
+        return session;
+    }
+
+    /**
+     * Mark a cached session as used now, without validating it. The new last-seen time is written
+     * by the next sweep.
+     */
+    public void touch(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        UserSession session = sessions.get(hashToken(token));
+        if (session != null) {
+            session.setLastAccessedAt(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Validate a token. Cached sessions are checked in memory only; unknown tokens are looked up once
+     * in user_auth_history and cached if the session is still open.
+     * @return The session if the token is valid, otherwise empty
+     */
+    public Optional<UserSession> validate(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String tokenHash = hashToken(token);
+
+        UserSession session = sessions.get(tokenHash);
+        if (session != null) {
+            MetricsRegistry.counter("session.cache.hits").increment();
+            if (session.isExpired(now, idleTimeoutMinutes)) {
+                // The token stops working, but an interactive session stays open until its logout
+                if (!session.isInteractive()) {
+                    end(session);
+                }
+                return Optional.empty();
+            }
+            session.setLastAccessedAt(now);
+            return Optional.of(session);
+        }
+
+        MetricsRegistry.counter("session.cache.misses").increment();
+        try {
+            Optional<UserSession> stored = userDAO.findActiveSession(tokenHash, now.minusMinutes(idleTimeoutMinutes));
+            stored.ifPresent(loaded -> {
+                loaded.setLastAccessedAt(now);
+                cache(loaded);
+                startSweeper();
+            });
+            return stored;
+        } catch (SQLException e) {
+            System.err.println("Error validating session: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * End a session (logout)
+     * @return true if the session was open
+     */
+    public boolean invalidate(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        UserSession session = sessions.remove(hashToken(token));
+        if (session == null) {
+            Optional<UserSession> stored = validate(token);
+            if (stored.isEmpty()) {
+                return false;
+            }
+            session = stored.get();
+            sessions.remove(session.getTokenHash());
+        }
+        return recordLogout(session);
+    }
+
+    /**
+     * End expired and idle sessions and persist last-seen times of active ones
+     */
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, LocalDateTime> touched = new HashMap<>();
+
+        Iterator<UserSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            UserSession session = iterator.next();
+            if (!session.isInteractive() && session.isExpired(now, idleTimeoutMinutes)) {
+                iterator.remove();
+                recordLogout(session);
+            } else if (session.getLastAccessedAt().isAfter(session.getLastPersistedAt())) {
+                touched.put(session.getAuthId(), session.getLastAccessedAt());
+                session.setLastPersistedAt(session.getLastAccessedAt());
+            }
+        }
+
+        try {
+            userDAO.touchSessions(touched);
+        } catch (SQLException e) {
+            System.err.println("Error persisting session activity: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of sessions currently cached
+     */
+    public int getCachedSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stop the background sweeper after a final sweep
+     */
+    public synchronized void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+            sweep();
+        }
+    }
+
+    private void cache(UserSession session) {
+        if (sessions.size() >= maxSessions && !sessions.containsKey(session.getTokenHash())) {
+            evictLeastRecentlyUsed();
+        }
+        sessions.put(session.getTokenHash(), session);
+    }
+
+    /**
+     * Drop the least recently used session from memory only; it stays valid in the database.
+     * Interactive sessions are never evicted.
+     */
+    private void evictLeastRecentlyUsed() {
+        UserSession oldest = null;
+        for (UserSession session : sessions.values()) {
+            if (session.isInteractive()) {
+                continue;
+            }
+            if (oldest == null || session.getLastAccessedAt().isBefore(oldest.getLastAccessedAt())) {
+                oldest = session;
+            }
+        }
+        if (oldest != null && sessions.remove(oldest.getTokenHash(), oldest)) {
+            MetricsRegistry.counter("session.cache.evictions").increment();
+            if (oldest.getLastAccessedAt().isAfter(oldest.getLastPersistedAt())) {
+                try {
+                    userDAO.touchSessions(Map.of(oldest.getAuthId(), oldest.getLastAccessedAt()));
+                } catch (SQLException e) {
+                    System.err.println("Error persisting session activity: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void end(UserSession session) {
+        if (sessions.remove(session.getTokenHash(), session)) {
+            recordLogout(session);
+        }
+    }
+
+    private boolean recordLogout(UserSession session) {
+        try {
+            return userDAO.recordLogout(session.getAuthId());
+        } catch (SQLException e) {
+            System.err.println("Error recording logout: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void startSweeper() {
+        if (sweeper != null || sweepIntervalSeconds <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lumospath-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                System.err.println("Error sweeping sessions: " + e.getMessage());
+            }
+        }, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+}
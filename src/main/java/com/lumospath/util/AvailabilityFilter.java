@@ -0,0 +1,105 @@
+package com.lumospath.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory front for "is this value already taken?" checks against a UNIQUE column.
+ * A Bloom filter over every stored value answers "definitely available" without a query; values the
+ * filter reports as possibly taken fall through to the database, and values the database then confirms
+ * as free are remembered in a small LRU negative cache so repeated checks (e.g. while the user types)
+ * do not query again. Values must be added on every insert; the UNIQUE index remains the final guard.
+ */
+public class AvailabilityFilter {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_CAPACITY = 10_000;
+
+    private final String metricPrefix;
+    private final Map<String, Boolean> negativeCache;
+    private volatile BloomFilter filter;
+
+    /**
+     * @param name Name used for metrics ("availability.name.*")
+     * @param negativeCacheSize Maximum number of confirmed-available values remembered
+     */
+    public AvailabilityFilter(String name, int negativeCacheSize) {
+        this.metricPrefix = "availability." + name;
+        this.negativeCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > negativeCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Check whether the filter has to be (re)built before it can answer
+     */
+    public boolean needsRebuild() {
+        BloomFilter current = filter;
+        return current == null || current.isSaturated();
+    }
+
+    /**
+     * Replace the filter with one built from every stored value
+     * @param values All values currently stored in the column
+     * @param count Number of values, used to size the filter with headroom for growth
+     */
+    public synchronized void rebuild(Iterable<String> values, long count) {
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_CAPACITY, count * 2), FALSE_POSITIVE_RATE);
+        for (String value : values) {
+            if (value != null) {
+                rebuilt.put(value);
+            }
+        }
+        filter = rebuilt;
+        synchronized (negativeCache) {
+            negativeCache.clear();
+        }
+    }
+
+    /**
+     * Record a newly stored value. Must run after the insert so a concurrent rebuild cannot miss it.
+     */
+    public synchronized void add(String value) {
+        if (value == null) {
+            return;
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(value);
+        }
+        synchronized (negativeCache) {
+            negativeCache.remove(value);
+        }
+    }
+
+    /**
+     * Answer from memory when possible
+     * @return true if the value is definitely available, false if the database has to be asked
+     */
+    public boolean isDefinitelyAvailable(String value) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(value)) {
+            MetricsRegistry.counter(metricPrefix + ".filterNegatives").increment();
+            return true;
+        }
+        synchronized (negativeCache) {
+            if (negativeCache.containsKey(value)) {
+                MetricsRegistry.counter(metricPrefix + ".negativeCacheHits").increment();
+                return true;
+            }
+        }
+        MetricsRegistry.counter(metricPrefix + ".databaseChecks").increment();
+        return false;
+    }
+
+    /**
+     * Remember that the database confirmed a value as available (a Bloom filter false positive)
+     */
+    public void recordAvailable(String value) {
+        synchronized (negativeCache) {
+            negativeCache.put(value, Boolean.TRUE);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.lumospath.util;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.sql.DataSource;
@@ -24,6 +25,15 @@ public class DatabaseUtil {
     private static String dbPassword = "";
     private static String dbDriver = "org.h2.Driver";
     
+    // Performance settings
+    private static boolean queryLoggingEnabled = false;
+    private static long metricsLogIntervalSeconds = 60;
+    
+    // Schema settings
+    private static boolean schemaAutoCreate = true;
+    private static boolean schemaAutoUpdate = true;
+    private static boolean insertDefaultData = true;
+    
     // Connection pool simulation (for production, use HikariCP or similar)
     private static final Map<Thread, Connection> connectionPool = new ConcurrentHashMap<>();
     private static final int MAX_CONNECTIONS = 10;
@@ -66,17 +76,47 @@ public class DatabaseUtil {
                 dbUser = props.getProperty("db.username", "sa");
                 dbPassword = props.getProperty("db.password", "");
                 dbDriver = props.getProperty("db.driver", "org.h2.Driver");
+                queryLoggingEnabled = Boolean.parseBoolean(props.getProperty("db.performance.enable_query_logging", "false"));
+                metricsLogIntervalSeconds = getLong(props, "db.performance.metrics_log_interval_seconds", 60);
+                schemaAutoCreate = Boolean.parseBoolean(props.getProperty("db.schema.auto_create", "true"));
+                schemaAutoUpdate = Boolean.parseBoolean(props.getProperty("db.schema.auto_update", "true"));
+                insertDefaultData = Boolean.parseBoolean(props.getProperty("db.schema.insert_default_data", "true"));
+                SlowQueryLog.configure(
+                    getLong(props, "db.performance.slow_query_threshold_ms", 200),
+                    Boolean.parseBoolean(props.getProperty("db.performance.slow_query_explain", "true")),
+                    props.getProperty("db.performance.slow_query_log_file", "logs/slow-queries.log"),
+                    getLong(props, "db.performance.slow_query_log_max_bytes", 5242880),
+                    (int) getLong(props, "db.performance.slow_query_buffer_size", 100));
                 input.close();
             }
-            
-            // Override with environment variables if available
-            dbUrl = System.getenv("LUMOS_DB_URL") != null ? System.getenv("LUMOS_DB_URL") : dbUrl;
-            dbUser = System.getenv("LUMOS_DB_USER") != null ? System.getenv("LUMOS_DB_USER") : dbUser;
-            dbPassword = System.getenv("LUMOS_DB_PASS") != null ? System.getenv("LUMOS_DB_PASS") : dbPassword;
-            
         } catch (IOException e) {
             System.out.println("Using default database configuration: " + e.getMessage());
         }
+        
+        // Override with environment variables if available
+        dbUrl = System.getenv("LUMOS_DB_URL") != null ? System.getenv("LUMOS_DB_URL") : dbUrl;
+        dbUser = System.getenv("LUMOS_DB_USER") != null ? System.getenv("LUMOS_DB_USER") : dbUser;
+        dbPassword = System.getenv("LUMOS_DB_PASS") != null ? System.getenv("LUMOS_DB_PASS") : dbPassword;
+        
+        if (queryLoggingEnabled) {
+            MetricsRegistry.startReporter(metricsLogIntervalSeconds);
+        }
+    }
+    
+    /**
+     * Read a numeric property, falling back to its default when it is malformed
+     */
+    private static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
     }
     
     /**
@@ -154,6 +194,8 @@ public class DatabaseUtil {
 
     /**
      * Initialize database tables
+     * @throws IllegalStateException if the database cannot be opened or a schema migration fails
+     *         (including a checksum mismatch); the application must not run on a half-migrated schema
      */
     public static void initializeDatabase() {
         try (Connection conn = getConnection()) {
@@ -161,207 +203,23 @@ public class DatabaseUtil {
             System.out.println("✅ Database initialized successfully!");
         } catch (SQLException e) {
             System.err.println("❌ Error initializing database: " + e.getMessage());
+            throw new IllegalStateException("Database initialization failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Create necessary tables
+     * Bring the schema up to date (see SchemaMigrations). An up-to-date database costs a single
+     * query; online index migrations continue in the background after this returns.
      */
     private static void createTables(Connection conn) throws SQLException {
-        // Users table
-        String createUsersTable = """
-            CREATE TABLE IF NOT EXISTS users (
-                user_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                username VARCHAR(255) UNIQUE,
-                email VARCHAR(255) UNIQUE,
-                password_hash VARCHAR(512),
-                first_name VARCHAR(255),
-                last_name VARCHAR(255),
-                age INTEGER,
-                location VARCHAR(255),
-                created_at TIMESTAMP NOT NULL,
-                last_active TIMESTAMP NOT NULL,
-                anonymous BOOLEAN DEFAULT FALSE
-            )
-        """;
-        
-        // User authentication history table
-        String createUserAuthHistoryTable = """
-            CREATE TABLE IF NOT EXISTS user_auth_history (
-                auth_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                user_id INTEGER NOT NULL,
-                login_time TIMESTAMP NOT NULL,
-                logout_time TIMESTAMP,
-                ip_address VARCHAR(255),
-                user_agent TEXT,
-                session_duration_minutes INTEGER,
-                FOREIGN KEY (user_id) REFERENCES users (user_id)
-            )
-        """;
-
-        // Mood entries table
-        String createMoodEntriesTable = """
-            CREATE TABLE IF NOT EXISTS mood_entries (
-                entry_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                user_id INTEGER NOT NULL,
-                mood_type VARCHAR(255) NOT NULL,
-                mood_scale INTEGER NOT NULL,
-                description TEXT,
-                trigger_cause TEXT,
-                tags TEXT,
-                created_at TIMESTAMP NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users (user_id)
-            )
-        """;
-
-        // Motivational quotes table
-        String createQuotesTable = """
-            CREATE TABLE IF NOT EXISTS motivational_quotes (
-                quote_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                quote_text TEXT NOT NULL,
-                author VARCHAR(255) NOT NULL,
-                source VARCHAR(255) NOT NULL,
-                category VARCHAR(255) NOT NULL,
-                language VARCHAR(10) DEFAULT 'en'
-            )
-        """;
-
-        // Emergency contacts table
-        String createContactsTable = """
-            CREATE TABLE IF NOT EXISTS emergency_contacts (
-                contact_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                name VARCHAR(255) NOT NULL,
-                phone_number VARCHAR(50) NOT NULL,
-                location VARCHAR(255) NOT NULL,
-                contact_type VARCHAR(100) NOT NULL,
-                description TEXT,
-                available_24x7 BOOLEAN DEFAULT FALSE,
-                website VARCHAR(500)
-            )
-        """;
-
-        // Chat logs table (for chatbot interactions)
-        String createChatLogsTable = """
-            CREATE TABLE IF NOT EXISTS chat_logs (
-                log_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                user_id INTEGER,
-                user_message TEXT NOT NULL,
-                bot_response TEXT NOT NULL,
-                sentiment_score DOUBLE,
-                detected_emotion VARCHAR(100),
-                created_at TIMESTAMP NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users (user_id)
-            )
-        """;
+        SchemaMigrator migrator = new SchemaMigrator(SchemaMigrations.all(), schemaAutoCreate, schemaAutoUpdate);
+        List<SchemaMigrator.Migration> online = migrator.migrate(conn);
         
-        // Meditation sessions table
-        String createMeditationSessionsTable = """
-            CREATE TABLE IF NOT EXISTS meditation_sessions (
-                session_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                title VARCHAR(255) NOT NULL,
-                meditation_type VARCHAR(100) NOT NULL,
-                duration_minutes INTEGER NOT NULL,
-                description TEXT,
-                instructor VARCHAR(255) DEFAULT 'LumosPath Guide',
-                preparation_text TEXT,
-                closing_text TEXT,
-                background_music VARCHAR(255),
-                completion_count INTEGER DEFAULT 0,
-                average_rating DOUBLE DEFAULT 0.0,
-                created_at TIMESTAMP NOT NULL
-            )
-        """;
-        
-        // Meditation steps table
-        String createMeditationStepsTable = """
-            CREATE TABLE IF NOT EXISTS meditation_steps (
-                step_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                session_id INTEGER NOT NULL,
-                step_order INTEGER NOT NULL,
-                instruction TEXT NOT NULL,
-                duration_seconds INTEGER NOT NULL,
-                visual_cue VARCHAR(255),
-                is_breathing_step BOOLEAN DEFAULT FALSE,
-                FOREIGN KEY (session_id) REFERENCES meditation_sessions (session_id)
-            )
-        """;
-        
-        // User meditation progress table
-        String createUserMeditationProgressTable = """
-            CREATE TABLE IF NOT EXISTS user_meditation_progress (
-                progress_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                user_id INTEGER NOT NULL,
-                session_id INTEGER NOT NULL,
-                completed_at TIMESTAMP NOT NULL,
-                duration_completed INTEGER NOT NULL,
-                rating INTEGER,
-                notes TEXT,
-                FOREIGN KEY (user_id) REFERENCES users (user_id),
-                FOREIGN KEY (session_id) REFERENCES meditation_sessions (session_id)
-            )
-        """;
-        
-        // User preferences table
-        String createUserPreferencesTable = """
-            CREATE TABLE IF NOT EXISTS user_preferences (
-                preference_id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                user_id INTEGER NOT NULL,
-                preference_key VARCHAR(255) NOT NULL,
-                preference_value TEXT NOT NULL,
-                created_at TIMESTAMP NOT NULL,
-                updated_at TIMESTAMP NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users (user_id),
-                UNIQUE(user_id, preference_key)
-            )
-        """;
-
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(createUsersTable);
-            stmt.execute(createUserAuthHistoryTable);
-            stmt.execute(createMoodEntriesTable);
-            stmt.execute(createQuotesTable);
-            stmt.execute(createContactsTable);
-            stmt.execute(createChatLogsTable);
-            stmt.execute(createMeditationSessionsTable);
-            stmt.execute(createMeditationStepsTable);
-            stmt.execute(createUserMeditationProgressTable);
-            stmt.execute(createUserPreferencesTable);
-            
-            // Create indexes for better performance
-            createIndexes(stmt);
-            
-            // Insert default data if tables are empty
+        if (insertDefaultData) {
             insertDefaultData(conn);
         }
-    }
-    
-    /**
-     * Create database indexes for better performance
-     */
-    private static void createIndexes(Statement stmt) throws SQLException {
-        String[] indexes = {
-            "CREATE INDEX IF NOT EXISTS idx_users_username ON users(username)",
-            "CREATE INDEX IF NOT EXISTS idx_users_email ON users(email)",
-            "CREATE INDEX IF NOT EXISTS idx_user_auth_history_user_id ON user_auth_history(user_id)",
-            "CREATE INDEX IF NOT EXISTS idx_user_auth_history_login_time ON user_auth_history(login_time)",
-            "CREATE INDEX IF NOT EXISTS idx_mood_entries_user_id ON mood_entries(user_id)",
-            "CREATE INDEX IF NOT EXISTS idx_mood_entries_created_at ON mood_entries(created_at)",
-            "CREATE INDEX IF NOT EXISTS idx_chat_logs_user_id ON chat_logs(user_id)",
-            "CREATE INDEX IF NOT EXISTS idx_chat_logs_created_at ON chat_logs(created_at)",
-            "CREATE INDEX IF NOT EXISTS idx_meditation_steps_session_id ON meditation_steps(session_id)",
-            "CREATE INDEX IF NOT EXISTS idx_user_meditation_progress_user_id ON user_meditation_progress(user_id)",
-            "CREATE INDEX IF NOT EXISTS idx_user_preferences_user_id ON user_preferences(user_id)",
-            "CREATE INDEX IF NOT EXISTS idx_quotes_category ON motivational_quotes(category)"
-        };
         
-        for (String index : indexes) {
-            try {
-                stmt.execute(index);
-            } catch (SQLException e) {
-                // Index might already exist, continue
-                System.out.println("Index creation note: " + e.getMessage());
-            }
-        }
+        migrator.migrateOnlineAsync(online);
     }
     
     /**
@@ -566,6 +424,7 @@ public class DatabaseUtil {
      * Execute a prepared statement with parameters
      */
     public static int executeUpdate(String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -573,7 +432,14 @@ public class DatabaseUtil {
                 pstmt.setObject(i + 1, params[i]);
             }
             
-            return pstmt.executeUpdate();
+            int rowsAffected = pstmt.executeUpdate();
+            checkSlowQuery(sql, params, start);
+            return rowsAffected;
+        } catch (SQLException e) {
+            MetricsRegistry.counter("db.executeUpdate.errors").increment();
+            throw e;
+        } finally {
+            MetricsRegistry.recordSince("db.executeUpdate", start);
         }
     }
     
@@ -586,6 +452,7 @@ public class DatabaseUtil {
     }
     
     public static <T> T executeQuery(String sql, ResultSetHandler<T> handler, Object... params) throws SQLException {
+        long start = System.nanoTime();
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -593,12 +460,37 @@ public class DatabaseUtil {
                 pstmt.setObject(i + 1, params[i]);
             }
             
+            T result;
             try (ResultSet rs = pstmt.executeQuery()) {
-                return handler.handle(rs);
+                result = handler.handle(rs);
             }
+            checkSlowQuery(sql, params, start);
+            return result;
+        } catch (SQLException e) {
+            MetricsRegistry.counter("db.executeQuery.errors").increment();
+            throw e;
+        } finally {
+            MetricsRegistry.recordSince("db.executeQuery", start);
+        }
+    }
+    
+    /**
+     * Hand the statement to the slow-query log if it exceeded the configured threshold
+     */
+    private static void checkSlowQuery(String sql, Object[] params, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (SlowQueryLog.isSlow(elapsed)) {
+            SlowQueryLog.record(sql, params, elapsed);
         }
     }
     
+    /**
+     * Check whether periodic query/latency logging is enabled (db.performance.enable_query_logging)
+     */
+    public static boolean isQueryLoggingEnabled() {
+        return queryLoggingEnabled;
+    }
+    
     /**
      * Get database metadata information
      */
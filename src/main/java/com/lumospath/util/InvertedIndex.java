@@ -0,0 +1,259 @@
+package com.lumospath.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded inverted index stored in a plain SQL table with the columns
+ * (doc_id, user_id, term, weight) and an index on (user_id, term).
+ * Documents are indexed by the owning DAO on the same connection as the write, and term rows
+ * are removed by an ON DELETE CASCADE foreign key, so the index stays consistent without
+ * database-specific full-text features.
+ */
+public class InvertedIndex {
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+        "me", "my", "no", "not", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there",
+        "these", "they", "this", "to", "was", "we", "will", "with", "i", "im", "you", "your"
+    ));
+
+    private final String termTable;
+
+    /**
+     * @param termTable Name of the table holding (doc_id, user_id, term, weight) rows
+     */
+    public InvertedIndex(String termTable) {
+        this.termTable = termTable;
+    }
+
+    public String getTermTable() {
+        return termTable;
+    }
+
+    /**
+     * Split text into normalized, de-duplicated search terms
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            String term = normalize(token);
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static String normalize(String token) {
+        if (token.length() <= 1 || STOP_WORDS.contains(token)) {
+            return null;
+        }
+        return token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token;
+    }
+
+    /**
+     * Index a document. Each entry of weightedFields maps a field's text to its weight;
+     * a term's weight is the sum of the weights of every occurrence.
+     */
+    public void index(Connection conn, int docId, Integer userId, Map<String, Integer> weightedFields) throws SQLException {
+        Map<String, Integer> termWeights = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> field : weightedFields.entrySet()) {
+            if (field.getKey() == null) continue;
+            for (String token : TOKEN_SEPARATOR.split(field.getKey().toLowerCase(Locale.ROOT))) {
+                String term = normalize(token);
+                if (term != null) {
+                    termWeights.merge(term, field.getValue(), Integer::sum);
+                }
+            }
+        }
+        if (termWeights.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO " + termTable + " (doc_id, user_id, term, weight) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Integer> term : termWeights.entrySet()) {
+                pstmt.setInt(1, docId);
+                pstmt.setObject(2, userId);
+                pstmt.setString(3, term.getKey());
+                pstmt.setInt(4, term.getValue());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Replace the indexed terms of a document
+     */
+    public void reindex(Connection conn, int docId, Integer userId, Map<String, Integer> weightedFields) throws SQLException {
+        remove(conn, docId);
+        index(conn, docId, userId, weightedFields);
+    }
+
+    /**
+     * Remove a document from the index
+     */
+    public void remove(Connection conn, int docId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + termTable + " WHERE doc_id = ?")) {
+            pstmt.setInt(1, docId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Remove every document belonging to a user
+     */
+    public void removeByUser(Connection conn, Integer userId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + termTable + " WHERE user_id = ?")) {
+            pstmt.setInt(1, userId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Remove index rows whose document no longer exists in the source table
+     */
+    public int removeOrphans(Connection conn, String docTable, String docIdColumn) throws SQLException {
+        String sql = "DELETE FROM " + termTable + " WHERE doc_id NOT IN (SELECT " + docIdColumn + " FROM " + docTable + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Find documents of a user matching any query term, best match first.
+     * Documents matching more (or more heavily weighted) terms rank higher.
+     * @return Matches ordered by matched term count, then score, then doc_id (all descending)
+     */
+    public List<Match> search(Connection conn, Integer userId, String query, int limit, int offset) throws SQLException {
+        return search(conn, userId, query, limit, offset, null);
+    }
+
+    /**
+     * Keyset variant of {@link #search(Connection, Integer, String, int, int)}: returns the matches ranked
+     * strictly after the given match. Pages stay stable when documents are added or removed between requests.
+     * @param after Last match of the previous page, or null for the first page
+     */
+    public List<Match> searchAfter(Connection conn, Integer userId, String query, int limit, Match after) throws SQLException {
+        return search(conn, userId, query, limit, 0, after);
+    }
+
+    private List<Match> search(Connection conn, Integer userId, String query, int limit, int offset, Match after) throws SQLException {
+        List<String> terms = tokenize(query);
+        List<Match> matches = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return matches;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(terms.size(), "?"));
+        String sql = "SELECT doc_id, SUM(weight) AS score, COUNT(*) AS matched_terms FROM " + termTable +
+                     " WHERE user_id = ? AND term IN (" + placeholders + ")" +
+                     " GROUP BY doc_id" +
+                     (after != null ? " HAVING COUNT(*) < ? OR (COUNT(*) = ? AND (SUM(weight) < ? OR (SUM(weight) = ? AND doc_id < ?)))" : "") +
+                     " ORDER BY matched_terms DESC, score DESC, doc_id DESC LIMIT ? OFFSET ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            pstmt.setInt(index++, userId);
+            for (String term : terms) {
+                pstmt.setString(index++, term);
+            }
+            if (after != null) {
+                pstmt.setInt(index++, after.getMatchedTerms());
+                pstmt.setInt(index++, after.getMatchedTerms());
+                pstmt.setInt(index++, after.getScore());
+                pstmt.setInt(index++, after.getScore());
+                pstmt.setInt(index++, after.getDocId());
+            }
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(new Match(rs.getInt("doc_id"), rs.getInt("matched_terms"), rs.getInt("score")));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Wrap every word of text that matches a query term in the given markers.
+     * Long texts are cut down to a window of about maxLength characters around the first match.
+     * @param maxLength Maximum snippet length before markers are added (0 or less keeps the whole text)
+     */
+    public static String highlight(String text, String query, String open, String close, int maxLength) {
+        if (text == null) {
+            return null;
+        }
+        Set<String> terms = new HashSet<>(tokenize(query));
+
+        List<int[]> hits = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group().toLowerCase(Locale.ROOT));
+            if (term != null && terms.contains(term)) {
+                hits.add(new int[]{matcher.start(), matcher.end()});
+            }
+        }
+
+        int start = 0;
+        int end = text.length();
+        if (maxLength > 0 && text.length() > maxLength) {
+            int anchor = hits.isEmpty() ? 0 : hits.get(0)[0];
+            start = Math.max(0, Math.min(anchor - maxLength / 4, text.length() - maxLength));
+            end = start + maxLength;
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) snippet.append("…");
+        int position = start;
+        for (int[] hit : hits) {
+            if (hit[0] < position || hit[1] > end) continue;
+            snippet.append(text, position, hit[0]).append(open).append(text, hit[0], hit[1]).append(close);
+            position = hit[1];
+        }
+        snippet.append(text, position, end);
+        if (end < text.length()) snippet.append("…");
+        return snippet.toString();
+    }
+
+    /**
+     * A ranked search hit
+     */
+    public static class Match {
+        private final int docId;
+        private final int matchedTerms;
+        private final int score;
+
+        public Match(int docId, int matchedTerms, int score) {
+            this.docId = docId;
+            this.matchedTerms = matchedTerms;
+            this.score = score;
+        }
+
+        public int getDocId() { return docId; }
+        public int getMatchedTerms() { return matchedTerms; }
+        public int getScore() { return score; }
+    }
+}
@@ -0,0 +1,53 @@
+package com.lumospath.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Verifier for the original unsalted SHA-256 hashes (plain Base64, no prefix).
+ * Only kept so existing accounts can still log in; every such hash is flagged for rehashing.
+ */
+public class LegacySha256PasswordHasher implements PasswordHasher {
+    private static final int ENCODED_LENGTH = 44;
+
+    @Override
+    public String hash(char[] password) {
+        return Base64.getEncoder().encodeToString(digest(password));
+    }
+
+    @Override
+    public boolean matches(char[] password, String encodedHash) {
+        if (!supports(encodedHash)) {
+            return false;
+        }
+        return MessageDigest.isEqual(digest(password), Base64.getDecoder().decode(encodedHash));
+    }
+
+    @Override
+    public boolean supports(String encodedHash) {
+        return encodedHash != null && encodedHash.length() == ENCODED_LENGTH && encodedHash.indexOf('$') < 0;
+    }
+
+    @Override
+    public boolean needsRehash(String encodedHash) {
+        return true;
+    }
+
+    private static byte[] digest(char[] password) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        byte[] input = Arrays.copyOfRange(bytes.array(), bytes.position(), bytes.limit());
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } finally {
+            Arrays.fill(input, (byte) 0);
+            Arrays.fill(bytes.array(), (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.lumospath.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Lightweight, lock-free metrics registry for hot paths (database calls, DAO methods, chatbot replies).
+ * Counters are backed by LongAdder and latency histograms use fixed log-linear buckets, so recording
+ * never blocks. Every metric is exported through JMX under "com.lumospath:type=Metrics" and can be
+ * printed periodically as a single log line.
+ */
+public final class MetricsRegistry {
+    private static final String JMX_DOMAIN = "com.lumospath";
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService reporter;
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Get or create a counter
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> register(new Counter(), CounterMBean.class, "counter", key));
+    }
+
+    /**
+     * Get or create a latency histogram (values recorded in nanoseconds)
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> register(new Histogram(), HistogramMBean.class, "histogram", key));
+    }
+
+    /**
+     * Record the time elapsed since startNanos (taken from System.nanoTime()) into a histogram
+     */
+    public static void recordSince(String name, long startNanos) {
+        histogram(name).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Wrap an interface implementation so that every method call is timed under "prefix.methodName".
+     * Failed calls are additionally counted under "prefix.methodName.errors".
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> type, T target, String prefix) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            String name = prefix + "." + method.getName();
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                counter(name + ".errors").increment();
+                throw e.getCause();
+            } finally {
+                recordSince(name, start);
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Build a point-in-time snapshot of every metric, sorted by name
+     */
+    public static Map<String, String> snapshot() {
+        Map<String, String> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, String.valueOf(counter.getCount())));
+        histograms.forEach((name, histogram) -> snapshot.put(name, histogram.summary()));
+        return snapshot;
+    }
+
+    /**
+     * Start printing a metrics snapshot every intervalSeconds on a daemon thread.
+     * Calling this more than once has no effect.
+     */
+    public static synchronized void startReporter(long intervalSeconds) {
+        if (reporter != null || intervalSeconds <= 0) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lumospath-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(MetricsRegistry::logSnapshot, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the periodic reporter if it is running
+     */
+    public static synchronized void stopReporter() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Print the current snapshot as one log line
+     */
+    public static void logSnapshot() {
+        Map<String, String> snapshot = snapshot();
+        if (!snapshot.isEmpty()) {
+            System.out.println("📊 Metrics " + snapshot);
+        }
+    }
+
+    /**
+     * Clear all metrics (mainly useful for benchmarks)
+     */
+    public static void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    private static <M extends I, I> M register(M metric, Class<I> mbeanInterface, String type, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Metrics,kind=" + type
+                    + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(metric, mbeanInterface), objectName);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not register metric " + name + " with JMX: " + e.getMessage());
+        }
+        return metric;
+    }
+
+    /**
+     * JMX view of a counter
+     */
+    public interface CounterMBean {
+        long getCount();
+    }
+
+    /**
+     * JMX view of a histogram (all durations in microseconds)
+     */
+    public interface HistogramMBean {
+        long getCount();
+        double getMeanMicros();
+        long getP50Micros();
+        long getP95Micros();
+        long getP99Micros();
+        long getMaxMicros();
+    }
+
+    /**
+     * Monotonic counter
+     */
+    public static final class Counter implements CounterMBean {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long delta) {
+            count.add(delta);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        void reset() {
+            count.reset();
+        }
+    }
+
+    /**
+     * HDR-style histogram with log-linear buckets: each power of two is split into
+     * SUB_BUCKETS linear slots, giving roughly 6% relative error up to 2^45 ns (~9.7 hours).
+     */
+    public static final class Histogram implements HistogramMBean {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_MAGNITUDE = 44 - SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (MAX_MAGNITUDE + 2) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Record a duration in nanoseconds
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketIndex(value));
+            count.increment();
+            sum.add(value);
+            long currentMax;
+            while (value > (currentMax = max.get())) {
+                if (max.compareAndSet(currentMax, value)) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Value (in nanoseconds) at the given percentile, 0-100
+         */
+        public long valueAtPercentile(double percentile) {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(bucketUpperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : sum.sum() / (double) n / 1_000.0;
+        }
+
+        @Override
+        public long getP50Micros() {
+            return valueAtPercentile(50) / 1_000;
+        }
+
+        @Override
+        public long getP95Micros() {
+            return valueAtPercentile(95) / 1_000;
+        }
+
+        @Override
+        public long getP99Micros() {
+            return valueAtPercentile(99) / 1_000;
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return max.get() / 1_000;
+        }
+
+        /**
+         * Compact text summary used in log lines
+         */
+        public String summary() {
+            return String.format("n=%d mean=%.1fus p50=%dus p99=%dus max=%dus",
+                    getCount(), getMeanMicros(), getP50Micros(), getP99Micros(), getMaxMicros());
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        private static int bucketIndex(long value) {
+            int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+            if (magnitude > MAX_MAGNITUDE) {
+                return BUCKET_COUNT - 1;
+            }
+            return (magnitude << SUB_BUCKET_BITS) + (int) (value >>> magnitude);
+        }
+
+        private static long bucketUpperBound(int index) {
+            if (index < 2 * SUB_BUCKETS) {
+                return index;
+            }
+            int magnitude = (index >>> SUB_BUCKET_BITS) - 1;
+            long top = index - ((long) magnitude << SUB_BUCKET_BITS);
+            return ((top + 1) << magnitude) - 1;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.lumospath.util;
+
+/**
+ * Strategy for hashing and verifying passwords.
+ * Encoded hashes are self-describing, so several hashers can coexist while old hashes are upgraded.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hash a password with a fresh random salt
+     * @return Encoded hash including the algorithm, parameters and salt
+     */
+    String hash(char[] password);
+
+    /**
+     * Check a password against an encoded hash produced by this hasher
+     */
+    boolean matches(char[] password, String encodedHash);
+
+    /**
+     * Check whether this hasher understands the encoded hash format
+     */
+    boolean supports(String encodedHash);
+
+    /**
+     * Check whether an encoded hash should be replaced with one using the current parameters
+     */
+    boolean needsRehash(String encodedHash);
+}
@@ -0,0 +1,111 @@
+package com.lumospath.util;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hasher using the JDK's built-in provider.
+ * Hashes are encoded as "pbkdf2-sha256$iterations$salt$hash" (salt and hash in Base64),
+ * so the work factor can be raised later without invalidating stored passwords.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    public static final String ID = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final int saltBytes;
+    private final int keyBits;
+
+    public Pbkdf2PasswordHasher(int iterations, int saltBytes, int keyBits) {
+        if (iterations < 1 || saltBytes < 8 || keyBits < 128) {
+            throw new IllegalArgumentException("PBKDF2 parameters too weak: iterations=" + iterations
+                    + ", saltBytes=" + saltBytes + ", keyBits=" + keyBits);
+        }
+        this.iterations = iterations;
+        this.saltBytes = saltBytes;
+        this.keyBits = keyBits;
+    }
+
+    @Override
+    public String hash(char[] password) {
+        byte[] salt = new byte[saltBytes];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, keyBits);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return ID + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(char[] password, String encodedHash) {
+        Encoded encoded = Encoded.parse(encodedHash);
+        if (encoded == null) {
+            return false;
+        }
+        byte[] actual = derive(password, encoded.salt, encoded.iterations, encoded.hash.length * 8);
+        return MessageDigest.isEqual(actual, encoded.hash);
+    }
+
+    @Override
+    public boolean supports(String encodedHash) {
+        return encodedHash != null && encodedHash.startsWith(ID + "$");
+    }
+
+    @Override
+    public boolean needsRehash(String encodedHash) {
+        Encoded encoded = Encoded.parse(encodedHash);
+        return encoded == null
+                || encoded.iterations < iterations
+                || encoded.salt.length < saltBytes
+                || encoded.hash.length * 8 < keyBits;
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Parsed "pbkdf2-sha256$iterations$salt$hash" value
+     */
+    private static final class Encoded {
+        final int iterations;
+        final byte[] salt;
+        final byte[] hash;
+
+        private Encoded(int iterations, byte[] salt, byte[] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        static Encoded parse(String encodedHash) {
+            if (encodedHash == null) {
+                return null;
+            }
+            String[] parts = encodedHash.split("\\$");
+            if (parts.length != 4 || !ID.equals(parts[0])) {
+                return null;
+            }
+            try {
+                Base64.Decoder decoder = Base64.getDecoder();
+                int iterations = Integer.parseInt(parts[1]);
+                byte[] salt = decoder.decode(parts[2]);
+                byte[] hash = decoder.decode(parts[3]);
+                return iterations > 0 && salt.length > 0 && hash.length > 0 ? new Encoded(iterations, salt, hash) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.lumospath.util;
+
+import com.lumospath.model.MoodEntry;
+import com.lumospath.util.SchemaMigrator.Migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * The LumosPath schema as an ordered list of migrations (see SchemaMigrator).
+ * Applied migrations must never be edited: add a new version instead. Every migration is
+ * written to be re-runnable, so databases created before schema_version existed are adopted
+ * by replaying the list.
+ */
+public final class SchemaMigrations {
+
+    private static final String CREATE_USERS = """
+        CREATE TABLE IF NOT EXISTS users (
+            user_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            username VARCHAR(255) UNIQUE,
+            email VARCHAR(255) UNIQUE,
+            password_hash VARCHAR(512),
+            first_name VARCHAR(255),
+            last_name VARCHAR(255),
+            age INTEGER,
+            location VARCHAR(255),
+            created_at TIMESTAMP NOT NULL,
+            last_active TIMESTAMP NOT NULL,
+            anonymous BOOLEAN DEFAULT FALSE
+        )
+    """;
+
+    private static final String CREATE_USER_AUTH_HISTORY = """
+        CREATE TABLE IF NOT EXISTS user_auth_history (
+            auth_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER NOT NULL,
+            login_time TIMESTAMP NOT NULL,
+            logout_time TIMESTAMP,
+            ip_address VARCHAR(255),
+            user_agent TEXT,
+            session_duration_minutes INTEGER,
+            FOREIGN KEY (user_id) REFERENCES users (user_id)
+        )
+    """;
+
+    private static final String CREATE_MOOD_ENTRIES = """
+        CREATE TABLE IF NOT EXISTS mood_entries (
+            entry_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER NOT NULL,
+            mood_type VARCHAR(255) NOT NULL,
+            mood_scale INTEGER NOT NULL,
+            description TEXT,
+            trigger_cause TEXT,
+            tags TEXT,
+            created_at TIMESTAMP NOT NULL,
+            FOREIGN KEY (user_id) REFERENCES users (user_id)
+        )
+    """;
+
+    private static final String CREATE_MOTIVATIONAL_QUOTES = """
+        CREATE TABLE IF NOT EXISTS motivational_quotes (
+            quote_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            quote_text TEXT NOT NULL,
+            author VARCHAR(255) NOT NULL,
+            source VARCHAR(255) NOT NULL,
+            category VARCHAR(255) NOT NULL,
+            language VARCHAR(10) DEFAULT 'en'
+        )
+    """;
+
+    private static final String CREATE_EMERGENCY_CONTACTS = """
+        CREATE TABLE IF NOT EXISTS emergency_contacts (
+            contact_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            name VARCHAR(255) NOT NULL,
+            phone_number VARCHAR(50) NOT NULL,
+            location VARCHAR(255) NOT NULL,
+            contact_type VARCHAR(100) NOT NULL,
+            description TEXT,
+            available_24x7 BOOLEAN DEFAULT FALSE,
+            website VARCHAR(500)
+        )
+    """;
+
+    private static final String CREATE_CHAT_LOGS = """
+        CREATE TABLE IF NOT EXISTS chat_logs (
+            log_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER,
+            user_message TEXT NOT NULL,
+            bot_response TEXT NOT NULL,
+            sentiment_score DOUBLE,
+            detected_emotion VARCHAR(100),
+            created_at TIMESTAMP NOT NULL,
+            FOREIGN KEY (user_id) REFERENCES users (user_id)
+        )
+    """;
+
+    private static final String CREATE_MEDITATION_SESSIONS = """
+        CREATE TABLE IF NOT EXISTS meditation_sessions (
+            session_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            title VARCHAR(255) NOT NULL,
+            meditation_type VARCHAR(100) NOT NULL,
+            duration_minutes INTEGER NOT NULL,
+            description TEXT,
+            instructor VARCHAR(255) DEFAULT 'LumosPath Guide',
+            preparation_text TEXT,
+            closing_text TEXT,
+            background_music VARCHAR(255),
+            completion_count INTEGER DEFAULT 0,
+            average_rating DOUBLE DEFAULT 0.0,
+            created_at TIMESTAMP NOT NULL
+        )
+    """;
+
+    private static final String CREATE_MEDITATION_STEPS = """
+        CREATE TABLE IF NOT EXISTS meditation_steps (
+            step_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            session_id INTEGER NOT NULL,
+            step_order INTEGER NOT NULL,
+            instruction TEXT NOT NULL,
+            duration_seconds INTEGER NOT NULL,
+            visual_cue VARCHAR(255),
+            is_breathing_step BOOLEAN DEFAULT FALSE,
+            FOREIGN KEY (session_id) REFERENCES meditation_sessions (session_id)
+        )
+    """;
+
+    private static final String CREATE_USER_MEDITATION_PROGRESS = """
+        CREATE TABLE IF NOT EXISTS user_meditation_progress (
+            progress_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER NOT NULL,
+            session_id INTEGER NOT NULL,
+            completed_at TIMESTAMP NOT NULL,
+            duration_completed INTEGER NOT NULL,
+            rating INTEGER,
+            notes TEXT,
+            FOREIGN KEY (user_id) REFERENCES users (user_id),
+            FOREIGN KEY (session_id) REFERENCES meditation_sessions (session_id)
+        )
+    """;
+
+    private static final String CREATE_USER_PREFERENCES = """
+        CREATE TABLE IF NOT EXISTS user_preferences (
+            preference_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER NOT NULL,
+            preference_key VARCHAR(255) NOT NULL,
+            preference_value TEXT NOT NULL,
+            created_at TIMESTAMP NOT NULL,
+            updated_at TIMESTAMP NOT NULL,
+            FOREIGN KEY (user_id) REFERENCES users (user_id),
+            UNIQUE(user_id, preference_key)
+        )
+    """;
+
+    // Inverted index over mood entry description, trigger and tags (see InvertedIndex)
+    private static final String CREATE_MOOD_ENTRY_TERMS = """
+        CREATE TABLE IF NOT EXISTS mood_entry_terms (
+            doc_id INTEGER NOT NULL,
+            user_id INTEGER NOT NULL,
+            term VARCHAR(64) NOT NULL,
+            weight INTEGER NOT NULL,
+            PRIMARY KEY (doc_id, term),
+            FOREIGN KEY (doc_id) REFERENCES mood_entries (entry_id) ON DELETE CASCADE
+        )
+    """;
+
+    // Normalized mood entry tags (mirrors the comma-separated mood_entries.tags column)
+    private static final String CREATE_MOOD_ENTRY_TAGS = """
+        CREATE TABLE IF NOT EXISTS mood_entry_tags (
+            entry_id INTEGER NOT NULL,
+            user_id INTEGER NOT NULL,
+            tag VARCHAR(100) NOT NULL,
+            created_at TIMESTAMP NOT NULL,
+            PRIMARY KEY (entry_id, tag),
+            FOREIGN KEY (entry_id) REFERENCES mood_entries (entry_id) ON DELETE CASCADE
+        )
+    """;
+
+    // Search index for chat history (maintained by ChatLogDAOImpl, user_id is null for anonymous chats)
+    private static final String CREATE_CHAT_LOG_TERMS = """
+        CREATE TABLE IF NOT EXISTS chat_log_terms (
+            doc_id INTEGER NOT NULL,
+            user_id INTEGER,
+            term VARCHAR(64) NOT NULL,
+            weight INTEGER NOT NULL,
+            PRIMARY KEY (doc_id, term),
+            FOREIGN KEY (doc_id) REFERENCES chat_logs (log_id) ON DELETE CASCADE
+        )
+    """;
+
+    private static final String CREATE_JOB_CHECKPOINTS = """
+        CREATE TABLE IF NOT EXISTS job_checkpoints (
+            job_name VARCHAR(100) PRIMARY KEY,
+            last_key BIGINT NOT NULL,
+            processed BIGINT NOT NULL,
+            updated_at TIMESTAMP NOT NULL
+        )
+    """;
+
+    // Only the listed phrase that matched is stored, never the user's message
+    private static final String CREATE_CRISIS_ESCALATIONS = """
+        CREATE TABLE IF NOT EXISTS crisis_escalations (
+            escalation_id INTEGER PRIMARY KEY AUTO_INCREMENT,
+            user_id INTEGER,
+            level VARCHAR(20) NOT NULL,
+            matched_phrase VARCHAR(100) NOT NULL,
+            detection_micros BIGINT,
+            created_at TIMESTAMP NOT NULL,
+            FOREIGN KEY (user_id) REFERENCES users (user_id)
+        )
+    """;
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Every migration, oldest first
+     */
+    public static List<Migration> all() {
+        return List.of(
+            Migration.sql(1, "baseline schema",
+                CREATE_USERS,
+                CREATE_USER_AUTH_HISTORY,
+                CREATE_MOOD_ENTRIES,
+                CREATE_MOTIVATIONAL_QUOTES,
+                CREATE_EMERGENCY_CONTACTS,
+                CREATE_CHAT_LOGS,
+                CREATE_MEDITATION_SESSIONS,
+                CREATE_MEDITATION_STEPS,
+                CREATE_USER_MEDITATION_PROGRESS,
+                CREATE_USER_PREFERENCES,
+                "CREATE INDEX IF NOT EXISTS idx_users_username ON users(username)",
+                "CREATE INDEX IF NOT EXISTS idx_users_email ON users(email)",
+                "CREATE INDEX IF NOT EXISTS idx_user_auth_history_user_id ON user_auth_history(user_id)",
+                "CREATE INDEX IF NOT EXISTS idx_user_auth_history_login_time ON user_auth_history(login_time)",
+                "CREATE INDEX IF NOT EXISTS idx_mood_entries_user_id ON mood_entries(user_id)",
+                "CREATE INDEX IF NOT EXISTS idx_mood_entries_created_at ON mood_entries(created_at)",
+                "CREATE INDEX IF NOT EXISTS idx_chat_logs_user_id ON chat_logs(user_id)",
+                "CREATE INDEX IF NOT EXISTS idx_chat_logs_created_at ON chat_logs(created_at)",
+                "CREATE INDEX IF NOT EXISTS idx_meditation_steps_session_id ON meditation_steps(session_id)",
+                "CREATE INDEX IF NOT EXISTS idx_user_meditation_progress_user_id ON user_meditation_progress(user_id)",
+                "CREATE INDEX IF NOT EXISTS idx_user_preferences_user_id ON user_preferences(user_id)",
+                "CREATE INDEX IF NOT EXISTS idx_quotes_category ON motivational_quotes(category)"),
+            Migration.sql(2, "mood entry search index",
+                CREATE_MOOD_ENTRY_TERMS,
+                "CREATE INDEX IF NOT EXISTS idx_mood_entry_terms_user_term ON mood_entry_terms(user_id, term)"),
+            Migration.sql(3, "normalized mood entry tags",
+                CREATE_MOOD_ENTRY_TAGS,
+                "CREATE INDEX IF NOT EXISTS idx_mood_entry_tags_tag_user_created ON mood_entry_tags(tag, user_id, created_at)",
+                "CREATE INDEX IF NOT EXISTS idx_mood_entry_tags_user_created ON mood_entry_tags(user_id, created_at, tag)"),
+            Migration.code(4, "copy legacy mood entry tags", "1", SchemaMigrations::copyMoodEntryTags),
+            Migration.sql(5, "chat history search index",
+                CREATE_CHAT_LOG_TERMS,
+                "CREATE INDEX IF NOT EXISTS idx_chat_log_terms_user_term ON chat_log_terms(user_id, term)"),
+            Migration.sql(6, "session columns on user_auth_history",
+                "ALTER TABLE user_auth_history ADD COLUMN IF NOT EXISTS session_token_hash VARCHAR(64)",
+                "ALTER TABLE user_auth_history ADD COLUMN IF NOT EXISTS last_seen TIMESTAMP",
+                "ALTER TABLE user_auth_history ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_user_auth_history_session_token ON user_auth_history(session_token_hash)"),
+            // Per-user history queries filter on user_id and sort by created_at
+            Migration.onlineIndex(7, "idx_chat_logs_user_created", "chat_logs", "user_id, created_at"),
+            Migration.onlineIndex(8, "idx_mood_entries_user_created", "mood_entries", "user_id, created_at"),
+            Migration.sql(9, "chatbot reply timings on chat_logs",
+                "ALTER TABLE chat_logs ADD COLUMN IF NOT EXISTS analysis_micros BIGINT",
+                "ALTER TABLE chat_logs ADD COLUMN IF NOT EXISTS response_micros BIGINT"),
+            Migration.sql(10, "batch job checkpoints", CREATE_JOB_CHECKPOINTS),
+            Migration.sql(11, "crisis escalations",
+                CREATE_CRISIS_ESCALATIONS,
+                "CREATE INDEX IF NOT EXISTS idx_crisis_escalations_created_at ON crisis_escalations(created_at)")
+        );
+    }
+
+    /**
+     * Populate mood_entry_tags from the comma-separated mood_entries.tags column.
+     * Skipped when mood_entry_tags already has rows, so databases that copied their tags before
+     * migrations were versioned are not copied twice.
+     */
+    private static void copyMoodEntryTags(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM mood_entry_tags")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                return;
+            }
+        }
+        
+        String selectSql = "SELECT entry_id, user_id, tags, created_at FROM mood_entries WHERE tags IS NOT NULL AND tags <> ''";
+        String insertSql = "INSERT INTO mood_entry_tags (entry_id, user_id, tag, created_at) VALUES (?, ?, ?, ?)";
+        int migrated = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectSql);
+             PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+            while (rs.next()) {
+                for (String tag : MoodEntry.parseTags(rs.getString("tags"))) {
+                    pstmt.setInt(1, rs.getInt("entry_id"));
+                    pstmt.setInt(2, rs.getInt("user_id"));
+                    pstmt.setString(3, tag);
+                    pstmt.setString(4, rs.getString("created_at"));
+                    pstmt.addBatch();
+                    migrated++;
+                }
+            }
+            if (migrated > 0) {
+                pstmt.executeBatch();
+                System.out.println("Migrated " + migrated + " mood entry tags to mood_entry_tags");
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.lumospath.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Versioned, forward-only schema migration runner.
+ * Applied migrations are recorded in a schema_version table together with a checksum of their
+ * statements; on startup only pending migrations run, so an up-to-date database costs one query
+ * and no DDL. Changing a migration that was already applied is reported as a checksum mismatch
+ * instead of silently diverging. Online migrations (index additions) run after startup on a
+ * background thread, since queries work without them, just more slowly.
+ */
+public class SchemaMigrator {
+    private static final String VERSION_TABLE = "schema_version";
+
+    private static final String CREATE_VERSION_TABLE = """
+        CREATE TABLE IF NOT EXISTS schema_version (
+            version INTEGER PRIMARY KEY,
+            description VARCHAR(255) NOT NULL,
+            checksum VARCHAR(64) NOT NULL,
+            applied_at TIMESTAMP NOT NULL,
+            execution_ms BIGINT NOT NULL
+        )
+    """;
+
+    private static final String INSERT_VERSION =
+        "INSERT INTO schema_version (version, description, checksum, applied_at, execution_ms) VALUES (?, ?, ?, ?, ?)";
+
+    private final List<Migration> migrations;
+    private final boolean autoCreate;
+    private final boolean autoUpdate;
+
+    /**
+     * @param migrations Every known migration, in any order
+     * @param autoCreate Whether to build the schema of an empty database
+     * @param autoUpdate Whether to apply pending migrations to an existing database
+     */
+    public SchemaMigrator(List<Migration> migrations, boolean autoCreate, boolean autoUpdate) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = Collections.unmodifiableList(sorted);
+        this.autoCreate = autoCreate;
+        this.autoUpdate = autoUpdate;
+    }
+
+    /**
+     * Validate applied migrations and apply the pending blocking ones on the given connection
+     * @return Online migrations that are still pending; pass them to {@link #migrateOnlineAsync(List)}
+     * @throws SQLException if a migration fails or an applied migration no longer matches its checksum
+     */
+    public List<Migration> migrate(Connection conn) throws SQLException {
+        boolean existingDatabase = hasTable(conn, "users");
+        if (!hasTable(conn, VERSION_TABLE)) {
+            if (!(existingDatabase ? autoUpdate : autoCreate)) {
+                System.out.println("Schema migrations disabled, leaving database as it is");
+                return Collections.emptyList();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE);
+            }
+        }
+
+        Map<Integer, String> applied = loadAppliedChecksums(conn);
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.getVersion());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (!checksum.equals(migration.getChecksum())) {
+                throw new SQLException("Schema migration V" + migration.getVersion() + " (" + migration.getDescription()
+                        + ") was changed after it was applied; add a new migration instead");
+            }
+        }
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!applied.isEmpty() && !autoUpdate) {
+            System.out.println("⚠️ " + pending.size() + " schema migration(s) pending but db.schema.auto_update is off");
+            return Collections.emptyList();
+        }
+
+        List<Migration> online = new ArrayList<>();
+        for (Migration migration : pending) {
+            if (migration.isOnline()) {
+                online.add(migration);
+            } else {
+                apply(conn, migration);
+            }
+        }
+        return online;
+    }
+
+    /**
+     * Apply online migrations one by one on a background thread, each on its own connection
+     */
+    public void migrateOnlineAsync(List<Migration> online) {
+        if (online.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lumospath-schema-migrator");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.execute(() -> {
+            for (Migration migration : online) {
+                try (Connection conn = DatabaseUtil.getConnection()) {
+                    apply(conn, migration);
+                } catch (SQLException e) {
+                    System.err.println("❌ Online schema migration V" + migration.getVersion() + " failed: " + e.getMessage());
+                    break;
+                }
+            }
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * Get the highest applied version, or 0 for an unmanaged database
+     */
+    public static int getCurrentVersion(Connection conn) throws SQLException {
+        if (!hasTable(conn, VERSION_TABLE)) {
+            return 0;
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            // DDL commits implicitly on most databases, so migrations are written to be safely re-runnable
+            conn.setAutoCommit(migration.isOnline());
+            migration.getStep().apply(conn);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_VERSION)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.setString(3, migration.getChecksum());
+                pstmt.setString(4, DatabaseUtil.formatDateTime(LocalDateTime.now()));
+                pstmt.setLong(5, elapsedMs);
+                pstmt.executeUpdate();
+            }
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            MetricsRegistry.recordSince("db.schemaMigration", start);
+            System.out.println("Applied schema migration V" + migration.getVersion() + " " + migration.getDescription()
+                    + " (" + elapsedMs + " ms)");
+        } catch (SQLException e) {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+            }
+            throw new SQLException("Schema migration V" + migration.getVersion() + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static Map<Integer, String> loadAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static boolean hasTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        for (String name : new String[]{table.toUpperCase(), table}) {
+            try (ResultSet rs = metaData.getTables(null, null, name, new String[]{"TABLE", "BASE TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Work done by a migration beyond plain SQL statements
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * A single schema version
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String checksum;
+        private final boolean online;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, String checksumSource, boolean online, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.checksum = sha256(checksumSource);
+            this.online = online;
+            this.step = step;
+        }
+
+        /**
+         * Migration made of SQL statements, run in order
+         */
+        public static Migration sql(int version, String description, String... statements) {
+            return new Migration(version, description, checksumSource(statements), false, conn -> execute(conn, statements));
+        }
+
+        /**
+         * Migration run by code. The code itself cannot be checksummed, so bump codeRevision whenever it changes meaning.
+         */
+        public static Migration code(int version, String description, String codeRevision, MigrationStep step) {
+            return new Migration(version, description, "code:" + codeRevision, false, step);
+        }
+
+        /**
+         * Index addition that runs in the background after startup. Uses CREATE INDEX CONCURRENTLY on
+         * PostgreSQL so writes are not blocked; other databases build the index with a plain CREATE INDEX.
+         */
+        public static Migration onlineIndex(int version, String indexName, String table, String columns) {
+            String statement = "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + "(" + columns + ")";
+            return new Migration(version, "index " + indexName, checksumSource(statement), true, conn -> {
+                boolean postgres = conn.getMetaData().getURL().startsWith("jdbc:postgresql:");
+                execute(conn, postgres ? statement.replace("CREATE INDEX", "CREATE INDEX CONCURRENTLY") : statement);
+            });
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public String getChecksum() { return checksum; }
+        public boolean isOnline() { return online; }
+        MigrationStep getStep() { return step; }
+
+        private static void execute(Connection conn, String... statements) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                for (String statement : statements) {
+                    stmt.execute(statement);
+                }
+            }
+        }
+
+        /**
+         * Whitespace-insensitive, so reformatting a statement does not count as a change
+         */
+        private static String checksumSource(String... statements) {
+            StringBuilder source = new StringBuilder();
+            Arrays.stream(statements).forEach(statement -> source.append(statement.trim().replaceAll("\\s+", " ")).append(';'));
+            return source.toString();
+        }
+
+        private static String sha256(String text) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder(digest.length * 2);
+                for (byte b : digest) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
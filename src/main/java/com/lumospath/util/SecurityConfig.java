@@ -0,0 +1,52 @@
+package com.lumospath.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Security settings loaded from security.properties on the classpath.
+ * Any key can be overridden with a system property of the same name.
+ */
+public final class SecurityConfig {
+    private static final Properties properties = new Properties();
+
+    static {
+        try (InputStream input = SecurityConfig.class.getResourceAsStream("/security.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            System.out.println("Using default security configuration: " + e.getMessage());
+        }
+    }
+
+    private SecurityConfig() {
+    }
+
+    public static String getString(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getString(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getString(key, String.valueOf(defaultValue)).trim());
+    }
+}
@@ -0,0 +1,212 @@
+package com.lumospath.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window rate limiter keyed by arbitrary strings (accounts, client addresses).
+ *
+ * Each key uses the sliding-window-counter approximation: the count of the previous fixed window,
+ * weighted by how much of it still overlaps the sliding window, plus the count of the current window.
+ * Both counts and the window index are packed into a single long updated with CAS, so a hit costs one
+ * map lookup and one compare-and-set. At most maxKeys keys are tracked individually; idle keys are
+ * evicted once their windows have expired, and when the table is still full further keys share a fixed
+ * array of striped counters. Sharing can only over-count, so the limiter errs on the side of blocking.
+ */
+public class SlidingWindowRateLimiter {
+    private static final int STRIPES = 1024;
+    private static final long COUNT_MASK = 0xFFFFL;
+    private static final int CLEANUP_INTERVAL = 1024;
+    private static final long MIN_EVICTION_INTERVAL_MILLIS = 1000;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeys;
+
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflowStripes = new AtomicLongArray(STRIPES);
+    private final AtomicInteger operationsSinceCleanup = new AtomicInteger();
+    private final AtomicLong lastEvictionMillis = new AtomicLong();
+
+    /**
+     * @param limit Maximum number of hits per key inside any window
+     * @param windowMillis Length of the sliding window (at least one second)
+     * @param maxKeys Maximum number of keys tracked individually
+     */
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys) {
+        if (limit < 1 || limit >= COUNT_MASK || windowMillis < 1000 || maxKeys < 1) {
+            throw new IllegalArgumentException("Invalid rate limit: limit=" + limit
+                    + ", windowMillis=" + windowMillis + ", maxKeys=" + maxKeys);
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Record a hit for the key if it is still under the limit
+     * @return true if the hit was allowed, false if the key is currently rate limited
+     */
+    public boolean tryAcquire(String key) {
+        return update(key, true);
+    }
+
+    /**
+     * Record a hit for the key regardless of the limit (e.g. a failed login)
+     */
+    public void record(String key) {
+        update(key, false);
+    }
+
+    /**
+     * Check whether the key has reached the limit, without recording a hit
+     */
+    public boolean isLimited(String key) {
+        AtomicLong window = windows.get(key);
+        if (window == null && windows.size() < maxKeys) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long state = window != null ? window.get() : overflowStripes.get(stripe(key));
+        return estimate(rotate(state, now / windowMillis), now) >= limit;
+    }
+
+    /**
+     * Forget a key (e.g. after a successful login). Keys sharing an overflow stripe are not reset.
+     */
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    /**
+     * Number of keys tracked individually
+     */
+    public int getTrackedKeys() {
+        return windows.size();
+    }
+
+    /**
+     * Remove keys whose windows have fully expired
+     * @return Number of keys removed
+     */
+    public int evictExpired() {
+        long currentWindow = System.currentTimeMillis() / windowMillis;
+        int removed = 0;
+        Iterator<AtomicLong> iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            if (windowIndex(iterator.next().get()) < currentWindow - 1) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Make room in a full table. Scans are throttled so a flood of new keys cannot turn every hit
+     * into a full scan; while throttled, new keys go to the overflow stripes.
+     * @return true if there is room for another key
+     */
+    private boolean evictWhenFull() {
+        long now = System.currentTimeMillis();
+        long last = lastEvictionMillis.get();
+        if (now - last >= MIN_EVICTION_INTERVAL_MILLIS && lastEvictionMillis.compareAndSet(last, now)) {
+            evictExpired();
+        }
+        return windows.size() < maxKeys;
+    }
+
+    private boolean update(String key, boolean enforceLimit) {
+        if (operationsSinceCleanup.incrementAndGet() >= CLEANUP_INTERVAL) {
+            operationsSinceCleanup.set(0);
+            evictExpired();
+        }
+
+        AtomicLong window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxKeys && !evictWhenFull()) {
+                return updateOverflow(stripe(key), enforceLimit);
+            }
+            window = windows.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        long now = System.currentTimeMillis();
+        long currentWindow = now / windowMillis;
+        while (true) {
+            long state = window.get();
+            long rotated = rotate(state, currentWindow);
+            if (enforceLimit && estimate(rotated, now) >= limit) {
+                return false;
+            }
+            if (window.compareAndSet(state, increment(rotated))) {
+                return true;
+            }
+        }
+    }
+
+    private boolean updateOverflow(int stripe, boolean enforceLimit) {
+        long now = System.currentTimeMillis();
+        long currentWindow = now / windowMillis;
+        while (true) {
+            long state = overflowStripes.get(stripe);
+            long rotated = rotate(state, currentWindow);
+            if (enforceLimit && estimate(rotated, now) >= limit) {
+                return false;
+            }
+            if (overflowStripes.compareAndSet(stripe, state, increment(rotated))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Weighted hit count over the sliding window ending now
+     */
+    private double estimate(long state, long now) {
+        double elapsedFraction = (now % windowMillis) / (double) windowMillis;
+        return previousCount(state) * (1.0 - elapsedFraction) + currentCount(state);
+    }
+
+    /**
+     * Move a state forward to the given window, shifting or dropping old counts
+     */
+    private static long rotate(long state, long currentWindow) {
+        long window = windowIndex(state);
+        if (window == currentWindow) {
+            return state;
+        }
+        long previous = window == currentWindow - 1 ? currentCount(state) : 0;
+        return pack(currentWindow, previous, 0);
+    }
+
+    private static long increment(long state) {
+        long current = Math.min(COUNT_MASK, currentCount(state) + 1);
+        return pack(windowIndex(state), previousCount(state), current);
+    }
+
+    // State layout: [window index: 32 bits][previous count: 16 bits][current count: 16 bits]
+    private static long pack(long window, long previous, long current) {
+        return (window << 32) | (previous << 16) | current;
+    }
+
+    private static long windowIndex(long state) {
+        return state >>> 32;
+    }
+
+    private static long previousCount(long state) {
+        return (state >>> 16) & COUNT_MASK;
+    }
+
+    private static long currentCount(long state) {
+        return state & COUNT_MASK;
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
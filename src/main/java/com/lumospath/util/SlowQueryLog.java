@@ -0,0 +1,233 @@
+package com.lumospath.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Slow-query detector for statements run through DatabaseUtil.
+ * Queries slower than the configured threshold are kept in a bounded in-memory buffer and appended
+ * to a rolling log file together with the parameter shapes (types and lengths, never values) and,
+ * for SELECT statements, the database's EXPLAIN plan. The plan and the file write are handled on a
+ * background thread with its own connection, so recording never adds to the slow statement itself.
+ */
+public final class SlowQueryLog {
+    private static volatile long thresholdNanos = 200_000_000L;
+    private static volatile boolean explainEnabled = true;
+    private static volatile int bufferSize = 100;
+    private static volatile Path logFile = Paths.get("logs", "slow-queries.log");
+    private static volatile long maxFileBytes = 5L * 1024 * 1024;
+
+    private static final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+    private static final ExecutorService RECORD_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lumospath-slow-query-log");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Configure the detector
+     * @param thresholdMs Queries taking at least this long are recorded (0 or less disables detection)
+     * @param explain Whether to capture an EXPLAIN plan for slow SELECT statements
+     * @param file Rolling log file path, or null to keep entries in memory only
+     * @param maxBytes Size at which the log file is rolled over to "file.1"
+     * @param maxEntries Number of slow queries kept in memory
+     */
+    public static void configure(long thresholdMs, boolean explain, String file, long maxBytes, int maxEntries) {
+        thresholdNanos = thresholdMs <= 0 ? Long.MAX_VALUE : thresholdMs * 1_000_000L;
+        explainEnabled = explain;
+        logFile = file == null || file.isBlank() ? null : Paths.get(file);
+        maxFileBytes = maxBytes;
+        bufferSize = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Check whether an elapsed time counts as slow
+     */
+    public static boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Record a slow statement in the background. The SQL and parameters are captured now; the EXPLAIN
+     * plan is taken later on a separate connection.
+     */
+    public static void record(String sql, Object[] params, long elapsedNanos) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        Object[] capturedParams = params == null ? new Object[0] : params.clone();
+        MetricsRegistry.counter("db.slowQueries").increment();
+        RECORD_EXECUTOR.execute(() -> {
+            String plan = explainEnabled ? explain(sql, capturedParams) : null;
+            SlowQuery query = new SlowQuery(timestamp, sql, describeParameters(capturedParams), elapsedNanos, plan);
+
+            synchronized (recent) {
+                recent.addLast(query);
+                while (recent.size() > bufferSize) {
+                    recent.removeFirst();
+                }
+            }
+            appendToFile(query);
+        });
+    }
+
+    /**
+     * Get the most recent slow queries, oldest first
+     */
+    public static List<SlowQuery> getRecentSlowQueries() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Clear the in-memory buffer
+     */
+    public static void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+    }
+
+    /**
+     * Run EXPLAIN for a SELECT statement on a fresh connection
+     */
+    private static String explain(String sql, Object[] params) {
+        if (!sql.trim().regionMatches(true, 0, "SELECT", 0, 6)) {
+            return null;
+        }
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return explain(conn, sql, params);
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Run EXPLAIN for a SELECT statement with the same parameters
+     */
+    public static String explain(Connection conn, String sql, Object... params) {
+        if (!sql.trim().regionMatches(true, 0, "SELECT", 0, 6)) {
+            return null;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (plan.length() > 0) plan.append('\n');
+                    plan.append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Describe bound parameters by type and size only, so user content never reaches the log
+     */
+    static String describeParameters(Object[] params) {
+        if (params == null || params.length == 0) {
+            return "[]";
+        }
+        StringBuilder shape = new StringBuilder("[");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) shape.append(", ");
+            Object param = params[i];
+            if (param == null) {
+                shape.append("null");
+            } else if (param instanceof CharSequence) {
+                shape.append("String(").append(((CharSequence) param).length()).append(')');
+            } else {
+                shape.append(param.getClass().getSimpleName());
+            }
+        }
+        return shape.append(']').toString();
+    }
+
+    private static synchronized void appendToFile(SlowQuery query) {
+        Path file = logFile;
+        if (file == null) {
+            return;
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+                Files.move(file, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.writeString(file, query.toLogEntry(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Could not write slow query log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A single slow statement
+     */
+    public static final class SlowQuery {
+        private final LocalDateTime timestamp;
+        private final String sql;
+        private final String parameterShape;
+        private final long elapsedNanos;
+        private final String plan;
+
+        SlowQuery(LocalDateTime timestamp, String sql, String parameterShape, long elapsedNanos, String plan) {
+            this.timestamp = timestamp;
+            this.sql = sql;
+            this.parameterShape = parameterShape;
+            this.elapsedNanos = elapsedNanos;
+            this.plan = plan;
+        }
+
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public String getSql() { return sql; }
+        public String getParameterShape() { return parameterShape; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+        public String getPlan() { return plan; }
+
+        String toLogEntry() {
+            StringBuilder entry = new StringBuilder();
+            entry.append(DatabaseUtil.formatDateTime(timestamp))
+                 .append(String.format(" %.1f ms ", getElapsedMillis()))
+                 .append(sql.replaceAll("\\s+", " ").trim())
+                 .append(" params=").append(parameterShape)
+                 .append(System.lineSeparator());
+            if (plan != null) {
+                for (String line : plan.split("\n")) {
+                    entry.append("    plan: ").append(line).append(System.lineSeparator());
+                }
+            }
+            return entry.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SlowQuery{%.1f ms, sql='%s', params=%s}", getElapsedMillis(), sql, parameterShape);
+        }
+    }
+}
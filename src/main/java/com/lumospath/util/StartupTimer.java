@@ -0,0 +1,87 @@
+package com.lumospath.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records startup milestones (time since JVM start) and the duration of individual startup phases,
+ * so cold-start regressions show up in the log and in the "startup.*" metrics.
+ */
+public final class StartupTimer {
+    private static final Map<String, Long> milestones = new LinkedHashMap<>();
+    private static final Map<String, Long> phases = new LinkedHashMap<>();
+    private static boolean summaryLogged;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Record that a milestone was reached, measured from JVM start
+     */
+    public static void mark(String milestone) {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        synchronized (milestones) {
+            milestones.putIfAbsent(milestone, uptimeMillis);
+        }
+        MetricsRegistry.histogram("startup." + milestone).record(uptimeMillis * 1_000_000L);
+    }
+
+    /**
+     * Run a startup phase and record how long it took
+     */
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            synchronized (milestones) {
+                phases.put(phase, elapsedNanos / 1_000_000);
+            }
+            MetricsRegistry.histogram("startup.phase." + phase).record(elapsedNanos);
+        }
+    }
+
+    /**
+     * Run a startup phase without a result and record how long it took
+     */
+    public static void run(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the milestones reached so far, in order, as milliseconds since JVM start
+     */
+    public static Map<String, Long> getMilestones() {
+        synchronized (milestones) {
+            return new LinkedHashMap<>(milestones);
+        }
+    }
+
+    /**
+     * Get the recorded phase durations in milliseconds
+     */
+    public static Map<String, Long> getPhases() {
+        synchronized (milestones) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    /**
+     * Print milestones and phase durations as one log line. Only the first call prints.
+     */
+    public static void logSummary() {
+        synchronized (milestones) {
+            if (summaryLogged) {
+                return;
+            }
+            summaryLogged = true;
+            System.out.println("⏱️ Startup milestones (ms since JVM start) " + milestones + ", phases (ms) " + phases);
+        }
+    }
+}
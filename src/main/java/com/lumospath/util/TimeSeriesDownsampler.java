@@ -0,0 +1,204 @@
+package com.lumospath.util;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a long, x-ordered time series to a fixed number of points for charting.
+ * The line is picked with Largest-Triangle-Three-Buckets (LTTB), which keeps the visual shape,
+ * spikes included, far better than averaging or taking every n-th point. Each picked point also
+ * carries the min/max envelope of the bucket it stands for, so extremes dropped from the line
+ * can still be drawn. Sampling only looks at the requested x window, so zooming in shows
+ * more detail at the same point budget. New points are appended in amortized O(1).
+ */
+public class TimeSeriesDownsampler {
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] lows = new double[64];
+    private double[] highs = new double[64];
+    private int size;
+
+    /**
+     * Add a point after the existing ones. A point with the same x as the last one replaces it.
+     * @param low Lowest raw value the point summarizes (y itself for a single value)
+     * @param high Highest raw value the point summarizes
+     * @throws IllegalArgumentException if x is before the last point
+     */
+    public synchronized void append(double x, double y, double low, double high) {
+        if (size > 0 && x < xs[size - 1]) {
+            throw new IllegalArgumentException("Points must be appended in x order");
+        }
+        if (size > 0 && x == xs[size - 1]) {
+            size--;
+        }
+        if (size == xs.length) {
+            int capacity = size * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        lows[size] = low;
+        highs[size] = high;
+        size++;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the x of the first point, or NaN when empty
+     */
+    public synchronized double firstX() {
+        return size == 0 ? Double.NaN : xs[0];
+    }
+
+    /**
+     * Get the x of the last point, or NaN when empty
+     */
+    public synchronized double lastX() {
+        return size == 0 ? Double.NaN : xs[size - 1];
+    }
+
+    /**
+     * Count the points within [fromX, toX]
+     */
+    public synchronized int count(double fromX, double toX) {
+        return Math.max(0, upperBound(toX) - lowerBound(fromX));
+    }
+
+    /**
+     * Downsample the points within [fromX, toX]
+     * @param maxPoints Point budget, usually derived from the chart's pixel width
+     * @return At most maxPoints points; every point is kept when they already fit
+     */
+    public synchronized Sample sample(double fromX, double toX, int maxPoints) {
+        int from = lowerBound(fromX);
+        int to = upperBound(toX);
+        int count = Math.max(0, to - from);
+        if (count <= maxPoints || maxPoints < 3) {
+            int keep = maxPoints < 3 ? Math.min(count, Math.max(0, maxPoints)) : count;
+            Sample sample = new Sample(keep);
+            for (int i = 0; i < keep; i++) {
+                sample.set(i, xs[from + i], ys[from + i], lows[from + i], highs[from + i]);
+            }
+            return sample;
+        }
+        return largestTriangleThreeBuckets(from, to, maxPoints);
+    }
+
+    private Sample largestTriangleThreeBuckets(int from, int to, int threshold) {
+        Sample sample = new Sample(threshold);
+        int count = to - from;
+        // First and last points are always kept; the others are split into threshold - 2 buckets
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+
+        int selected = from;
+        sample.set(0, xs[from], ys[from], lows[from], highs[from]);
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = from + (int) Math.floor(bucket * bucketSize) + 1;
+            int bucketEnd = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket is the third triangle corner
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min(from + (int) Math.floor((bucket + 2) * bucketSize) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double ax = xs[selected];
+            double ay = ys[selected];
+            double maxArea = -1;
+            int maxAreaIndex = bucketStart;
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                // Twice the triangle area; the factor does not change which point wins
+                double area = Math.abs((ax - avgX) * (ys[i] - ay) - (ax - xs[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaIndex = i;
+                }
+                low = Math.min(low, lows[i]);
+                high = Math.max(high, highs[i]);
+            }
+            sample.set(bucket + 1, xs[maxAreaIndex], ys[maxAreaIndex], low, high);
+            selected = maxAreaIndex;
+        }
+
+        int last = to - 1;
+        sample.set(threshold - 1, xs[last], ys[last], lows[last], highs[last]);
+        return sample;
+    }
+
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Downsampled points with the min/max envelope of the raw points each one represents
+     */
+    public static final class Sample {
+        private final double[] x;
+        private final double[] y;
+        private final double[] low;
+        private final double[] high;
+
+        Sample(int size) {
+            this.x = new double[size];
+            this.y = new double[size];
+            this.low = new double[size];
+            this.high = new double[size];
+        }
+
+        private void set(int index, double x, double y, double low, double high) {
+            this.x[index] = x;
+            this.y[index] = y;
+            this.low[index] = low;
+            this.high[index] = high;
+        }
+
+        public int size() { return x.length; }
+        public double getX(int index) { return x[index]; }
+        public double getY(int index) { return y[index]; }
+        public double getLow(int index) { return low[index]; }
+        public double getHigh(int index) { return high[index]; }
+    }
+}